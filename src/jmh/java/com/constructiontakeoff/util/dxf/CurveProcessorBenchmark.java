@@ -0,0 +1,122 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.ArcProcessor;
+import com.constructiontakeoff.util.geometry.EllipseProcessor;
+import com.constructiontakeoff.util.geometry.EntityProcessor;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.SplineProcessor;
+import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Each operation processes ENTITIES curves; scores are per entity.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurveProcessorBenchmark {
+    private static final int ENTITIES = 20000;
+    private static final int CONTROL_POINTS = 12;
+    private static final int DEGREE = 3;
+
+    @Param({ "ARC", "ELLIPSE_ARC", "SPLINE_UNIQUE", "SPLINE_TRANSLATED" })
+    public String shape;
+
+    private DxfEntity[] entities;
+    private EntityProcessor processor;
+    private LayerInfoTable layerInfos;
+
+    @Setup
+    public void createEntities() {
+        SymbolTable symbols = new SymbolTable();
+        BlockLibrary blocks = new BlockLibrary(symbols);
+        int layerId = symbols.id("A-CURV");
+        Random random = new Random(42L);
+        LayerMaterialProvider materials = new LayerMaterialProvider();
+
+        entities = new DxfEntity[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            DxfEntity entity = new DxfEntity(symbols, blocks);
+            switch (shape) {
+                case "ARC":
+                    entity.reset("ARC", EntityType.ARC, layerId, SymbolTable.EMPTY);
+                    vertex(entity, random.nextDouble() * 1e5, random.nextDouble() * 1e5);
+                    entity.setRadius(100 + random.nextDouble() * 900);
+                    entity.setStartAngle(random.nextDouble() * 360);
+                    entity.setEndAngle(random.nextDouble() * 360);
+                    break;
+                case "ELLIPSE_ARC":
+                    entity.reset("ELLIPSE", EntityType.ELLIPSE, layerId, SymbolTable.EMPTY);
+                    vertex(entity, random.nextDouble() * 1e5, random.nextDouble() * 1e5);
+                    vertex(entity, 500 + random.nextDouble() * 500, random.nextDouble() * 200);
+                    entity.setAxisRatio(0.2 + random.nextDouble() * 0.7);
+                    entity.setStartAngle(random.nextDouble() * Math.PI);
+                    entity.setEndAngle(Math.PI + random.nextDouble() * Math.PI);
+                    break;
+                default:
+                    boolean translated = shape.equals("SPLINE_TRANSLATED");
+                    spline(entity, layerId, translated ? new Random(7L) : random,
+                            translated ? i * 1000.0 : 0.0);
+            }
+            entities[i] = entity;
+        }
+
+        HashMap<String, Double> scaleFactors = new HashMap<>();
+        switch (shape) {
+            case "ARC":
+                processor = new ArcProcessor(materials, scaleFactors);
+                break;
+            case "ELLIPSE_ARC":
+                processor = new EllipseProcessor(materials, scaleFactors);
+                break;
+            default:
+                processor = new SplineProcessor(materials, scaleFactors);
+        }
+        layerInfos = new LayerInfoTable();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public LayerInfoTable process() throws DxfParsingException {
+        for (DxfEntity entity : entities) {
+            processor.process(entity, layerInfos);
+        }
+        return layerInfos;
+    }
+
+    private static void spline(DxfEntity entity, int layerId, Random random, double offset) {
+        entity.reset("SPLINE", EntityType.SPLINE, layerId, SymbolTable.EMPTY);
+        entity.setDegree(DEGREE);
+        int knots = CONTROL_POINTS + DEGREE + 1;
+        for (int k = 0; k < knots; k++) {
+            entity.addKnot(Math.min(Math.max(k - DEGREE, 0), CONTROL_POINTS - DEGREE));
+        }
+        double x = offset;
+        for (int k = 0; k < CONTROL_POINTS; k++) {
+            x += 100 + random.nextDouble() * 400;
+            vertex(entity, x, random.nextDouble() * 1000);
+        }
+    }
+
+    private static void vertex(DxfEntity entity, double x, double y) {
+        entity.addVertex(x);
+        entity.setY(y);
+    }
+}
@@ -0,0 +1,64 @@
+package com.constructiontakeoff.util.dxf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// MB/s = file size printed at setup / average time per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedDxfTokenizerBenchmark {
+
+    @Param({ "200000" })
+    public int entityCount;
+
+    @Param({ "STREAM", "MAPPED" })
+    public DxfParser.TokenizerMode tokenizerMode;
+
+    private File dxfFile;
+
+    @Setup
+    public void writeDrawing() throws IOException {
+        dxfFile = SyntheticDxf.write(entityCount, 42L);
+        System.out.printf("%n%s: %.1f MB%n", dxfFile.getName(), dxfFile.length() / 1e6);
+    }
+
+    @Benchmark
+    public double tokenize() throws Exception {
+        double checksum = 0.0;
+        try (DxfTokenizer tokenizer = DxfParser.openTokenizer(dxfFile, tokenizerMode)) {
+            while (tokenizer.next()) {
+                int code = tokenizer.groupCode();
+                if (code >= 10 && code < 40) {
+                    checksum += tokenizer.doubleValue();
+                } else {
+                    checksum += code;
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long parse() throws DxfParsingException {
+        long[] count = new long[1];
+        new DxfParser(tokenizerMode).parse(dxfFile, entity -> count[0] += entity.getVertexCount());
+        return count[0];
+    }
+}
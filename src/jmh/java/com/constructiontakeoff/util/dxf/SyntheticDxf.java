@@ -0,0 +1,107 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+
+final class SyntheticDxf {
+    private static final String[] LAYERS = { "A-WALL", "A-DOOR", "A-GLAZ", "S-COLS", "A-FURN" };
+
+    private SyntheticDxf() {
+    }
+
+    static File write(int entityCount, long seed) throws IOException {
+        File file = File.createTempFile("synthetic-" + entityCount + "-", ".dxf");
+        file.deleteOnExit();
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII)) {
+            pair(out, 0, "SECTION");
+            pair(out, 2, "HEADER");
+            pair(out, 9, "$INSUNITS");
+            pair(out, 70, "4");
+            pair(out, 0, "ENDSEC");
+            pair(out, 0, "SECTION");
+            pair(out, 2, "BLOCKS");
+            pair(out, 0, "BLOCK");
+            pair(out, 2, "CHAIR");
+            pair(out, 10, "0.0");
+            pair(out, 20, "0.0");
+            for (int i = 0; i < 4; i++) {
+                line(out, "A-FURN", random);
+            }
+            pair(out, 0, "ENDBLK");
+            pair(out, 0, "ENDSEC");
+            pair(out, 0, "SECTION");
+            pair(out, 2, "ENTITIES");
+            for (int i = 0; i < entityCount; i++) {
+                switch (i % 4) {
+                    case 0:
+                    case 1:
+                        line(out, LAYERS[random.nextInt(LAYERS.length)], random);
+                        break;
+                    case 2:
+                        polyline(out, LAYERS[random.nextInt(LAYERS.length)], random);
+                        break;
+                    default:
+                        if (random.nextBoolean()) {
+                            pair(out, 0, "CIRCLE");
+                            pair(out, 8, "S-COLS");
+                            point(out, 10, random);
+                            pair(out, 40, number(50 + random.nextDouble() * 400));
+                        } else {
+                            pair(out, 0, "INSERT");
+                            pair(out, 8, "A-FURN");
+                            pair(out, 2, "CHAIR");
+                            point(out, 10, random);
+                        }
+                }
+            }
+            pair(out, 0, "ENDSEC");
+            pair(out, 0, "EOF");
+        }
+        return file;
+    }
+
+    private static void line(BufferedWriter out, String layer, Random random) throws IOException {
+        pair(out, 0, "LINE");
+        pair(out, 8, layer);
+        point(out, 10, random);
+        point(out, 11, random);
+    }
+
+    private static void polyline(BufferedWriter out, String layer, Random random) throws IOException {
+        int vertices = 4 + random.nextInt(12);
+        pair(out, 0, "LWPOLYLINE");
+        pair(out, 8, layer);
+        pair(out, 90, Integer.toString(vertices));
+        pair(out, 70, random.nextBoolean() ? "1" : "0");
+        for (int i = 0; i < vertices; i++) {
+            pair(out, 10, number(random.nextDouble() * 100000));
+            pair(out, 20, number(random.nextDouble() * 100000));
+            if (random.nextInt(8) == 0) {
+                pair(out, 42, number(random.nextDouble() - 0.5));
+            }
+        }
+    }
+
+    private static void point(BufferedWriter out, int code, Random random) throws IOException {
+        pair(out, code, number(random.nextDouble() * 100000));
+        pair(out, code + 10, number(random.nextDouble() * 100000));
+        pair(out, code + 20, "0.0");
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private static void pair(BufferedWriter out, int code, String value) throws IOException {
+        out.write(String.format(Locale.ROOT, "%3d", code));
+        out.newLine();
+        out.write(value);
+        out.newLine();
+    }
+}
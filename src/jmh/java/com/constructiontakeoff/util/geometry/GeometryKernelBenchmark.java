@@ -0,0 +1,62 @@
+package com.constructiontakeoff.util.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class GeometryKernelBenchmark {
+
+    @Param({ GeometryKernels.SCALAR, GeometryKernels.VECTOR })
+    public String kernelName;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    public int vertices;
+
+    private GeometryKernel kernel;
+    private double[] xs;
+    private double[] ys;
+
+    @Setup
+    public void createPolyline() {
+        kernel = GeometryKernels.select(kernelName);
+        if (GeometryKernels.VECTOR.equals(kernelName) && !GeometryKernels.isVectorAvailable()) {
+            throw new IllegalStateException("jdk.incubator.vector is not available in the benchmark JVM");
+        }
+        Random random = new Random(42L);
+        xs = new double[vertices];
+        ys = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = 1000 + random.nextDouble() * 100;
+            xs[i] = radius * Math.cos(angle);
+            ys[i] = radius * Math.sin(angle);
+        }
+    }
+
+    @Benchmark
+    public double length() {
+        return kernel.sumSegmentLengths(xs, ys, 0, vertices);
+    }
+
+    @Benchmark
+    public double shoelace() {
+        return kernel.sumCrossProducts(xs, ys, 0, vertices);
+    }
+}
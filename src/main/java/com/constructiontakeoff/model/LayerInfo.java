@@ -2,81 +2,66 @@ package com.constructiontakeoff.model;
 
 import com.constructiontakeoff.util.geometry.EntityType;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
 public class LayerInfo {
-    private final String layerName;
-    private String material;
-    private double totalLength = 0.0;
-    private double totalArea = 0.0;
-    private int entityCount = 0;
-    private Map<EntityType, Integer> entityTypeCounts = new HashMap<>();
-    private EntityType primaryEntityType = null;
-
-    public LayerInfo(String layerName, String material) {
-        this.layerName = layerName;
-        this.material = material;
-    }
+    private static final EntityType[] TYPES = EntityType.values();
 
-    public String getLayerName() {
-        return layerName;
-    }
+    private final LayerInfoTable table;
+    private final int id;
 
-    public String getMaterial() {
-        return material;
+    LayerInfo(LayerInfoTable table, int id) {
+        this.table = table;
+        this.id = id;
     }
 
-    public void setMaterial(String material) {
-        this.material = material;
+    public int getId() {
+        return id;
     }
 
-    public double getTotalLength() {
-        return totalLength;
+    public String getLayerName() {
+        return table.getLayerName(id);
     }
 
-    public void addLength(double length) {
-        this.totalLength += length;
+    public String getMaterial() {
+        return table.getMaterial(id);
     }
 
-    public double getTotalArea() {
-        return totalArea;
+    public double getTotalLength() {
+        return table.totals().getLength(id);
     }
 
-    public void addArea(double area) {
-        this.totalArea += area;
+    public double getTotalArea() {
+        return table.totals().getArea(id);
     }
 
-    public int getEntityCount() {
-        return entityCount;
+    public long getEntityCount() {
+        return table.totals().getEntityCount(id);
     }
 
-    public void incrementEntityCount() {
-        this.entityCount++;
+    public long getEntityCount(EntityType entityType) {
+        return entityType != null ? table.totals().getCount(id, entityType.ordinal()) : 0L;
     }
 
-    public void incrementEntityCount(EntityType entityType) {
-        if (entityType == null)
-            return;
-
-        this.entityCount++;
-
-        int currentCount = entityTypeCounts.getOrDefault(entityType, 0);
-        entityTypeCounts.put(entityType, currentCount + 1);
-
-        if (primaryEntityType == null ||
-                entityTypeCounts.get(entityType) > entityTypeCounts.getOrDefault(primaryEntityType, 0)) {
-            primaryEntityType = entityType;
-        }
+    public long getDuplicateCount() {
+        return table.totals().getDuplicateCount(id);
     }
 
     public EntityType getPrimaryEntityType() {
+        EntityType primaryEntityType = null;
+        long primaryCount = 0;
+        for (EntityType entityType : TYPES) {
+            long count = table.totals().getCount(id, entityType.ordinal());
+            if (count > primaryCount) {
+                primaryEntityType = entityType;
+                primaryCount = count;
+            }
+        }
         return primaryEntityType;
     }
 
     public boolean containsEntityType(EntityType entityType) {
-        return entityTypeCounts.containsKey(entityType) && entityTypeCounts.get(entityType) > 0;
+        return getEntityCount(entityType) > 0;
     }
 
     @Override
@@ -86,22 +71,22 @@ public class LayerInfo {
         if (o == null || getClass() != o.getClass())
             return false;
         LayerInfo layerInfo = (LayerInfo) o;
-        return Objects.equals(layerName, layerInfo.layerName);
+        return Objects.equals(getLayerName(), layerInfo.getLayerName());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(layerName);
+        return Objects.hash(getLayerName());
     }
 
     @Override
     public String toString() {
         return "LayerInfo{" +
-                "layerName='" + layerName + '\'' +
-                ", material='" + material + '\'' +
-                ", totalLength=" + totalLength +
-                ", totalArea=" + totalArea +
-                ", entityCount=" + entityCount +
+                "layerName='" + getLayerName() + '\'' +
+                ", material='" + getMaterial() + '\'' +
+                ", totalLength=" + getTotalLength() +
+                ", totalArea=" + getTotalArea() +
+                ", entityCount=" + getEntityCount() +
                 '}';
     }
 }
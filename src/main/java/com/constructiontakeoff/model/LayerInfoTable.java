@@ -0,0 +1,122 @@
+package com.constructiontakeoff.model;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LayerInfoTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final LayerTotals totals = new LayerTotals();
+    private LayerInfo[] layers = new LayerInfo[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] materials = new String[INITIAL_CAPACITY];
+    private int size;
+
+    public LayerInfo get(int id) {
+        return id < layers.length ? layers[id] : null;
+    }
+
+    public LayerInfo register(int id, String layerName, String material) {
+        if (id >= layers.length) {
+            int capacity = Math.max(id + 1, layers.length * 2);
+            layers = Arrays.copyOf(layers, capacity);
+            names = Arrays.copyOf(names, capacity);
+            materials = Arrays.copyOf(materials, capacity);
+        }
+        if (layers[id] == null) {
+            layers[id] = new LayerInfo(this, id);
+            size++;
+        }
+        names[id] = layerName;
+        materials[id] = material;
+        return layers[id];
+    }
+
+    public void addLength(int id, double length) {
+        totals.addLength(id, length);
+    }
+
+    public void addArea(int id, double area) {
+        totals.addArea(id, area);
+    }
+
+    public void increment(int id, EntityType entityType) {
+        increment(id, entityType, 1);
+    }
+
+    public void increment(int id, EntityType entityType, long count) {
+        if (entityType == null || count <= 0) {
+            return;
+        }
+        totals.increment(id, entityType.ordinal(), count);
+    }
+
+    public void decrement(int id, EntityType entityType) {
+        totals.increment(id, entityType.ordinal(), -1);
+    }
+
+    public void addDuplicates(int id, long count) {
+        if (count > 0) {
+            totals.addDuplicates(id, count);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    String getLayerName(int id) {
+        return names[id];
+    }
+
+    String getMaterial(int id) {
+        return materials[id];
+    }
+
+    LayerTotals totals() {
+        return totals;
+    }
+
+    public LayerInfoTable merge(LayerInfoTable other) {
+        if (other == null || other == this) {
+            return this;
+        }
+        for (int id = 0; id < other.layers.length; id++) {
+            if (other.layers[id] == null) {
+                continue;
+            }
+            if (get(id) == null) {
+                register(id, other.names[id], other.materials[id]);
+            } else if (other.materials[id] != null) {
+                materials[id] = other.materials[id];
+            }
+        }
+        totals.merge(other.totals);
+        return this;
+    }
+
+    public List<LayerInfo> layers() {
+        List<LayerInfo> registered = new ArrayList<>(size);
+        for (LayerInfo layerInfo : layers) {
+            if (layerInfo != null) {
+                registered.add(layerInfo);
+            }
+        }
+        return registered;
+    }
+
+    public Map<String, LayerInfo> toMap() {
+        Map<String, LayerInfo> layerInfoMap = new LinkedHashMap<>();
+        for (LayerInfo layerInfo : layers) {
+            if (layerInfo != null) {
+                layerInfoMap.put(layerInfo.getLayerName(), layerInfo);
+            }
+        }
+        return layerInfoMap;
+    }
+}
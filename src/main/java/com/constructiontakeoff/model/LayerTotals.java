@@ -0,0 +1,155 @@
+package com.constructiontakeoff.model;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public class LayerTotals {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private double[] lengths = new double[INITIAL_CAPACITY];
+    private double[] lengthCompensations = new double[INITIAL_CAPACITY];
+    private double[] areas = new double[INITIAL_CAPACITY];
+    private double[] areaCompensations = new double[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY * TYPES.length];
+    private long[] duplicates = new long[INITIAL_CAPACITY];
+    private int maxLayerId = -1;
+
+    public void addLength(int layerId, double length) {
+        ensureLayer(layerId);
+        add(lengths, lengthCompensations, layerId, length);
+    }
+
+    public void addArea(int layerId, double area) {
+        ensureLayer(layerId);
+        add(areas, areaCompensations, layerId, area);
+    }
+
+    public void increment(int layerId, int typeId) {
+        increment(layerId, typeId, 1);
+    }
+
+    public void increment(int layerId, int typeId, long count) {
+        ensureLayer(layerId);
+        counts[layerId * TYPES.length + typeId] += count;
+    }
+
+    public void addDuplicates(int layerId, long count) {
+        ensureLayer(layerId);
+        duplicates[layerId] += count;
+    }
+
+    public double getLength(int layerId) {
+        return layerId <= maxLayerId ? lengths[layerId] + lengthCompensations[layerId] : 0.0;
+    }
+
+    public double getArea(int layerId) {
+        return layerId <= maxLayerId ? areas[layerId] + areaCompensations[layerId] : 0.0;
+    }
+
+    public long getCount(int layerId, int typeId) {
+        return layerId <= maxLayerId ? counts[layerId * TYPES.length + typeId] : 0L;
+    }
+
+    public long getDuplicateCount(int layerId) {
+        return layerId <= maxLayerId ? duplicates[layerId] : 0L;
+    }
+
+    public long getEntityCount(int layerId) {
+        if (layerId > maxLayerId) {
+            return 0L;
+        }
+        long total = 0;
+        int base = layerId * TYPES.length;
+        for (int type = 0; type < TYPES.length; type++) {
+            total += counts[base + type];
+        }
+        return total;
+    }
+
+    public LayerTotals merge(LayerTotals other) {
+        if (other == null || other == this || other.maxLayerId < 0) {
+            return this;
+        }
+        ensureLayer(other.maxLayerId);
+        for (int layerId = 0; layerId <= other.maxLayerId; layerId++) {
+            add(lengths, lengthCompensations, layerId, other.lengths[layerId]);
+            lengthCompensations[layerId] += other.lengthCompensations[layerId];
+            add(areas, areaCompensations, layerId, other.areas[layerId]);
+            areaCompensations[layerId] += other.areaCompensations[layerId];
+            duplicates[layerId] += other.duplicates[layerId];
+        }
+        int countLimit = (other.maxLayerId + 1) * TYPES.length;
+        for (int i = 0; i < countLimit; i++) {
+            counts[i] += other.counts[i];
+        }
+        return this;
+    }
+
+    public void drainTo(LayerInfoTable layerInfos, Map<String, Double> materialScaleFactors) {
+        for (int layerId = 0; layerId <= maxLayerId; layerId++) {
+            LayerInfo layerInfo = layerInfos.get(layerId);
+            if (layerInfo == null) {
+                continue;
+            }
+
+            double scaleFactor = materialScaleFactors.getOrDefault(layerInfo.getMaterial(), 1.0);
+            double length = getLength(layerId);
+            if (length != 0) {
+                layerInfos.addLength(layerId, length * scaleFactor);
+            }
+            double area = getArea(layerId);
+            if (area != 0) {
+                layerInfos.addArea(layerId, area * scaleFactor);
+            }
+            int base = layerId * TYPES.length;
+            for (int type = 0; type < TYPES.length; type++) {
+                if (counts[base + type] > 0) {
+                    layerInfos.increment(layerId, TYPES[type], counts[base + type]);
+                }
+            }
+            if (duplicates[layerId] > 0) {
+                layerInfos.addDuplicates(layerId, duplicates[layerId]);
+            }
+        }
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(lengths, 0, maxLayerId + 1, 0.0);
+        Arrays.fill(lengthCompensations, 0, maxLayerId + 1, 0.0);
+        Arrays.fill(areas, 0, maxLayerId + 1, 0.0);
+        Arrays.fill(areaCompensations, 0, maxLayerId + 1, 0.0);
+        Arrays.fill(counts, 0, (maxLayerId + 1) * TYPES.length, 0L);
+        Arrays.fill(duplicates, 0, maxLayerId + 1, 0L);
+        maxLayerId = -1;
+    }
+
+    private void ensureLayer(int layerId) {
+        if (layerId >= lengths.length) {
+            int capacity = Math.max(layerId + 1, lengths.length * 2);
+            lengths = Arrays.copyOf(lengths, capacity);
+            lengthCompensations = Arrays.copyOf(lengthCompensations, capacity);
+            areas = Arrays.copyOf(areas, capacity);
+            areaCompensations = Arrays.copyOf(areaCompensations, capacity);
+            counts = Arrays.copyOf(counts, capacity * TYPES.length);
+            duplicates = Arrays.copyOf(duplicates, capacity);
+        }
+        if (layerId > maxLayerId) {
+            maxLayerId = layerId;
+        }
+    }
+
+    private static void add(double[] sums, double[] compensations, int index, double value) {
+        double sum = sums[index];
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensations[index] += (sum - total) + value;
+        } else {
+            compensations[index] += (value - total) + sum;
+        }
+        sums[index] = total;
+    }
+}
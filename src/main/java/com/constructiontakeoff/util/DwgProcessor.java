@@ -4,6 +4,7 @@ import com.aspose.cad.Image;
 import com.aspose.cad.imageoptions.CadRasterizationOptions;
 import com.aspose.cad.imageoptions.PdfOptions;
 import com.aspose.cad.imageoptions.DxfOptions;
+import com.constructiontakeoff.util.dxf.BinaryDxfWriter;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -19,6 +20,7 @@ public class DwgProcessor {
     private int pageWidth = 1600;
     private int pageHeight = 1200;
     private String[] layouts = { "Model" };
+    private boolean binaryDxfOutput = false;
     private static final Logger logger = Logger.getLogger(DwgProcessor.class.getName());
 
     public DwgProcessor(Path workspacePath) {
@@ -31,6 +33,10 @@ public class DwgProcessor {
         this.layouts = layouts;
     }
 
+    public void setBinaryDxfOutput(boolean binaryDxfOutput) {
+        this.binaryDxfOutput = binaryDxfOutput;
+    }
+
     public CompletableFuture<File> convertToPdf(File dwgFile) {
         return CompletableFuture.supplyAsync(() -> {
             try {
@@ -91,7 +97,11 @@ public class DwgProcessor {
     }
 
     public CompletableFuture<File> convertToDxf(File dwgFile) {
-        logger.info("Starting DWG to DXF conversion for: " + dwgFile.getName());
+        return convertToDxf(dwgFile, binaryDxfOutput);
+    }
+
+    public CompletableFuture<File> convertToDxf(File dwgFile, boolean binary) {
+        logger.info("Starting DWG to " + (binary ? "binary " : "") + "DXF conversion for: " + dwgFile.getName());
         return CompletableFuture.supplyAsync(() -> {
             try {
                 if (!dwgFile.exists()) {
@@ -109,12 +119,27 @@ public class DwgProcessor {
                 Files.createDirectories(workspacePath.resolve("dxf"));
                 String fileName = dwgFile.getName().replaceFirst("[.][^.]+$", "");
                 Path outputPath = workspacePath.resolve("dxf").resolve(fileName + ".dxf");
+                Path asciiPath = binary
+                        ? workspacePath.resolve("dxf").resolve(fileName + ".ascii.dxf")
+                        : outputPath;
 
                 Image cadImage = Image.load(dwgFile.getAbsolutePath());
 
                 DxfOptions dxfOptions = new DxfOptions();
 
-                cadImage.save(outputPath.toString(), dxfOptions);
+                cadImage.save(asciiPath.toString(), dxfOptions);
+
+                if (!asciiPath.toFile().exists()) {
+                    throw new IOException("DXF file was not created: " + asciiPath);
+                }
+
+                if (binary) {
+                    try {
+                        new BinaryDxfWriter().convert(asciiPath.toFile(), outputPath.toFile());
+                    } finally {
+                        Files.deleteIfExists(asciiPath);
+                    }
+                }
 
                 File dxfFile = outputPath.toFile();
                 if (!dxfFile.exists()) {
@@ -0,0 +1,131 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.model.LayerTotals;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.GeometryCalculator;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.Map;
+
+public class BatchGeometryPipeline implements DxfParser.EntityHandler {
+    private static final int LINE = EntityType.LINE.ordinal();
+
+    private final LayerInfoTable layerInfos;
+    private final MaterialProvider materialProvider;
+    private final Map<String, Double> materialScaleFactors;
+    private final DxfParser.EntityHandler fallback;
+    private final EntityBatch batch;
+    private final LayerTotals totals = new LayerTotals();
+    private final double[] lengths;
+    private final double[] areas;
+
+    public BatchGeometryPipeline(LayerInfoTable layerInfos, MaterialProvider materialProvider,
+            Map<String, Double> materialScaleFactors, DxfParser.EntityHandler fallback) {
+        this(layerInfos, materialProvider, materialScaleFactors, fallback, EntityBatch.DEFAULT_CAPACITY);
+    }
+
+    public BatchGeometryPipeline(LayerInfoTable layerInfos, MaterialProvider materialProvider,
+            Map<String, Double> materialScaleFactors, DxfParser.EntityHandler fallback, int batchSize) {
+        this.layerInfos = layerInfos;
+        this.materialProvider = materialProvider;
+        this.materialScaleFactors = materialScaleFactors;
+        this.fallback = fallback;
+        this.batch = new EntityBatch(batchSize);
+        this.lengths = new double[batchSize];
+        this.areas = new double[batchSize];
+    }
+
+    @Override
+    public void handleEntity(DxfEntity entity) throws DxfParsingException {
+        EntityType entityType = batchType(entity);
+        if (entityType == null) {
+            fallback.handleEntity(entity);
+            return;
+        }
+
+        if (layerInfos.get(entity.getLayerId()) == null) {
+            String layer = entity.getLayer();
+            layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
+        }
+
+        batch.add(entityType, entity);
+        if (batch.isFull()) {
+            processBatch();
+        }
+    }
+
+    @Override
+    public void flush() throws DxfParsingException {
+        processBatch();
+        totals.drainTo(layerInfos, materialScaleFactors);
+        fallback.flush();
+    }
+
+    private void processBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        measure();
+        scatter();
+        batch.clear();
+    }
+
+    private void measure() {
+        double[] xs = batch.xs();
+        double[] ys = batch.ys();
+        double[] bulges = batch.bulges();
+        int size = batch.size();
+
+        for (int i = 0; i < size; i++) {
+            int from = batch.getVertexStart(i);
+            int count = batch.getVertexCount(i);
+            lengths[i] = 0.0;
+            areas[i] = 0.0;
+
+            if (batch.getTypeId(i) == LINE) {
+                double dx = xs[from + 1] - xs[from];
+                double dy = ys[from + 1] - ys[from];
+                lengths[i] = Math.sqrt(dx * dx + dy * dy);
+                continue;
+            }
+
+            boolean closed = (batch.getFlags(i) & 1) == 1
+                    || GeometryCalculator.isClosedByEndpoints(xs, ys, from, count);
+            if (closed) {
+                double area = Math.abs(GeometryCalculator.calculateSignedPolygonArea(xs, ys, bulges, from, count));
+                if (area > PolylineProcessor.MIN_CLOSED_AREA) {
+                    areas[i] = area;
+                    continue;
+                }
+            }
+            lengths[i] = GeometryCalculator.calculateLength(xs, ys, bulges, from, count, closed);
+        }
+    }
+
+    private void scatter() {
+        int size = batch.size();
+        for (int i = 0; i < size; i++) {
+            int layerId = batch.getLayerId(i);
+            if (areas[i] > 0) {
+                totals.addArea(layerId, areas[i]);
+            } else {
+                totals.addLength(layerId, lengths[i]);
+            }
+            totals.increment(layerId, batch.getTypeId(i));
+        }
+    }
+
+    private static EntityType batchType(DxfEntity entity) {
+        if (entity.getOwnerBlockId() != SymbolTable.EMPTY || entity.getVertexCount() < 2) {
+            return null;
+        }
+        EntityType entityType = entity.getEntityType();
+        if (entityType == EntityType.LINE || entityType == EntityType.LWPOLYLINE
+                || entityType == EntityType.POLYLINE) {
+            return entityType;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,289 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+public class BinaryDxfTokenizer implements DxfTokenizer {
+    public static final byte[] SENTINEL = "AutoCAD Binary DXF\r\n\u001a\u0000".getBytes(StandardCharsets.US_ASCII);
+
+    enum ValueType {
+        STRING,
+        DOUBLE,
+        INT16,
+        INT32,
+        INT64,
+        BOOLEAN,
+        BINARY
+    }
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int limit;
+    private final Charset charset = Charset.defaultCharset();
+
+    private int position;
+    private int groupCode;
+    private ValueType valueType;
+    private int valueStart;
+    private int valueEnd;
+    private double doubleValue;
+    private long longValue;
+
+    public BinaryDxfTokenizer(ByteBuffer buffer) {
+        this(buffer, isBinary(buffer) ? SENTINEL.length : 0, buffer.limit());
+    }
+
+    public BinaryDxfTokenizer(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.start = start;
+        this.limit = end;
+        this.position = start;
+    }
+
+    public static boolean isBinary(ByteBuffer buffer) {
+        if (buffer.limit() < SENTINEL.length) {
+            return false;
+        }
+        for (int i = 0; i < SENTINEL.length; i++) {
+            if (buffer.get(i) != SENTINEL[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static ValueType valueType(int code) {
+        if (code >= 0 && code <= 9) {
+            return ValueType.STRING;
+        } else if (code >= 10 && code <= 59) {
+            return ValueType.DOUBLE;
+        } else if (code >= 60 && code <= 79) {
+            return ValueType.INT16;
+        } else if (code >= 90 && code <= 99) {
+            return ValueType.INT32;
+        } else if (code == 100 || code == 102 || code == 105) {
+            return ValueType.STRING;
+        } else if (code >= 110 && code <= 149) {
+            return ValueType.DOUBLE;
+        } else if (code >= 160 && code <= 169) {
+            return ValueType.INT64;
+        } else if (code >= 170 && code <= 179) {
+            return ValueType.INT16;
+        } else if (code >= 210 && code <= 239) {
+            return ValueType.DOUBLE;
+        } else if (code >= 270 && code <= 289) {
+            return ValueType.INT16;
+        } else if (code >= 290 && code <= 299) {
+            return ValueType.BOOLEAN;
+        } else if (code >= 310 && code <= 319) {
+            return ValueType.BINARY;
+        } else if (code >= 370 && code <= 389) {
+            return ValueType.INT16;
+        } else if (code >= 400 && code <= 409) {
+            return ValueType.INT16;
+        } else if (code >= 420 && code <= 429) {
+            return ValueType.INT32;
+        } else if (code >= 440 && code <= 459) {
+            return ValueType.INT32;
+        } else if (code >= 460 && code <= 469) {
+            return ValueType.DOUBLE;
+        } else if (code == 1004) {
+            return ValueType.BINARY;
+        } else if (code >= 1010 && code <= 1059) {
+            return ValueType.DOUBLE;
+        } else if (code >= 1060 && code <= 1070) {
+            return ValueType.INT16;
+        } else if (code == 1071) {
+            return ValueType.INT32;
+        }
+        return ValueType.STRING;
+    }
+
+    @Override
+    public boolean next() throws DxfParsingException {
+        if (position + Short.BYTES > limit) {
+            return false;
+        }
+
+        int recordStart = position;
+        groupCode = buffer.getShort(position) & 0xFFFF;
+        position += Short.BYTES;
+        valueType = valueType(groupCode);
+
+        switch (valueType) {
+            case STRING:
+                int end = position;
+                while (end < limit && buffer.get(end) != 0) {
+                    end++;
+                }
+                if (end >= limit) {
+                    throw truncated(recordStart);
+                }
+                int vs = position;
+                int ve = end;
+                while (ve > vs && buffer.get(ve - 1) <= ' ') {
+                    ve--;
+                }
+                while (vs < ve && buffer.get(vs) <= ' ') {
+                    vs++;
+                }
+                valueStart = vs;
+                valueEnd = ve;
+                position = end + 1;
+                return true;
+            case DOUBLE:
+                require(recordStart, Double.BYTES);
+                doubleValue = buffer.getDouble(position);
+                position += Double.BYTES;
+                return true;
+            case INT16:
+                require(recordStart, Short.BYTES);
+                longValue = buffer.getShort(position);
+                position += Short.BYTES;
+                return true;
+            case INT32:
+                require(recordStart, Integer.BYTES);
+                longValue = buffer.getInt(position);
+                position += Integer.BYTES;
+                return true;
+            case INT64:
+                require(recordStart, Long.BYTES);
+                longValue = buffer.getLong(position);
+                position += Long.BYTES;
+                return true;
+            case BOOLEAN:
+                require(recordStart, 1);
+                longValue = buffer.get(position);
+                position += 1;
+                return true;
+            case BINARY:
+            default:
+                require(recordStart, 1);
+                int length = buffer.get(position) & 0xFF;
+                require(recordStart, 1 + length);
+                valueStart = position + 1;
+                valueEnd = valueStart + length;
+                position = valueEnd;
+                return true;
+        }
+    }
+
+    @Override
+    public int groupCode() {
+        return groupCode;
+    }
+
+    @Override
+    public boolean valueEquals(String expected) {
+        if (valueType != ValueType.STRING) {
+            return stringValue().equals(expected);
+        }
+        int length = valueEnd - valueStart;
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = expected.charAt(i);
+            if (c > 0x7F) {
+                return stringValue().equals(expected);
+            }
+            if (buffer.get(valueStart + i) != (byte) c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String stringValue() {
+        switch (valueType) {
+            case DOUBLE:
+                return Double.toString(doubleValue);
+            case INT16:
+            case INT32:
+            case INT64:
+            case BOOLEAN:
+                return Long.toString(longValue);
+            case BINARY:
+                StringBuilder hex = new StringBuilder((valueEnd - valueStart) * 2);
+                for (int i = valueStart; i < valueEnd; i++) {
+                    hex.append(String.format("%02X", buffer.get(i)));
+                }
+                return hex.toString();
+            case STRING:
+            default:
+                byte[] bytes = new byte[valueEnd - valueStart];
+                buffer.get(valueStart, bytes);
+                return new String(bytes, charset);
+        }
+    }
+
+    @Override
+    public int valueHash() {
+        if (valueType != ValueType.STRING) {
+            return stringValue().hashCode();
+        }
+        int hash = 0;
+        for (int i = valueStart; i < valueEnd; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) {
+                return stringValue().hashCode();
+            }
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    @Override
+    public double doubleValue() {
+        switch (valueType) {
+            case DOUBLE:
+                return doubleValue;
+            case INT16:
+            case INT32:
+            case INT64:
+            case BOOLEAN:
+                return longValue;
+            default:
+                return Double.parseDouble(stringValue());
+        }
+    }
+
+    @Override
+    public int intValue() {
+        switch (valueType) {
+            case INT16:
+            case INT32:
+            case BOOLEAN:
+                return (int) longValue;
+            case INT64:
+                return Math.toIntExact(longValue);
+            case DOUBLE:
+                return (int) doubleValue;
+            default:
+                return Integer.parseInt(stringValue());
+        }
+    }
+
+    @Override
+    public long bytesRead() {
+        return Math.min(position, limit) - start;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void require(int recordStart, int bytes) throws DxfParsingException {
+        if (position + bytes > limit) {
+            throw truncated(recordStart);
+        }
+    }
+
+    private DxfParsingException truncated(int recordStart) {
+        return DxfParsingException.invalidEntityData("binary DXF record",
+                "group code " + groupCode + " truncated at byte offset " + recordStart);
+    }
+}
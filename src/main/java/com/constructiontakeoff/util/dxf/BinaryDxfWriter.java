@@ -0,0 +1,90 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.logging.Logger;
+
+public class BinaryDxfWriter {
+    private static final Logger logger = Logger.getLogger(BinaryDxfWriter.class.getName());
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_CHUNK_BYTES = 127;
+
+    private final Charset charset = Charset.defaultCharset();
+
+    public void convert(File asciiDxf, File binaryDxf) throws DxfParsingException {
+        if (asciiDxf == null || !asciiDxf.exists()) {
+            throw new DxfParsingException("DXF file does not exist");
+        }
+
+        logger.info("Converting ASCII DXF to binary DXF: " + asciiDxf.getPath() + " -> " + binaryDxf.getPath());
+        ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long records = 0;
+
+        try (MappedDxfTokenizer tokenizer = new MappedDxfTokenizer(asciiDxf);
+                OutputStream out = new BufferedOutputStream(new FileOutputStream(binaryDxf), BUFFER_SIZE)) {
+            out.write(BinaryDxfTokenizer.SENTINEL);
+
+            while (tokenizer.next()) {
+                int code = tokenizer.groupCode();
+                writeShort(out, scratch, code);
+
+                switch (BinaryDxfTokenizer.valueType(code)) {
+                    case DOUBLE:
+                        scratch.putDouble(0, tokenizer.doubleValue());
+                        out.write(scratch.array(), 0, Double.BYTES);
+                        break;
+                    case INT16:
+                        writeShort(out, scratch, tokenizer.intValue());
+                        break;
+                    case INT32:
+                        scratch.putInt(0, tokenizer.intValue());
+                        out.write(scratch.array(), 0, Integer.BYTES);
+                        break;
+                    case INT64:
+                        scratch.putLong(0, Long.parseLong(tokenizer.stringValue()));
+                        out.write(scratch.array(), 0, Long.BYTES);
+                        break;
+                    case BOOLEAN:
+                        out.write(tokenizer.intValue() != 0 ? 1 : 0);
+                        break;
+                    case BINARY:
+                        writeChunk(out, tokenizer.stringValue());
+                        break;
+                    case STRING:
+                    default:
+                        out.write(tokenizer.stringValue().getBytes(charset));
+                        out.write(0);
+                        break;
+                }
+                records++;
+            }
+        } catch (IOException e) {
+            logger.severe("Failed to write binary DXF file: " + e.getMessage());
+            throw DxfParsingException.fileReadError(e);
+        } catch (NumberFormatException e) {
+            throw DxfParsingException.invalidEntityData("DXF record", e.getMessage());
+        }
+
+        logger.info(String.format("Binary DXF written: %d records, %d -> %d bytes", records,
+                asciiDxf.length(), binaryDxf.length()));
+    }
+
+    private void writeShort(OutputStream out, ByteBuffer scratch, int value) throws IOException {
+        scratch.putShort(0, (short) value);
+        out.write(scratch.array(), 0, Short.BYTES);
+    }
+
+    private void writeChunk(OutputStream out, String hex) throws IOException {
+        int length = Math.min(hex.length() / 2, MAX_CHUNK_BYTES);
+        out.write(length);
+        for (int i = 0; i < length; i++) {
+            out.write((Character.digit(hex.charAt(i * 2), 16) << 4) | Character.digit(hex.charAt(i * 2 + 1), 16));
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.GeometryCalculator;
+import com.constructiontakeoff.util.geometry.HatchProcessor;
+import com.constructiontakeoff.util.geometry.SplineGeometry;
+import com.constructiontakeoff.util.geometry.SplineProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public class BlockLibrary {
+    private static final Logger logger = Logger.getLogger(BlockLibrary.class.getName());
+    private static final double DIRECTION_RESOLUTION = 1e9;
+    private static final int TYPE_COUNT = EntityType.values().length;
+    private static final byte RESOLVING = 1;
+    private static final byte RESOLVED = 2;
+
+    private final SymbolTable symbols;
+    private final int defaultLayer;
+    private final Map<Integer, Definition> definitions = new LinkedHashMap<>();
+    private BlockSummary[] summaries = new BlockSummary[0];
+    private volatile boolean resolved;
+
+    public BlockLibrary(SymbolTable symbols) {
+        this.symbols = symbols;
+        this.defaultLayer = symbols.id("0");
+    }
+
+    void define(int blockId) {
+        definitions.computeIfAbsent(blockId, id -> new Definition());
+        resolved = false;
+    }
+
+    void add(DxfEntity entity) {
+        EntityType entityType = entity.getEntityType();
+        if (entityType == null) {
+            return;
+        }
+
+        Definition definition = definitions.computeIfAbsent(entity.getOwnerBlockId(), id -> new Definition());
+        resolved = false;
+        int layerId = entity.getLayerId() == defaultLayer ? BlockSummary.INHERITED_LAYER : entity.getLayerId();
+        int vertexCount = entity.getVertexCount();
+        double[] xs = entity.xs();
+        double[] ys = entity.ys();
+
+        switch (entityType) {
+            case LINE:
+                if (vertexCount >= 2) {
+                    Quantities quantities = definition.content.layer(layerId);
+                    quantities.addSegment(xs[1] - xs[0], ys[1] - ys[0]);
+                    quantities.counts[entityType.ordinal()]++;
+                }
+                break;
+            case LWPOLYLINE:
+            case POLYLINE:
+                if (vertexCount >= 2) {
+                    addPolyline(definition.content.layer(layerId), entity, entityType);
+                }
+                break;
+            case CIRCLE:
+                if (vertexCount >= 1 && entity.getRadius() > 0) {
+                    Quantities quantities = definition.content.layer(layerId);
+                    quantities.area += GeometryCalculator.calculateCircleArea(entity.getRadius());
+                    quantities.counts[entityType.ordinal()]++;
+                }
+                break;
+            case ARC:
+                if (vertexCount >= 1 && entity.getRadius() > 0) {
+                    Quantities quantities = definition.content.layer(layerId);
+                    quantities.curvedLength += GeometryCalculator.calculateCircularArcLength(entity.getRadius(),
+                            GeometryCalculator.calculateSweep(Math.toRadians(entity.getStartAngle()),
+                                    Math.toRadians(entity.getEndAngle())));
+                    quantities.counts[entityType.ordinal()]++;
+                }
+                break;
+            case ELLIPSE:
+                if (vertexCount >= 2 && entity.getAxisRatio() > 0) {
+                    addEllipse(definition.content.layer(layerId), entity, entityType);
+                }
+                break;
+            case SPLINE:
+                if (SplineGeometry.isValid(entity.getDegree(), entity.getKnotCount(), vertexCount)) {
+                    Quantities quantities = definition.content.layer(layerId);
+                    double[] measures = SplineProcessor.computeMeasures(entity);
+                    if (measures[1] > PolylineProcessor.MIN_CLOSED_AREA) {
+                        quantities.area += measures[1];
+                    } else {
+                        quantities.curvedLength += measures[0];
+                    }
+                    quantities.counts[entityType.ordinal()]++;
+                }
+                break;
+            case HATCH:
+                if (entity.getHatchBoundary().getEdgeCount() > 0) {
+                    Quantities quantities = definition.content.layer(layerId);
+                    quantities.area += HatchProcessor.calculateNetArea(entity.getHatchBoundary(), null);
+                    quantities.counts[entityType.ordinal()]++;
+                }
+                break;
+            case INSERT:
+                if (entity.getBlockId() != SymbolTable.EMPTY) {
+                    definition.references.add(new Reference(entity, layerId));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    public synchronized void resolveAll() {
+        if (resolved) {
+            return;
+        }
+
+        int capacity = symbols.size();
+        BlockSummary[] resolvedSummaries = new BlockSummary[capacity];
+        byte[] states = new byte[capacity];
+        for (int blockId : definitions.keySet()) {
+            resolve(blockId, resolvedSummaries, states);
+        }
+
+        summaries = resolvedSummaries;
+        resolved = true;
+        logger.fine("Indexed " + definitions.size() + " block definition(s)");
+    }
+
+    public BlockSummary summary(int blockId) {
+        if (!resolved) {
+            resolveAll();
+        }
+        BlockSummary[] current = summaries;
+        return blockId < current.length ? current[blockId] : null;
+    }
+
+    public int size() {
+        return definitions.size();
+    }
+
+    private BlockSummary resolve(int blockId, BlockSummary[] resolvedSummaries, byte[] states) {
+        if (states[blockId] == RESOLVED) {
+            return resolvedSummaries[blockId];
+        }
+        if (states[blockId] == RESOLVING) {
+            logger.warning("Circular reference to block " + symbols.name(blockId) + ", ignoring nested INSERT");
+            return null;
+        }
+
+        Definition definition = definitions.get(blockId);
+        if (definition == null) {
+            states[blockId] = RESOLVED;
+            return null;
+        }
+
+        states[blockId] = RESOLVING;
+        Content content = new Content();
+        content.addTransformed(definition.content.freeze(), BlockSummary.INHERITED_LAYER, 1.0, 0.0, 0.0, 1.0, 1);
+        for (Reference reference : definition.references) {
+            boolean cyclic = states[reference.blockId] == RESOLVING;
+            BlockSummary nested = resolve(reference.blockId, resolvedSummaries, states);
+            if (cyclic) {
+                continue;
+            }
+            content.addNested(reference.blockId, reference.copies);
+            if (nested != null) {
+                content.addTransformed(nested, reference.layerId, reference.a, reference.b, reference.c, reference.d,
+                        reference.copies);
+            }
+        }
+
+        BlockSummary summary = content.freeze();
+        resolvedSummaries[blockId] = summary;
+        states[blockId] = RESOLVED;
+        return summary;
+    }
+
+    private static void addPolyline(Quantities quantities, DxfEntity entity, EntityType entityType) {
+        int vertexCount = entity.getVertexCount();
+        double[] xs = entity.xs();
+        double[] ys = entity.ys();
+        double[] bulges = entity.bulges();
+        boolean closed = PolylineProcessor.isClosedPolyline(entity);
+        quantities.counts[entityType.ordinal()]++;
+
+        if (closed) {
+            double area = GeometryCalculator.calculatePolygonArea(xs, ys, bulges, vertexCount);
+            if (area > PolylineProcessor.MIN_CLOSED_AREA) {
+                quantities.area += area;
+                return;
+            }
+        }
+
+        for (int i = 1; i < vertexCount; i++) {
+            quantities.addEdge(xs[i] - xs[i - 1], ys[i] - ys[i - 1], bulges[i - 1]);
+        }
+        int last = vertexCount - 1;
+        if (closed && (vertexCount > 2 || bulges[last] != 0)) {
+            quantities.addEdge(xs[0] - xs[last], ys[0] - ys[last], bulges[last]);
+        }
+    }
+
+    private static void addEllipse(Quantities quantities, DxfEntity entity, EntityType entityType) {
+        double majorRadius = Math.hypot(entity.getX(1), entity.getY(1));
+        double minorRadius = majorRadius * entity.getAxisRatio();
+        double sweep = GeometryCalculator.calculateSweep(entity.getStartAngle(), entity.getEndAngle());
+        if (GeometryCalculator.isFullTurn(sweep)) {
+            quantities.area += GeometryCalculator.calculateEllipseArea(majorRadius, minorRadius);
+        } else {
+            quantities.curvedLength += GeometryCalculator.calculateEllipseLength(majorRadius, minorRadius,
+                    entity.getStartAngle(), sweep);
+        }
+        quantities.counts[entityType.ordinal()]++;
+    }
+
+    private static final class Definition {
+        private final Content content = new Content();
+        private final List<Reference> references = new ArrayList<>();
+    }
+
+    private static final class Reference {
+        private final int blockId;
+        private final int layerId;
+        private final double a;
+        private final double b;
+        private final double c;
+        private final double d;
+        private final long copies;
+
+        private Reference(DxfEntity entity, int layerId) {
+            double radians = Math.toRadians(entity.getRotation());
+            double cos = Math.cos(radians);
+            double sin = Math.sin(radians);
+            this.blockId = entity.getBlockId();
+            this.layerId = layerId;
+            this.a = cos * entity.getScaleX();
+            this.b = -sin * entity.getScaleY();
+            this.c = sin * entity.getScaleX();
+            this.d = cos * entity.getScaleY();
+            this.copies = (long) Math.max(1, entity.getColumnCount()) * Math.max(1, entity.getRowCount());
+        }
+    }
+
+    private static final class Content {
+        private final Map<Integer, Quantities> layers = new LinkedHashMap<>();
+        private final Map<Integer, Long> nested = new LinkedHashMap<>();
+
+        private Quantities layer(int layerId) {
+            return layers.computeIfAbsent(layerId, id -> new Quantities());
+        }
+
+        private void addNested(int blockId, long copies) {
+            nested.merge(blockId, copies, Long::sum);
+        }
+
+        private void addTransformed(BlockSummary summary, int insertLayer, double a, double b, double c, double d,
+                long copies) {
+            double determinant = Math.abs(a * d - b * c);
+            double areaScale = determinant * copies;
+            double curveScale = Math.sqrt(determinant) * copies;
+            for (int i = 0; i < summary.getLayerCount(); i++) {
+                int layerId = summary.getLayerId(i);
+                Quantities quantities = layer(layerId == BlockSummary.INHERITED_LAYER ? insertLayer : layerId);
+                for (EntityType entityType : EntityType.values()) {
+                    quantities.counts[entityType.ordinal()] += summary.getCount(i, entityType) * copies;
+                }
+                quantities.area += summary.getArea(i) * areaScale;
+                quantities.curvedLength += summary.getCurvedLength(i) * curveScale;
+
+                for (int k = 0; k < summary.getDirectionCount(i); k++) {
+                    double ux = summary.getDirectionX(i, k);
+                    double uy = summary.getDirectionY(i, k);
+                    quantities.addSegment(a * ux + b * uy, c * ux + d * uy,
+                            summary.getDirectionLength(i, k) * copies);
+                }
+            }
+            for (int j = 0; j < summary.getNestedBlockCount(); j++) {
+                addNested(summary.getNestedBlockId(j), summary.getNestedInsertCount(j) * copies);
+            }
+        }
+
+        private BlockSummary freeze() {
+            int size = layers.size();
+            int[] layerIds = new int[size];
+            long[][] counts = new long[size][];
+            double[] areas = new double[size];
+            double[] lengths = new double[size];
+            double[] curvedLengths = new double[size];
+            double[][] directionX = new double[size][];
+            double[][] directionY = new double[size][];
+            double[][] directionLength = new double[size][];
+
+            int i = 0;
+            for (Map.Entry<Integer, Quantities> entry : layers.entrySet()) {
+                Quantities quantities = entry.getValue();
+                layerIds[i] = entry.getKey();
+                counts[i] = quantities.counts.clone();
+                areas[i] = quantities.area;
+                lengths[i] = quantities.length;
+                curvedLengths[i] = quantities.curvedLength;
+                directionX[i] = Arrays.copyOf(quantities.ux, quantities.directions);
+                directionY[i] = Arrays.copyOf(quantities.uy, quantities.directions);
+                directionLength[i] = Arrays.copyOf(quantities.lengths, quantities.directions);
+                i++;
+            }
+
+            int[] nestedBlockIds = new int[nested.size()];
+            long[] nestedInsertCounts = new long[nested.size()];
+            int j = 0;
+            for (Map.Entry<Integer, Long> entry : nested.entrySet()) {
+                nestedBlockIds[j] = entry.getKey();
+                nestedInsertCounts[j] = entry.getValue();
+                j++;
+            }
+
+            return new BlockSummary(layerIds, counts, areas, lengths, curvedLengths, directionX, directionY, directionLength,
+                    nestedBlockIds, nestedInsertCounts);
+        }
+    }
+
+    private static final class Quantities {
+        private final long[] counts = new long[TYPE_COUNT];
+        private final Map<Long, Integer> directionIndex = new HashMap<>();
+        private double area;
+        private double length;
+        private double curvedLength;
+        private double[] ux = new double[4];
+        private double[] uy = new double[4];
+        private double[] lengths = new double[4];
+        private int directions;
+
+        private void addSegment(double dx, double dy) {
+            addSegment(dx, dy, 1.0);
+        }
+
+        private void addEdge(double dx, double dy, double bulge) {
+            if (bulge == 0) {
+                addSegment(dx, dy);
+            } else {
+                curvedLength += GeometryCalculator.calculateArcLength(Math.sqrt(dx * dx + dy * dy), bulge);
+            }
+        }
+
+        private void addSegment(double dx, double dy, double weight) {
+            double norm = Math.sqrt(dx * dx + dy * dy);
+            if (norm == 0.0) {
+                return;
+            }
+
+            double x = dx / norm;
+            double y = dy / norm;
+            if (x < 0 || (x == 0 && y < 0)) {
+                x = -x;
+                y = -y;
+            }
+
+            double segmentLength = norm * weight;
+            length += segmentLength;
+
+            long key = Math.round(Math.atan2(y, x) * DIRECTION_RESOLUTION);
+            Integer index = directionIndex.get(key);
+            if (index != null) {
+                lengths[index] += segmentLength;
+                return;
+            }
+
+            if (directions == lengths.length) {
+                ux = Arrays.copyOf(ux, directions * 2);
+                uy = Arrays.copyOf(uy, directions * 2);
+                lengths = Arrays.copyOf(lengths, directions * 2);
+            }
+            ux[directions] = x;
+            uy[directions] = y;
+            lengths[directions] = segmentLength;
+            directionIndex.put(key, directions++);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+
+public class BlockSummary {
+    public static final int INHERITED_LAYER = -1;
+
+    private final int[] layerIds;
+    private final long[][] counts;
+    private final double[] areas;
+    private final double[] lengths;
+    private final double[] curvedLengths;
+    private final double[][] directionX;
+    private final double[][] directionY;
+    private final double[][] directionLength;
+    private final int[] nestedBlockIds;
+    private final long[] nestedInsertCounts;
+
+    BlockSummary(int[] layerIds, long[][] counts, double[] areas, double[] lengths, double[] curvedLengths,
+            double[][] directionX, double[][] directionY, double[][] directionLength, int[] nestedBlockIds,
+            long[] nestedInsertCounts) {
+        this.layerIds = layerIds;
+        this.counts = counts;
+        this.areas = areas;
+        this.lengths = lengths;
+        this.curvedLengths = curvedLengths;
+        this.directionX = directionX;
+        this.directionY = directionY;
+        this.directionLength = directionLength;
+        this.nestedBlockIds = nestedBlockIds;
+        this.nestedInsertCounts = nestedInsertCounts;
+    }
+
+    public int getLayerCount() {
+        return layerIds.length;
+    }
+
+    public int getLayerId(int layer) {
+        return layerIds[layer];
+    }
+
+    public long getCount(int layer, EntityType entityType) {
+        return counts[layer][entityType.ordinal()];
+    }
+
+    public double getArea(int layer) {
+        return areas[layer];
+    }
+
+    public double getLength(int layer) {
+        return lengths[layer] + curvedLengths[layer];
+    }
+
+    public double getCurvedLength(int layer) {
+        return curvedLengths[layer];
+    }
+
+    public double getLength(int layer, double scaleX, double scaleY) {
+        double absX = Math.abs(scaleX);
+        if (absX == Math.abs(scaleY)) {
+            return (lengths[layer] + curvedLengths[layer]) * absX;
+        }
+
+        double total = curvedLengths[layer] * Math.sqrt(Math.abs(scaleX * scaleY));
+        double[] ux = directionX[layer];
+        double[] uy = directionY[layer];
+        double[] length = directionLength[layer];
+        for (int i = 0; i < length.length; i++) {
+            double tx = scaleX * ux[i];
+            double ty = scaleY * uy[i];
+            total += length[i] * Math.sqrt(tx * tx + ty * ty);
+        }
+        return total;
+    }
+
+    int getDirectionCount(int layer) {
+        return directionLength[layer].length;
+    }
+
+    double getDirectionX(int layer, int direction) {
+        return directionX[layer][direction];
+    }
+
+    double getDirectionY(int layer, int direction) {
+        return directionY[layer][direction];
+    }
+
+    double getDirectionLength(int layer, int direction) {
+        return directionLength[layer][direction];
+    }
+
+    public int getNestedBlockCount() {
+        return nestedBlockIds.length;
+    }
+
+    public int getNestedBlockId(int index) {
+        return nestedBlockIds[index];
+    }
+
+    public long getNestedInsertCount(int index) {
+        return nestedInsertCounts[index];
+    }
+
+    public boolean isEmpty() {
+        return layerIds.length == 0 && nestedBlockIds.length == 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.function.Predicate;
+
+public class CollinearLineFilter implements DxfParser.EntityHandler {
+    private final LayerInfoTable layerInfos;
+    private final MaterialProvider materialProvider;
+    private final LineSegmentSet.LayerSelector selector;
+    private final DxfParser.EntityHandler delegate;
+
+    public CollinearLineFilter(LayerInfoTable layerInfos, MaterialProvider materialProvider,
+            Predicate<String> layerFilter, DxfParser.EntityHandler delegate) {
+        this.layerInfos = layerInfos;
+        this.materialProvider = materialProvider;
+        this.selector = new LineSegmentSet.LayerSelector(layerFilter);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleEntity(DxfEntity entity) throws DxfParsingException {
+        if (LineSegmentSet.accepts(entity) && selector.selects(entity)) {
+            if (layerInfos.get(entity.getLayerId()) == null) {
+                String layer = entity.getLayer();
+                layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
+            }
+            layerInfos.increment(entity.getLayerId(), EntityType.LINE);
+            return;
+        }
+        delegate.handleEntity(entity);
+    }
+
+    @Override
+    public void flush() throws DxfParsingException {
+        delegate.flush();
+    }
+}
@@ -0,0 +1,82 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.util.Arrays;
+
+public class CoordinateBuffer {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private double[] values;
+    private int size;
+
+    public CoordinateBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CoordinateBuffer(int initialCapacity) {
+        this.values = new double[Math.max(initialCapacity, 4)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    public void addAll(double[] source, int count) {
+        ensureCapacity(size + count);
+        System.arraycopy(source, 0, values, size, count);
+        size += count;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            grow(capacity);
+        }
+    }
+
+    public void removeLast() {
+        if (size > 0) {
+            size--;
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    public void set(int index, double value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        values[index] = value;
+    }
+
+    public double[] array() {
+        return values;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, values.length + (values.length >> 1));
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
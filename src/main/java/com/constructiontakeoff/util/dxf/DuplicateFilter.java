@@ -0,0 +1,175 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.GeometryCalculator;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// One filter per parse range. Copies inside a range are dropped as they arrive and the first copy of each shape is
+// accumulated straight away, keeping only its key and measured quantities. resolve() then walks the ranges in file
+// order and takes back the quantities of any shape an earlier range already claimed, so the copy that is kept never
+// depends on which range finished parsing first.
+public class DuplicateFilter implements DxfParser.EntityHandler {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final LayerInfoTable layerInfos;
+    private final MaterialProvider materialProvider;
+    private final Map<String, Double> materialScaleFactors;
+    private final DuplicateGeometryIndex index;
+    private final DxfParser.EntityHandler delegate;
+    private final LongHashSet rangeKeys = new LongHashSet();
+    private final List<DuplicateFilter> ranges = new ArrayList<>();
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] layerIds = new int[INITIAL_CAPACITY];
+    private int[] typeIds = new int[INITIAL_CAPACITY];
+    private double[] lengths = new double[INITIAL_CAPACITY];
+    private double[] areas = new double[INITIAL_CAPACITY];
+    private int size;
+
+    public DuplicateFilter(LayerInfoTable layerInfos, MaterialProvider materialProvider,
+            Map<String, Double> materialScaleFactors, DuplicateGeometryIndex index,
+            DxfParser.EntityHandler delegate) {
+        this.layerInfos = layerInfos;
+        this.materialProvider = materialProvider;
+        this.materialScaleFactors = materialScaleFactors;
+        this.index = index;
+        this.delegate = delegate;
+        ranges.add(this);
+    }
+
+    @Override
+    public void handleEntity(DxfEntity entity) throws DxfParsingException {
+        if (entity.getOwnerBlockId() != SymbolTable.EMPTY || !DuplicateGeometryIndex.supports(entity)) {
+            delegate.handleEntity(entity);
+            return;
+        }
+
+        long key = index.key(entity);
+        if (!rangeKeys.add(key)) {
+            countDuplicate(entity.getLayerId(), entity.getLayer());
+            return;
+        }
+        delegate.handleEntity(entity);
+        record(entity, key);
+    }
+
+    @Override
+    public void flush() throws DxfParsingException {
+        delegate.flush();
+    }
+
+    public DuplicateFilter append(DuplicateFilter later) {
+        ranges.addAll(later.ranges);
+        later.ranges.clear();
+        return this;
+    }
+
+    public LayerInfoTable resolve() {
+        List<LayerInfoTable> tables = new ArrayList<>(ranges.size());
+        for (DuplicateFilter range : ranges) {
+            for (int i = 0; i < range.size; i++) {
+                if (!index.add(range.keys[i])) {
+                    range.retract(i);
+                }
+            }
+            tables.add(range.layerInfos);
+        }
+        return merge(tables, 0, tables.size());
+    }
+
+    private void retract(int i) {
+        int layerId = layerIds[i];
+        LayerInfo layerInfo = layerInfos.get(layerId);
+        double scaleFactor = materialScaleFactors.getOrDefault(layerInfo.getMaterial(), 1.0);
+        if (areas[i] > 0) {
+            layerInfos.addArea(layerId, -areas[i] * scaleFactor);
+        } else {
+            layerInfos.addLength(layerId, -lengths[i] * scaleFactor);
+        }
+        layerInfos.decrement(layerId, TYPES[typeIds[i]]);
+        layerInfos.addDuplicates(layerId, 1);
+    }
+
+    private static LayerInfoTable merge(List<LayerInfoTable> tables, int from, int to) {
+        if (to - from == 1) {
+            return tables.get(from);
+        }
+        int mid = (from + to) >>> 1;
+        return merge(tables, from, mid).merge(merge(tables, mid, to));
+    }
+
+    private void countDuplicate(int layerId, String layer) {
+        if (layerInfos.get(layerId) == null) {
+            layerInfos.register(layerId, layer, materialProvider.getMaterial(layer));
+        }
+        layerInfos.addDuplicates(layerId, 1);
+    }
+
+    // Mirrors what the line, polyline, circle and arc processors (and the batch pipeline) add for the entity, before
+    // material scaling. Entities the processors reject are not recorded, so there is nothing to take back.
+    private void record(DxfEntity entity, long key) {
+        if (layerInfos.get(entity.getLayerId()) == null) {
+            return;
+        }
+        EntityType entityType = entity.getEntityType();
+        double length = 0.0;
+        double area = 0.0;
+        switch (entityType) {
+            case LINE:
+                length = GeometryCalculator.calculateLength(entity.xs(), entity.ys(), 2, false);
+                break;
+            case LWPOLYLINE:
+            case POLYLINE:
+                int count = entity.getVertexCount();
+                boolean closed = PolylineProcessor.isClosedPolyline(entity);
+                if (closed) {
+                    area = GeometryCalculator.calculatePolygonArea(entity.xs(), entity.ys(), entity.bulges(), count);
+                }
+                if (!(area > PolylineProcessor.MIN_CLOSED_AREA)) {
+                    area = 0.0;
+                    length = GeometryCalculator.calculateLength(entity.xs(), entity.ys(), entity.bulges(), count,
+                            closed);
+                }
+                break;
+            case CIRCLE:
+                if (!(entity.getRadius() > 0)) {
+                    return;
+                }
+                area = GeometryCalculator.calculateCircleArea(entity.getRadius());
+                break;
+            case ARC:
+                if (!(entity.getRadius() > 0)) {
+                    return;
+                }
+                double sweep = GeometryCalculator.calculateSweep(Math.toRadians(entity.getStartAngle()),
+                        Math.toRadians(entity.getEndAngle()));
+                length = GeometryCalculator.calculateCircularArcLength(entity.getRadius(), sweep);
+                break;
+            default:
+                return;
+        }
+
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            layerIds = Arrays.copyOf(layerIds, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            areas = Arrays.copyOf(areas, capacity);
+        }
+        keys[size] = key;
+        layerIds[size] = entity.getLayerId();
+        typeIds[size] = entityType.ordinal();
+        lengths[size] = length;
+        areas[size] = area;
+        size++;
+    }
+}
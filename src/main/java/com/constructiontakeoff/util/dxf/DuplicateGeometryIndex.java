@@ -0,0 +1,157 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.GeometryCalculator;
+import com.constructiontakeoff.util.geometry.UnitScaleManager;
+
+public class DuplicateGeometryIndex {
+    public static final double RESOLUTION_METERS = 1e-5;
+
+    private static final double BULGE_RESOLUTION = 1e6;
+    private static final double ANGLE_RESOLUTION = 1e4;
+
+    private final LongHashSet keys;
+    private final double scale;
+
+    public DuplicateGeometryIndex(double resolution, int expectedEntities) {
+        if (!(resolution > 0)) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+        this.scale = 1.0 / resolution;
+        this.keys = new LongHashSet(expectedEntities);
+    }
+
+    // Header units are all that is known before the parse; drawings without them are treated as millimetres.
+    public static DuplicateGeometryIndex forUnits(UnitScaleManager units, int expectedEntities) {
+        double metersPerUnit = units.getCurrentUnitType() == UnitScaleManager.UnitType.UNKNOWN
+                ? UnitScaleManager.MM_TO_M
+                : units.getScaleFactor();
+        return new DuplicateGeometryIndex(RESOLUTION_METERS / metersPerUnit, expectedEntities);
+    }
+
+    public double getResolution() {
+        return 1.0 / scale;
+    }
+
+    public static boolean supports(DxfEntity entity) {
+        EntityType entityType = entity.getEntityType();
+        if (entityType == null) {
+            return false;
+        }
+        switch (entityType) {
+            case LINE:
+            case LWPOLYLINE:
+            case POLYLINE:
+                return entity.getVertexCount() >= 2;
+            case CIRCLE:
+            case ARC:
+                return entity.getVertexCount() >= 1;
+            default:
+                return false;
+        }
+    }
+
+    // Not thread-safe: keys must be added in file order so the first copy of a shape is the one kept.
+    public boolean add(long key) {
+        return keys.add(key);
+    }
+
+    public long size() {
+        return keys.size();
+    }
+
+    public long key(DxfEntity entity) {
+        EntityType entityType = entity.getEntityType();
+        long hash = mix(((long) entityType.ordinal() << 32) ^ entity.getLayerId());
+        double[] xs = entity.xs();
+        double[] ys = entity.ys();
+        double[] zs = entity.zs();
+
+        switch (entityType) {
+            case LINE:
+                if (compare(xs, ys, zs, 1, 0) < 0) {
+                    return mixPoint(mixPoint(hash, xs[1], ys[1], zs[1]), xs[0], ys[0], zs[0]);
+                }
+                return mixPoint(mixPoint(hash, xs[0], ys[0], zs[0]), xs[1], ys[1], zs[1]);
+            case CIRCLE:
+                return mix(mixPoint(hash, xs[0], ys[0], zs[0]) ^ quantize(entity.getRadius()));
+            case ARC:
+                hash = mix(mixPoint(hash, xs[0], ys[0], zs[0]) ^ quantize(entity.getRadius()));
+                hash = mix(hash ^ Math.round(normalizeDegrees(entity.getStartAngle()) * ANGLE_RESOLUTION));
+                return mix(hash ^ Math.round(normalizeDegrees(entity.getEndAngle()) * ANGLE_RESOLUTION));
+            default:
+                return polylineKey(hash, entity);
+        }
+    }
+
+    private long polylineKey(long hash, DxfEntity entity) {
+        int count = entity.getVertexCount();
+        double[] xs = entity.xs();
+        double[] ys = entity.ys();
+        double[] zs = entity.zs();
+        double[] bulges = entity.bulges();
+        boolean closedByEndpoints = GeometryCalculator.isClosedByEndpoints(xs, ys, count);
+        boolean closed = entity.isClosed() || closedByEndpoints;
+        if (closedByEndpoints) {
+            count--;
+        }
+
+        int start;
+        int step;
+        if (closed) {
+            start = 0;
+            for (int i = 1; i < count; i++) {
+                if (compare(xs, ys, zs, i, start) < 0) {
+                    start = i;
+                }
+            }
+            int previous = start == 0 ? count - 1 : start - 1;
+            int next = start == count - 1 ? 0 : start + 1;
+            step = compare(xs, ys, zs, previous, next) < 0 ? -1 : 1;
+        } else {
+            boolean reverse = compare(xs, ys, zs, count - 1, 0) < 0;
+            start = reverse ? count - 1 : 0;
+            step = reverse ? -1 : 1;
+        }
+
+        hash = mix(hash ^ (count * 2L + (closed ? 1 : 0)));
+        int segments = closed ? count : count - 1;
+        for (int k = 0; k < count; k++) {
+            int i = Math.floorMod(start + k * step, count);
+            hash = mixPoint(hash, xs[i], ys[i], zs[i]);
+            if (k < segments) {
+                double bulge = step > 0 ? bulges[i] : -bulges[i == 0 ? count - 1 : i - 1];
+                hash = mix(hash ^ Math.round(bulge * BULGE_RESOLUTION));
+            }
+        }
+        return hash;
+    }
+
+    private int compare(double[] xs, double[] ys, double[] zs, int a, int b) {
+        int byX = Long.compare(quantize(xs[a]), quantize(xs[b]));
+        if (byX != 0) {
+            return byX;
+        }
+        int byY = Long.compare(quantize(ys[a]), quantize(ys[b]));
+        return byY != 0 ? byY : Long.compare(quantize(zs[a]), quantize(zs[b]));
+    }
+
+    private long mixPoint(long hash, double x, double y, double z) {
+        return mix(mix(mix(hash ^ quantize(x)) ^ quantize(y)) ^ quantize(z));
+    }
+
+    private long quantize(double value) {
+        return Math.round(value * scale);
+    }
+
+    private static double normalizeDegrees(double angle) {
+        double normalized = angle % 360.0;
+        return normalized < 0 ? normalized + 360.0 : normalized;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
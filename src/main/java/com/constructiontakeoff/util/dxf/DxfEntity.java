@@ -0,0 +1,367 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+
+public class DxfEntity {
+    public static final int COLOR_BYLAYER = 256;
+
+    private final SymbolTable symbols;
+    private final BlockLibrary blocks;
+
+    private String type = "";
+    private EntityType entityType;
+    private int layerId = SymbolTable.EMPTY;
+    private int ownerBlockId = SymbolTable.EMPTY;
+    private int blockId = SymbolTable.EMPTY;
+    private String linetype = "";
+    private String text;
+    private int flags;
+    private int color;
+    private double radius;
+    private double scaleX;
+    private double scaleY;
+    private double scaleZ;
+    private double rotation;
+    private int columnCount;
+    private int rowCount;
+    private double startAngle;
+    private double endAngle;
+    private double axisRatio;
+    private int degree;
+
+    private final CoordinateBuffer x = new CoordinateBuffer();
+    private final CoordinateBuffer y = new CoordinateBuffer();
+    private final CoordinateBuffer z = new CoordinateBuffer();
+    private final CoordinateBuffer bulge = new CoordinateBuffer();
+    private final CoordinateBuffer width = new CoordinateBuffer();
+    private final CoordinateBuffer knots = new CoordinateBuffer();
+    private final CoordinateBuffer weights = new CoordinateBuffer();
+    private final HatchBoundary hatchBoundary = new HatchBoundary();
+
+    DxfEntity(SymbolTable symbols, BlockLibrary blocks) {
+        this.symbols = symbols;
+        this.blocks = blocks;
+    }
+
+    void reset(String type, EntityType entityType, int layerId, int ownerBlockId) {
+        this.type = type;
+        this.entityType = entityType;
+        this.layerId = layerId;
+        this.ownerBlockId = ownerBlockId;
+        this.blockId = SymbolTable.EMPTY;
+        this.linetype = "";
+        this.text = null;
+        this.flags = 0;
+        this.color = COLOR_BYLAYER;
+        this.radius = 0.0;
+        this.scaleX = 1.0;
+        this.scaleY = 1.0;
+        this.scaleZ = 1.0;
+        this.rotation = 0.0;
+        this.columnCount = 1;
+        this.rowCount = 1;
+        this.startAngle = 0.0;
+        this.endAngle = 0.0;
+        this.axisRatio = 1.0;
+        this.degree = 0;
+        x.clear();
+        y.clear();
+        z.clear();
+        bulge.clear();
+        width.clear();
+        knots.clear();
+        weights.clear();
+        hatchBoundary.clear();
+    }
+
+    void ensureVertexCapacity(int vertices) {
+        x.ensureCapacity(vertices);
+        y.ensureCapacity(vertices);
+        z.ensureCapacity(vertices);
+        bulge.ensureCapacity(vertices);
+        width.ensureCapacity(vertices);
+    }
+
+    void addVertex(double xValue) {
+        x.add(xValue);
+        y.add(0.0);
+        z.add(0.0);
+        bulge.add(0.0);
+        width.add(0.0);
+    }
+
+    void removeLastVertex() {
+        x.removeLast();
+        y.removeLast();
+        z.removeLast();
+        bulge.removeLast();
+        width.removeLast();
+    }
+
+    void setY(double value) {
+        setLast(y, value);
+    }
+
+    void setZ(double value) {
+        setLast(z, value);
+    }
+
+    void setBulge(double value) {
+        setLast(bulge, value);
+    }
+
+    void setWidth(double value) {
+        setLast(width, value);
+    }
+
+    void setRadius(double radius) {
+        this.radius = radius;
+    }
+
+    void setFlags(int flags) {
+        this.flags = flags;
+    }
+
+    void setColor(int color) {
+        this.color = color;
+    }
+
+    void setScaleX(double scaleX) {
+        this.scaleX = scaleX;
+    }
+
+    void setScaleY(double scaleY) {
+        this.scaleY = scaleY;
+    }
+
+    void setScaleZ(double scaleZ) {
+        this.scaleZ = scaleZ;
+    }
+
+    void setRotation(double rotation) {
+        this.rotation = rotation;
+    }
+
+    void setColumnCount(int columnCount) {
+        this.columnCount = columnCount;
+    }
+
+    void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    void setStartAngle(double startAngle) {
+        this.startAngle = startAngle;
+    }
+
+    void setEndAngle(double endAngle) {
+        this.endAngle = endAngle;
+    }
+
+    void setAxisRatio(double axisRatio) {
+        this.axisRatio = axisRatio;
+    }
+
+    void setDegree(int degree) {
+        this.degree = degree;
+    }
+
+    void addKnot(double knot) {
+        knots.add(knot);
+    }
+
+    void addWeight(double weight) {
+        weights.add(weight);
+    }
+
+    void setLinetype(String linetype) {
+        this.linetype = linetype;
+    }
+
+    void appendText(String value) {
+        text = text == null ? value : text + value;
+    }
+
+    void setLayerId(int layerId) {
+        this.layerId = layerId;
+    }
+
+    void setBlockId(int blockId) {
+        this.blockId = blockId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public BlockLibrary getBlocks() {
+        return blocks;
+    }
+
+    public int getLayerId() {
+        return layerId;
+    }
+
+    public int getOwnerBlockId() {
+        return ownerBlockId;
+    }
+
+    public int getBlockId() {
+        return blockId;
+    }
+
+    public String getLayer() {
+        return symbols.name(layerId);
+    }
+
+    public String getOwnerBlockName() {
+        return symbols.name(ownerBlockId);
+    }
+
+    public String getBlockName() {
+        return symbols.name(blockId);
+    }
+
+    public String getLinetype() {
+        return linetype;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean isClosed() {
+        return (flags & 1) == 1;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    public double getScaleY() {
+        return scaleY;
+    }
+
+    public double getScaleZ() {
+        return scaleZ;
+    }
+
+    public double getRotation() {
+        return rotation;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public double getStartAngle() {
+        return startAngle;
+    }
+
+    public double getEndAngle() {
+        return endAngle;
+    }
+
+    public double getAxisRatio() {
+        return axisRatio;
+    }
+
+    public int getDegree() {
+        return degree;
+    }
+
+    public int getKnotCount() {
+        return knots.size();
+    }
+
+    public int getWeightCount() {
+        return weights.size();
+    }
+
+    public int getVertexCount() {
+        return x.size();
+    }
+
+    public double getX(int vertex) {
+        return x.get(vertex);
+    }
+
+    public double getY(int vertex) {
+        return y.get(vertex);
+    }
+
+    public double getZ(int vertex) {
+        return z.get(vertex);
+    }
+
+    public double getBulge(int vertex) {
+        return bulge.get(vertex);
+    }
+
+    public double getWidth(int vertex) {
+        return width.get(vertex);
+    }
+
+    public double[] xs() {
+        return x.array();
+    }
+
+    public double[] ys() {
+        return y.array();
+    }
+
+    public double[] zs() {
+        return z.array();
+    }
+
+    public double[] bulges() {
+        return bulge.array();
+    }
+
+    public double[] widths() {
+        return width.array();
+    }
+
+    public double[] knots() {
+        return knots.array();
+    }
+
+    public double[] weights() {
+        return weights.array();
+    }
+
+    public HatchBoundary getHatchBoundary() {
+        return hatchBoundary;
+    }
+
+    private static void setLast(CoordinateBuffer channel, double value) {
+        int last = channel.size() - 1;
+        if (last >= 0) {
+            channel.set(last, value);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class DxfHeader {
+    public static final int UNITS_UNSPECIFIED = -1;
+
+    private String acadVersion;
+    private int insUnits = UNITS_UNSPECIFIED;
+    private double dimScale = Double.NaN;
+    private final double[] extMin = { Double.NaN, Double.NaN, Double.NaN };
+    private final double[] extMax = { Double.NaN, Double.NaN, Double.NaN };
+    private long bytesRead;
+    private long probeNanos;
+
+    public String getAcadVersion() {
+        return acadVersion;
+    }
+
+    public int getInsUnits() {
+        return insUnits;
+    }
+
+    public boolean hasInsUnits() {
+        return insUnits != UNITS_UNSPECIFIED;
+    }
+
+    public double getDimScale() {
+        return dimScale;
+    }
+
+    public boolean hasDimScale() {
+        return !Double.isNaN(dimScale);
+    }
+
+    public double getMinX() {
+        return extMin[0];
+    }
+
+    public double getMinY() {
+        return extMin[1];
+    }
+
+    public double getMaxX() {
+        return extMax[0];
+    }
+
+    public double getMaxY() {
+        return extMax[1];
+    }
+
+    public boolean hasExtents() {
+        return !Double.isNaN(extMin[0]) && !Double.isNaN(extMin[1])
+                && !Double.isNaN(extMax[0]) && !Double.isNaN(extMax[1])
+                && extMax[0] >= extMin[0] && extMax[1] >= extMin[1];
+    }
+
+    public double getWidth() {
+        return hasExtents() ? extMax[0] - extMin[0] : 0.0;
+    }
+
+    public double getHeight() {
+        return hasExtents() ? extMax[1] - extMin[1] : 0.0;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getProbeNanos() {
+        return probeNanos;
+    }
+
+    public Map<String, String> toProperties() {
+        Map<String, String> properties = new HashMap<>();
+        if (acadVersion != null) {
+            properties.put("$ACADVER", acadVersion);
+        }
+        if (hasInsUnits()) {
+            properties.put("$INSUNITS", String.valueOf(insUnits));
+        }
+        if (hasDimScale()) {
+            properties.put("$DIMSCALE", String.valueOf(dimScale));
+        }
+        if (hasExtents()) {
+            properties.put("$EXTMIN", extMin[0] + "," + extMin[1] + "," + extMin[2]);
+            properties.put("$EXTMAX", extMax[0] + "," + extMax[1] + "," + extMax[2]);
+        }
+        return properties;
+    }
+
+    void setAcadVersion(String acadVersion) {
+        this.acadVersion = acadVersion;
+    }
+
+    void setInsUnits(int insUnits) {
+        this.insUnits = insUnits;
+    }
+
+    void setDimScale(double dimScale) {
+        this.dimScale = dimScale;
+    }
+
+    void setExtMin(int axis, double value) {
+        extMin[axis] = value;
+    }
+
+    void setExtMax(int axis, double value) {
+        extMax[axis] = value;
+    }
+
+    void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    void setProbeNanos(long probeNanos) {
+        this.probeNanos = probeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "DxfHeader{" +
+                "acadVersion='" + acadVersion + '\'' +
+                ", insUnits=" + insUnits +
+                ", dimScale=" + dimScale +
+                ", extents=" + (hasExtents()
+                        ? "(" + extMin[0] + ", " + extMin[1] + ")-(" + extMax[0] + ", " + extMax[1] + ")"
+                        : "unknown") +
+                '}';
+    }
+}
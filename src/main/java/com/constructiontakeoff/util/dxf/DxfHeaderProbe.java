@@ -0,0 +1,106 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+public class DxfHeaderProbe {
+    private static final Logger logger = Logger.getLogger(DxfHeaderProbe.class.getName());
+
+    private DxfHeaderProbe() {
+    }
+
+    public static DxfHeader probe(File dxfFile) throws DxfParsingException {
+        if (dxfFile == null || !dxfFile.exists()) {
+            throw new DxfParsingException("DXF file does not exist");
+        }
+
+        long start = System.nanoTime();
+        DxfHeader header = new DxfHeader();
+
+        try (DxfTokenizer tokenizer = DxfParser.openTokenizer(dxfFile, DxfParser.TokenizerMode.MAPPED)) {
+            readHeader(tokenizer, header);
+            header.setBytesRead(tokenizer.bytesRead());
+        } catch (IOException e) {
+            logger.severe("Failed to probe DXF header: " + e.getMessage());
+            throw DxfParsingException.fileReadError(e);
+        } catch (NumberFormatException e) {
+            throw DxfParsingException.invalidEntityData("HEADER", e.getMessage());
+        }
+
+        header.setProbeNanos(System.nanoTime() - start);
+        logger.info(String.format("Probed DXF header of %s in %d us (%d bytes): %s", dxfFile.getName(),
+                header.getProbeNanos() / 1000, header.getBytesRead(), header));
+        return header;
+    }
+
+    static void readHeader(DxfTokenizer tokenizer, DxfHeader header) throws IOException, DxfParsingException {
+        boolean expectSectionName = false;
+        boolean inHeader = false;
+        String variable = null;
+
+        while (tokenizer.next()) {
+            int code = tokenizer.groupCode();
+
+            if (code == 0) {
+                if (inHeader && tokenizer.valueEquals("ENDSEC")) {
+                    return;
+                }
+                expectSectionName = tokenizer.valueEquals("SECTION");
+                continue;
+            }
+
+            if (expectSectionName) {
+                expectSectionName = false;
+                if (code == 2 && tokenizer.valueEquals("HEADER")) {
+                    inHeader = true;
+                    continue;
+                }
+                logger.fine("DXF file has no leading HEADER section");
+                return;
+            }
+
+            if (!inHeader) {
+                continue;
+            }
+
+            if (code == 9) {
+                variable = tokenizer.stringValue();
+            } else if (variable != null) {
+                readVariable(tokenizer, header, variable, code);
+            }
+        }
+    }
+
+    private static void readVariable(DxfTokenizer tokenizer, DxfHeader header, String variable, int code) {
+        switch (variable) {
+            case "$ACADVER":
+                if (code == 1) {
+                    header.setAcadVersion(tokenizer.stringValue());
+                }
+                break;
+            case "$INSUNITS":
+                if (code == 70) {
+                    header.setInsUnits(tokenizer.intValue());
+                }
+                break;
+            case "$DIMSCALE":
+                if (code == 40) {
+                    header.setDimScale(tokenizer.doubleValue());
+                }
+                break;
+            case "$EXTMIN":
+                if (code == 10 || code == 20 || code == 30) {
+                    header.setExtMin(code / 10 - 1, tokenizer.doubleValue());
+                }
+                break;
+            case "$EXTMAX":
+                if (code == 10 || code == 20 || code == 30) {
+                    header.setExtMax(code / 10 - 1, tokenizer.doubleValue());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
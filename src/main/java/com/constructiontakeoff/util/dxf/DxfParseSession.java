@@ -0,0 +1,212 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+public class DxfParseSession {
+    private static final Logger logger = Logger.getLogger(DxfParseSession.class.getName());
+
+    public static final class Result<R> {
+        private R value;
+
+        public R get() {
+            return value;
+        }
+    }
+
+    private static final class Consumer<R> {
+        private final String name;
+        private final Set<String> entityTypes;
+        private final Supplier<R> stateFactory;
+        private final Function<R, DxfParser.EntityHandler> handlerFactory;
+        private final BinaryOperator<R> combiner;
+        private final Result<R> result = new Result<>();
+
+        private Consumer(String name, Set<String> entityTypes, Supplier<R> stateFactory,
+                Function<R, DxfParser.EntityHandler> handlerFactory, BinaryOperator<R> combiner) {
+            this.name = name;
+            this.entityTypes = entityTypes;
+            this.stateFactory = stateFactory;
+            this.handlerFactory = handlerFactory;
+            this.combiner = combiner;
+        }
+
+        private boolean accepts(String entityType) {
+            return entityTypes == null || entityTypes.contains(entityType);
+        }
+
+        @SuppressWarnings("unchecked")
+        private DxfParser.EntityHandler handler(Object state) {
+            return handlerFactory.apply((R) state);
+        }
+
+        private void complete(List<Object[]> states, int index) {
+            result.value = reduce(states, index, 0, states.size());
+        }
+
+        @SuppressWarnings("unchecked")
+        private R reduce(List<Object[]> states, int index, int from, int to) {
+            if (to - from == 1) {
+                return (R) states.get(from)[index];
+            }
+            int mid = (from + to) >>> 1;
+            return combiner.apply(reduce(states, index, from, mid), reduce(states, index, mid, to));
+        }
+    }
+
+    private final List<Consumer<?>> consumers = new ArrayList<>();
+    private final ForkJoinPool pool;
+    private final boolean deterministic;
+
+    private int passCount;
+    private long bytesTokenized;
+    private long fileSize;
+
+    public DxfParseSession() {
+        this(null);
+    }
+
+    public DxfParseSession(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    public DxfParseSession(ForkJoinPool pool, boolean deterministic) {
+        this.pool = pool;
+        this.deterministic = deterministic;
+    }
+
+    public <R> Result<R> register(String name, Set<String> entityTypes, Supplier<R> stateFactory,
+            Function<R, DxfParser.EntityHandler> handlerFactory, BinaryOperator<R> combiner) {
+        Consumer<R> consumer = new Consumer<>(name, entityTypes == null ? null : new HashSet<>(entityTypes),
+                stateFactory, handlerFactory, combiner);
+        consumers.add(consumer);
+        return consumer.result;
+    }
+
+    public void run(File dxfFile) throws DxfParsingException {
+        if (consumers.isEmpty()) {
+            logger.warning("No consumers registered, skipping parse of " + dxfFile.getPath());
+            return;
+        }
+
+        Set<String> entityTypes = requestedEntityTypes();
+        List<Object[]> states;
+        if (pool != null || deterministic) {
+            ParallelDxfParser parallelParser = new ParallelDxfParser(pool, entityTypes, deterministic);
+            states = parallelParser.parseRanges(dxfFile, this::createStates, this::createHandler);
+            passCount = parallelParser.getPassCount();
+            bytesTokenized = parallelParser.getBytesTokenized();
+        } else {
+            DxfParser parser = new DxfParser(DxfParser.TokenizerMode.MAPPED, entityTypes);
+            Object[] sequentialStates = createStates();
+            parser.parse(dxfFile, createHandler(sequentialStates));
+            states = new ArrayList<>();
+            states.add(sequentialStates);
+            passCount = parser.getPassCount();
+            bytesTokenized = parser.getBytesTokenized();
+        }
+
+        for (int i = 0; i < consumers.size(); i++) {
+            consumers.get(i).complete(states, i);
+        }
+
+        fileSize = dxfFile.length();
+        logger.info(String.format("Parse session served %d consumer(s) with %d pass(es) over %s: %d of %d bytes "
+                + "tokenized", consumers.size(), passCount, dxfFile.getName(), bytesTokenized, fileSize));
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public long getBytesTokenized() {
+        return bytesTokenized;
+    }
+
+    public double getReadRatio() {
+        return fileSize > 0 ? (double) bytesTokenized / fileSize : 0.0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        return Map.of(
+                "consumers", consumers.size(),
+                "passes", passCount,
+                "bytesTokenized", bytesTokenized,
+                "fileSize", fileSize,
+                "deterministic", deterministic);
+    }
+
+    private Set<String> requestedEntityTypes() {
+        Set<String> entityTypes = new LinkedHashSet<>();
+        for (Consumer<?> consumer : consumers) {
+            if (consumer.entityTypes == null) {
+                return null;
+            }
+            entityTypes.addAll(consumer.entityTypes);
+        }
+        return entityTypes;
+    }
+
+    private Object[] createStates() {
+        Object[] states = new Object[consumers.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = consumers.get(i).stateFactory.get();
+        }
+        return states;
+    }
+
+    private DxfParser.EntityHandler createHandler(Object[] states) {
+        DxfParser.EntityHandler[] handlers = new DxfParser.EntityHandler[states.length];
+        for (int i = 0; i < handlers.length; i++) {
+            handlers[i] = consumers.get(i).handler(states[i]);
+        }
+
+        return new DxfParser.EntityHandler() {
+            @Override
+            public void handleEntity(DxfEntity entity) throws DxfParsingException {
+                String entityType = entity.getType();
+                DxfParsingException failure = null;
+                for (int i = 0; i < handlers.length; i++) {
+                    Consumer<?> consumer = consumers.get(i);
+                    if (!consumer.accepts(entityType)) {
+                        continue;
+                    }
+                    try {
+                        handlers[i].handleEntity(entity);
+                    } catch (DxfParsingException | RuntimeException e) {
+                        logger.warning("Consumer " + consumer.name + " failed on " + entityType + ": "
+                                + e.getMessage());
+                        if (failure == null) {
+                            failure = e instanceof DxfParsingException ? (DxfParsingException) e
+                                    : new DxfParsingException(e.getMessage(), e);
+                        }
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+
+            @Override
+            public void flush() throws DxfParsingException {
+                for (DxfParser.EntityHandler handler : handlers) {
+                    handler.flush();
+                }
+            }
+        };
+    }
+}
@@ -1,24 +1,90 @@
 package com.constructiontakeoff.util.dxf;
 
-import java.io.BufferedReader;
+import com.constructiontakeoff.util.geometry.EntityType;
+
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 public class DxfParser {
     private static final Logger logger = Logger.getLogger(DxfParser.class.getName());
-    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_PRESIZED_VERTICES = 1 << 20;
+    private static final int VERTEX_SPLINE_FRAME = 16;
+    private static final int VERTEX_MESH = 64;
+    private static final int VERTEX_POLYFACE = 128;
+    private static final String[] ENTITY_TYPES = { "LWPOLYLINE", "LINE", "POLYLINE", "CIRCLE", "ARC", "ELLIPSE",
+            "SPLINE", "HATCH", "INSERT", "TEXT", "MTEXT" };
+
+    public enum TokenizerMode {
+        STREAM,
+        MAPPED
+    }
 
     public interface EntityHandler {
 
-        void handleEntity(String entityType, double[] coordinates, String layer,
-                String blockName, Map<String, String> properties) throws DxfParsingException;
+        void handleEntity(DxfEntity entity) throws DxfParsingException;
+
+        default void flush() throws DxfParsingException {
+        }
+    }
+
+    private final TokenizerMode tokenizerMode;
+    private final String[] entityTypes;
+    private final EntityType[] resolvedTypes;
+    private final AtomicInteger passCount = new AtomicInteger(0);
+    private final AtomicLong bytesTokenized = new AtomicLong(0);
+    private final AtomicLong skippedEntities = new AtomicLong(0);
+
+    public DxfParser() {
+        this(TokenizerMode.MAPPED);
+    }
+
+    public DxfParser(TokenizerMode tokenizerMode) {
+        this(tokenizerMode, null);
+    }
+
+    public DxfParser(TokenizerMode tokenizerMode, Set<String> entityTypes) {
+        this.tokenizerMode = tokenizerMode;
+        this.entityTypes = entityTypes != null ? entityTypes.toArray(new String[0]) : ENTITY_TYPES;
+        this.resolvedTypes = new EntityType[this.entityTypes.length];
+        for (int i = 0; i < this.entityTypes.length; i++) {
+            resolvedTypes[i] = EntityType.fromString(this.entityTypes[i]);
+        }
+    }
+
+    public TokenizerMode getTokenizerMode() {
+        return tokenizerMode;
+    }
+
+    public Set<String> getEntityTypes() {
+        return new LinkedHashSet<>(Arrays.asList(entityTypes));
+    }
+
+    public int getPassCount() {
+        return passCount.get();
+    }
+
+    public long getBytesTokenized() {
+        return bytesTokenized.get();
+    }
+
+    public long getSkippedEntities() {
+        return skippedEntities.get();
+    }
+
+    void recordPass() {
+        passCount.incrementAndGet();
+    }
+
+    void recordBytesTokenized(long bytes) {
+        bytesTokenized.addAndGet(bytes);
     }
 
     public void parse(File dxfFile, EntityHandler handler) throws DxfParsingException {
@@ -26,170 +92,370 @@ public class DxfParser {
             throw new DxfParsingException("DXF file does not exist");
         }
 
-        logger.info("Starting to parse DXF file: " + dxfFile.getPath());
+        logger.info("Starting to parse DXF file: " + dxfFile.getPath() + " (" + tokenizerMode + " tokenizer)");
         AtomicInteger processedEntities = new AtomicInteger(0);
         AtomicInteger errorCount = new AtomicInteger(0);
+        long skippedBefore = skippedEntities.get();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(dxfFile), BUFFER_SIZE)) {
-            String line;
-            String currentLayer = "";
-            String currentBlockName = "";
-            String currentEntity = "";
-            Map<String, String> entityProperties = new HashMap<>();
-            List<Double> coordinatesList = new ArrayList<>();
-            boolean inEntity = false;
-            boolean inBlock = false;
-
-            while ((line = reader.readLine()) != null) {
-                try {
-                    line = line.trim();
-
-                    if (line.equals("SECTION")) {
-                        String nextLine = reader.readLine();
-                        if (nextLine != null && nextLine.trim().equals("2")) {
-                            String sectionName = reader.readLine();
-                            if (sectionName != null) {
-                                logger.fine("Entering section: " + sectionName.trim());
-                            }
-                        }
-                    }
+        try (DxfTokenizer tokenizer = openTokenizer(dxfFile, tokenizerMode)) {
+            recordPass();
+            SymbolTable symbols = new SymbolTable();
+            parseTokens(tokenizer, handler, processedEntities, errorCount, symbols, new BlockLibrary(symbols));
 
-                    if (line.equals("LAYER")) {
-                        while ((line = reader.readLine()) != null && !line.equals("0")) {
-                            if (line.equals("2")) {
-                                currentLayer = reader.readLine();
-                                if (currentLayer != null) {
-                                    currentLayer = currentLayer.trim();
-                                    logger.fine("Processing layer: " + currentLayer);
-                                }
-                                break;
-                            }
-                        }
-                    }
+            if (errorCount.get() > 0) {
+                logger.warning(String.format(
+                        "DXF parsing completed. Processed %d entities with %d errors. Check logs for details.",
+                        processedEntities.get(), errorCount.get()));
+            } else {
+                logger.info(String.format(
+                        "DXF parsing completed successfully. Processed %d entities, skipped %d records (%d bytes).",
+                        processedEntities.get(), skippedEntities.get() - skippedBefore, tokenizer.bytesRead()));
+            }
 
-                    if (line.equals("BLOCK")) {
-                        inBlock = true;
-                        while ((line = reader.readLine()) != null && !line.equals("0")) {
-                            if (line.equals("2")) {
-                                currentBlockName = reader.readLine();
-                                if (currentBlockName != null) {
-                                    currentBlockName = currentBlockName.trim();
-                                    logger.fine("Processing block definition: " + currentBlockName);
-                                }
+        } catch (IOException e) {
+            logger.severe("Failed to read DXF file: " + e.getMessage());
+            throw DxfParsingException.fileReadError(e);
+        }
+    }
+
+    void parseTokens(DxfTokenizer tokenizer, EntityHandler handler, AtomicInteger processedEntities,
+            AtomicInteger errorCount, SymbolTable symbols, BlockLibrary blocks)
+            throws IOException, DxfParsingException {
+        int currentLayer = SymbolTable.EMPTY;
+        int currentBlock = SymbolTable.EMPTY;
+        String currentEntity = "";
+        DxfEntity entity = new DxfEntity(symbols, blocks);
+        HatchDecoder hatchDecoder = new HatchDecoder();
+        boolean inEntity = false;
+        boolean inBlock = false;
+        boolean expectSectionName = false;
+        boolean inBlocksSection = false;
+        boolean inLayerRecord = false;
+        boolean inBlockRecord = false;
+        boolean inBlockTableRecord = false;
+        boolean vertexAttributes = false;
+        boolean insertEntity = false;
+        boolean polylineEntity = false;
+        boolean arcEntity = false;
+        boolean ellipseEntity = false;
+        boolean splineEntity = false;
+        boolean hatchEntity = false;
+        boolean inVertex = false;
+
+        int entityIndex;
+        boolean positioned = false;
+
+        while (positioned || tokenizer.next()) {
+            positioned = false;
+            int code = tokenizer.groupCode();
+            try {
+                if (code == 0) {
+                    if (inEntity && polylineEntity) {
+                        if (tokenizer.valueEquals("VERTEX")) {
+                            inVertex = true;
+                            vertexAttributes = true;
+                            continue;
+                        }
+                        inVertex = false;
+                        if (tokenizer.valueEquals("SEQEND")) {
+                            if (entity.getVertexCount() > 0) {
+                                dispatch(handler, entity, processedEntities, errorCount);
+                            }
+                            inEntity = false;
+                            positioned = tokenizer.skipToNextEntity();
+                            if (!positioned) {
                                 break;
                             }
+                            continue;
                         }
-                    } else if (line.equals("ENDBLK")) {
-                        inBlock = false;
-                        currentBlockName = "";
                     }
 
-                    if (isEntityStart(line)) {
-                        inEntity = true;
-                        currentEntity = line;
-                        entityProperties.clear();
-                        coordinatesList.clear();
+                    if (inEntity && hatchEntity) {
+                        hatchDecoder.finish();
+                    }
+                    if (inEntity && entity.getVertexCount() > 0) {
+                        dispatch(handler, entity, processedEntities, errorCount);
+                    }
 
-                        entityProperties.put("type", currentEntity);
-                        entityProperties.put("layer", currentLayer);
+                    inEntity = false;
+                    inLayerRecord = false;
+                    inBlockRecord = false;
+                    inBlockTableRecord = false;
 
-                        if (inBlock) {
-                            entityProperties.put("blockName", currentBlockName);
+                    if (tokenizer.valueEquals("SECTION")) {
+                        expectSectionName = true;
+                    } else if (tokenizer.valueEquals("LAYER")) {
+                        inLayerRecord = true;
+                    } else if (tokenizer.valueEquals("BLOCK")) {
+                        inBlock = true;
+                        inBlockRecord = true;
+                    } else if (tokenizer.valueEquals("BLOCK_RECORD")) {
+                        inBlockTableRecord = true;
+                    } else if (tokenizer.valueEquals("ENDBLK")) {
+                        inBlock = false;
+                        currentBlock = SymbolTable.EMPTY;
+                    } else if (tokenizer.valueEquals("ENDSEC")) {
+                        if (inBlocksSection) {
+                            inBlocksSection = false;
+                            blocks.resolveAll();
+                        }
+                    } else if ((entityIndex = entityStartIndex(tokenizer)) >= 0) {
+                        EntityType resolvedType = resolvedTypes[entityIndex];
+                        inEntity = true;
+                        currentEntity = entityTypes[entityIndex];
+                        vertexAttributes = resolvedType == EntityType.LWPOLYLINE;
+                        insertEntity = resolvedType == EntityType.INSERT;
+                        polylineEntity = resolvedType == EntityType.POLYLINE;
+                        arcEntity = resolvedType == EntityType.ARC;
+                        ellipseEntity = resolvedType == EntityType.ELLIPSE;
+                        splineEntity = resolvedType == EntityType.SPLINE;
+                        hatchEntity = resolvedType == EntityType.HATCH;
+                        inVertex = false;
+                        entity.reset(currentEntity, resolvedType, currentLayer,
+                                inBlock ? currentBlock : SymbolTable.EMPTY);
+                        if (hatchEntity) {
+                            hatchDecoder.reset(entity.getHatchBoundary());
+                        }
+                    } else {
+                        skippedEntities.incrementAndGet();
+                        positioned = tokenizer.skipToNextEntity();
+                        if (!positioned) {
+                            break;
                         }
-
                     }
+                    continue;
+                }
+
+                if (inEntity && hatchEntity && hatchDecoder.accept(code, tokenizer)) {
+                    continue;
+                }
 
-                    if (inEntity) {
-                        if (line.equals("8")) {
-                            String layerName = reader.readLine();
-                            if (layerName != null) {
-                                currentLayer = layerName.trim();
-                                entityProperties.put("layer", currentLayer);
-                            }
-                        } else if (line.equals("2") && currentEntity.equals("INSERT")) {
-                            String blockName = reader.readLine();
-                            if (blockName != null) {
-                                currentBlockName = blockName.trim();
-                                entityProperties.put("blockName", blockName.trim());
-                            }
-                        } else if (isCoordinateCode(line)) {
-                            String value = reader.readLine();
-                            if (value != null) {
-                                try {
-                                    coordinatesList.add(Double.parseDouble(value.trim()));
-                                } catch (NumberFormatException e) {
-                                    logger.warning("Failed to parse coordinate value: " + value);
-                                    errorCount.incrementAndGet();
+                if (inEntity) {
+                    switch (code) {
+                        case 10:
+                            if (!polylineEntity || inVertex) {
+                                entity.addVertex(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 11:
+                            if (!polylineEntity && !splineEntity) {
+                                entity.addVertex(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 20:
+                            entity.setY(tokenizer.doubleValue());
+                            break;
+                        case 21:
+                            if (!splineEntity) {
+                                entity.setY(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 30:
+                            entity.setZ(tokenizer.doubleValue());
+                            break;
+                        case 31:
+                            if (!splineEntity) {
+                                entity.setZ(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 40:
+                            if (vertexAttributes) {
+                                entity.setWidth(tokenizer.doubleValue());
+                            } else if (splineEntity) {
+                                entity.addKnot(tokenizer.doubleValue());
+                            } else if (ellipseEntity) {
+                                entity.setAxisRatio(tokenizer.doubleValue());
+                            } else {
+                                entity.setRadius(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 41:
+                            if (splineEntity) {
+                                entity.addWeight(tokenizer.doubleValue());
+                            } else if (ellipseEntity) {
+                                entity.setStartAngle(tokenizer.doubleValue());
+                            } else if (!vertexAttributes) {
+                                entity.setScaleX(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 42:
+                            if (vertexAttributes) {
+                                entity.setBulge(tokenizer.doubleValue());
+                            } else if (ellipseEntity) {
+                                entity.setEndAngle(tokenizer.doubleValue());
+                            } else if (!splineEntity) {
+                                entity.setScaleY(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 43:
+                            if (!vertexAttributes) {
+                                entity.setScaleZ(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 50:
+                            if (arcEntity) {
+                                entity.setStartAngle(tokenizer.doubleValue());
+                            } else {
+                                entity.setRotation(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 51:
+                            if (arcEntity) {
+                                entity.setEndAngle(tokenizer.doubleValue());
+                            }
+                            break;
+                        case 70:
+                            if (insertEntity) {
+                                entity.setColumnCount(tokenizer.intValue());
+                            } else if (inVertex) {
+                                int vertexFlags = tokenizer.intValue();
+                                if ((vertexFlags & VERTEX_SPLINE_FRAME) != 0
+                                        || (vertexFlags & (VERTEX_POLYFACE | VERTEX_MESH)) == VERTEX_POLYFACE) {
+                                    entity.removeLastVertex();
                                 }
+                            } else {
+                                entity.setFlags(tokenizer.intValue());
                             }
-                        } else if (isPropertyCode(line)) {
-                            String code = line;
-                            String value = reader.readLine();
-                            if (value != null) {
-                                entityProperties.put(code, value.trim());
+                            break;
+                        case 71:
+                            if (insertEntity) {
+                                entity.setRowCount(tokenizer.intValue());
+                            } else if (splineEntity) {
+                                entity.setDegree(tokenizer.intValue());
                             }
-                        }
-
-                        if (line.equals("0") && !coordinatesList.isEmpty()) {
-                            inEntity = false;
-
-                            double[] coordinates = new double[coordinatesList.size()];
-                            for (int i = 0; i < coordinatesList.size(); i++) {
-                                coordinates[i] = coordinatesList.get(i);
+                            break;
+                        case 62:
+                            entity.setColor(tokenizer.intValue());
+                            break;
+                        case 6:
+                            entity.setLinetype(symbols.intern(tokenizer));
+                            break;
+                        case 8:
+                            if (!inVertex) {
+                                currentLayer = symbols.id(tokenizer);
+                                entity.setLayerId(currentLayer);
                             }
-
-                            try {
-                                handler.handleEntity(currentEntity, coordinates, currentLayer,
-                                        currentBlockName, entityProperties);
-                                processedEntities.incrementAndGet();
-                            } catch (DxfParsingException e) {
-                                logger.warning("Error processing entity: " + e.getMessage());
-                                errorCount.incrementAndGet();
+                            break;
+                        case 2:
+                            if (insertEntity) {
+                                entity.setBlockId(symbols.id(tokenizer));
                             }
-                        }
+                            break;
+                        case 90:
+                            if (vertexAttributes) {
+                                int vertexCount = tokenizer.intValue();
+                                if (vertexCount > 0) {
+                                    entity.ensureVertexCapacity(Math.min(vertexCount, MAX_PRESIZED_VERTICES));
+                                }
+                            }
+                            break;
+                        case 1:
+                        case 3:
+                            if (isTextEntity(currentEntity)) {
+                                entity.appendText(tokenizer.stringValue());
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (code == 2) {
+                    if (expectSectionName) {
+                        expectSectionName = false;
+                        inBlocksSection = tokenizer.valueEquals("BLOCKS");
+                        logger.fine("Entering section: " + tokenizer.stringValue());
+                    } else if (inLayerRecord) {
+                        inLayerRecord = false;
+                        currentLayer = symbols.id(tokenizer);
+                        logger.fine("Processing layer: " + symbols.name(currentLayer));
+                    } else if (inBlockRecord) {
+                        inBlockRecord = false;
+                        currentBlock = symbols.id(tokenizer);
+                        blocks.define(currentBlock);
+                        logger.fine("Processing block definition: " + symbols.name(currentBlock));
+                    } else if (inBlockTableRecord) {
+                        inBlockTableRecord = false;
+                        symbols.id(tokenizer);
                     }
-                } catch (Exception e) {
+                }
+            } catch (NumberFormatException e) {
+                logger.warning("Failed to parse value for group code " + code + ": " + tokenizer.stringValue());
+                errorCount.incrementAndGet();
+            } catch (Exception e) {
 
-                    logger.warning("Error processing line in DXF file: " + e.getMessage());
-                    errorCount.incrementAndGet();
+                logger.warning("Error processing group code " + code + " in DXF file: " + e.getMessage());
+                errorCount.incrementAndGet();
 
-                    inEntity = false;
-                    coordinatesList.clear();
-                }
+                inEntity = false;
             }
+        }
 
-            if (errorCount.get() > 0) {
-                logger.warning(String.format(
-                        "DXF parsing completed. Processed %d entities with %d errors. Check logs for details.",
-                        processedEntities.get(), errorCount.get()));
-            } else {
-                logger.info(String.format("DXF parsing completed successfully. Processed %d entities.",
-                        processedEntities.get()));
+        if (inEntity && hatchEntity) {
+            hatchDecoder.finish();
+        }
+        if (inEntity && entity.getVertexCount() > 0) {
+            dispatch(handler, entity, processedEntities, errorCount);
+        }
+        flush(handler, errorCount);
+        recordBytesTokenized(tokenizer.bytesRead());
+    }
+
+    private void dispatch(EntityHandler handler, DxfEntity entity, AtomicInteger processedEntities,
+            AtomicInteger errorCount) {
+        try {
+            if (entity.getOwnerBlockId() != SymbolTable.EMPTY) {
+                entity.getBlocks().add(entity);
             }
+            handler.handleEntity(entity);
+            processedEntities.incrementAndGet();
+        } catch (DxfParsingException | RuntimeException e) {
+            logger.warning("Error processing entity: " + e.getMessage());
+            errorCount.incrementAndGet();
+        }
+    }
 
-        } catch (IOException e) {
-            logger.severe("Failed to read DXF file: " + e.getMessage());
-            throw DxfParsingException.fileReadError(e);
+    private void flush(EntityHandler handler, AtomicInteger errorCount) {
+        try {
+            handler.flush();
+        } catch (DxfParsingException | RuntimeException e) {
+            logger.warning("Error flushing entity handler: " + e.getMessage());
+            errorCount.incrementAndGet();
         }
     }
 
-    private boolean isEntityStart(String line) {
-        return line.equals("LWPOLYLINE") ||
-                line.equals("LINE") ||
-                line.equals("POLYLINE") ||
-                line.equals("CIRCLE") ||
-                line.equals("INSERT");
+    public static boolean isBinaryDxf(File dxfFile) throws IOException {
+        byte[] header = new byte[BinaryDxfTokenizer.SENTINEL.length];
+        try (InputStream in = new FileInputStream(dxfFile)) {
+            int read = in.readNBytes(header, 0, header.length);
+            return read == header.length && Arrays.equals(header, BinaryDxfTokenizer.SENTINEL);
+        }
     }
 
-    private boolean isCoordinateCode(String code) {
-        return code.equals("10") || code.equals("20") || code.equals("30") ||
-                code.equals("11") || code.equals("21") || code.equals("31") ||
-                code.equals("40") || code.equals("41") || code.equals("42");
+    static DxfTokenizer openTokenizer(File dxfFile, TokenizerMode tokenizerMode) throws IOException {
+        if (isBinaryDxf(dxfFile)) {
+            logger.info("Detected binary DXF file: " + dxfFile.getPath());
+            return new BinaryDxfTokenizer(MappedDxfTokenizer.map(dxfFile));
+        }
+
+        if (tokenizerMode == TokenizerMode.MAPPED) {
+            if (dxfFile.length() <= MappedDxfTokenizer.MAX_MAPPED_SIZE) {
+                return new MappedDxfTokenizer(dxfFile);
+            }
+            logger.warning("DXF file exceeds the memory-mapping limit, falling back to stream tokenizer: "
+                    + dxfFile.getPath());
+        }
+        return new StreamDxfTokenizer(dxfFile);
     }
 
-    private boolean isPropertyCode(String code) {
+    private int entityStartIndex(DxfTokenizer tokenizer) {
+        for (int i = 0; i < entityTypes.length; i++) {
+            if (tokenizer.valueEquals(entityTypes[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        return code.equals("70") || code.equals("71") || code.equals("72") ||
-                code.equals("73") || code.equals("62") || code.equals("6");
+    private boolean isTextEntity(String entityType) {
+        return entityType.equals("TEXT") || entityType.equals("MTEXT");
     }
 }
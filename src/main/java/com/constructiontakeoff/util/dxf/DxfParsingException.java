@@ -22,6 +22,10 @@ public class DxfParsingException extends Exception {
         return new DxfParsingException("Invalid data for " + entityType + ": " + details);
     }
     
+    public static DxfParsingException invalidGroupCode(String token, String location) {
+        return new DxfParsingException("Invalid group code '" + token + "' at " + location);
+    }
+    
     public static DxfParsingException fileReadError(Throwable cause) {
         return new DxfParsingException("Error reading DXF file", cause);
     }
@@ -3,99 +3,87 @@ package com.constructiontakeoff.util.dxf;
 import com.constructiontakeoff.model.ElementReference;
 import com.constructiontakeoff.util.geometry.UnitScaleManager;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class DxfProcessingHelper {
     private static final Logger logger = Logger.getLogger(DxfProcessingHelper.class.getName());
 
+    private static final Set<String> TEXT_TYPES = Set.of("TEXT", "MTEXT");
+
     private final UnitScaleManager unitScaleManager;
 
     public DxfProcessingHelper(UnitScaleManager unitScaleManager) {
         this.unitScaleManager = unitScaleManager;
     }
 
-    public List<Map<String, String>> collectTextAndHeaderInfo(File dxfFile, String sheetName) {
-        logger.info("Collecting text entities and header information from: " + dxfFile.getPath());
-
-        List<Map<String, String>> textEntities = new ArrayList<>();
-
-        try {
-            DxfParser parser = new DxfParser();
-            parser.parse(dxfFile, (entityType, coordinates, layer, blockName, properties) -> {
-                if ("TEXT".equals(entityType) || "MTEXT".equals(entityType)) {
-
-                    Map<String, String> textInfo = new HashMap<>();
-                    textInfo.put("type", entityType);
-                    textInfo.put("layer", layer);
-                    textInfo.put("x", String.valueOf(coordinates[0]));
-                    textInfo.put("y", String.valueOf(coordinates[1]));
-
-                    if (properties.containsKey("text")) {
-                        textInfo.put("content", properties.get("text"));
+    public DxfParseSession.Result<List<Map<String, String>>> registerTextCollector(DxfParseSession session,
+            String sheetName) {
+        logger.info("Registering text collector for sheet: " + sheetName);
 
-                        String textContent = properties.get("text");
+        return session.register("text", TEXT_TYPES, ArrayList::new, this::createTextHandler,
+                (collected, partial) -> {
+                    collected.addAll(partial);
+                    return collected;
+                });
+    }
 
-                    }
+    private DxfParser.EntityHandler createTextHandler(List<Map<String, String>> textEntities) {
+        return entity -> {
+            String entityType = entity.getType();
+            if ("TEXT".equals(entityType) || "MTEXT".equals(entityType)) {
 
-                    textInfo.putAll(properties);
+                Map<String, String> textInfo = new HashMap<>();
+                textInfo.put("type", entityType);
+                textInfo.put("layer", entity.getLayer());
+                textInfo.put("x", String.valueOf(entity.getX(0)));
+                textInfo.put("y", String.valueOf(entity.getY(0)));
 
-                    textEntities.add(textInfo);
+                if (entity.getText() != null) {
+                    textInfo.put("content", entity.getText());
+                    textInfo.put("text", entity.getText());
                 }
 
-                if (entityType.equals("HEADER") && properties != null) {
-                    if (properties.containsKey("$INSUNITS")) {
-                        try {
-                            int unitCode = Integer.parseInt(properties.get("$INSUNITS"));
-                            switch (unitCode) {
-                                case 1:
-                                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.INCHES);
-                                    break;
-                                case 2:
-                                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.FEET);
-                                    break;
-                                case 4:
-                                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.MILLIMETERS);
-                                    break;
-                                case 5:
-                                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.CENTIMETERS);
-                                    break;
-                                case 6:
-                                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.METERS);
-                                    break;
-                                default:
-                                    logger.warning("Unknown unit code: " + unitCode);
-                            }
-                        } catch (NumberFormatException e) {
-                            logger.warning("Could not parse $INSUNITS value: " + properties.get("$INSUNITS"));
-                        }
-                    }
-
-                    if (properties.containsKey("$DIMSCALE")) {
-                        try {
-                            double dimScale = Double.parseDouble(properties.get("$DIMSCALE"));
-                            unitScaleManager.setScaleFactor(dimScale);
-                            logger.info("Set drawing scale factor to " + dimScale + " from $DIMSCALE");
-                        } catch (NumberFormatException e) {
-                            logger.warning("Could not parse $DIMSCALE value: " + properties.get("$DIMSCALE"));
-                        }
-                    }
+                if (!entity.getOwnerBlockName().isEmpty()) {
+                    textInfo.put("blockName", entity.getOwnerBlockName());
                 }
-            });
 
-            logger.info("Collected " + textEntities.size() + " text entities from sheet: " + sheetName);
+                textEntities.add(textInfo);
+            }
+        };
+    }
 
-        } catch (DxfParsingException e) {
-            logger.log(Level.SEVERE, "Error parsing DXF file during text collection: " + e.getMessage(), e);
-            throw new RuntimeException("Failed to collect text information from DXF file: " + e.getMessage(), e);
+    public void applyHeader(DxfHeader header) {
+        if (header.hasInsUnits()) {
+            int unitCode = header.getInsUnits();
+            switch (unitCode) {
+                case 1:
+                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.INCHES);
+                    break;
+                case 2:
+                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.FEET);
+                    break;
+                case 4:
+                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.MILLIMETERS);
+                    break;
+                case 5:
+                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.CENTIMETERS);
+                    break;
+                case 6:
+                    unitScaleManager.setUnitType(UnitScaleManager.UnitType.METERS);
+                    break;
+                default:
+                    logger.warning("Unknown unit code: " + unitCode);
+            }
         }
+    }
 
-        return textEntities;
+    public UnitScaleManager getUnitScaleManager() {
+        return unitScaleManager;
     }
 
     public void detectUnitsAndScale(List<Map<String, String>> textEntities) {
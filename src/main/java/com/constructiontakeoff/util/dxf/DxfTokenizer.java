@@ -0,0 +1,34 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface DxfTokenizer extends Closeable {
+
+    boolean next() throws IOException, DxfParsingException;
+
+    int groupCode();
+
+    boolean valueEquals(String expected);
+
+    String stringValue();
+
+    default int valueHash() {
+        return stringValue().hashCode();
+    }
+
+    double doubleValue();
+
+    int intValue();
+
+    long bytesRead();
+
+    default boolean skipToNextEntity() throws IOException, DxfParsingException {
+        while (next()) {
+            if (groupCode() == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
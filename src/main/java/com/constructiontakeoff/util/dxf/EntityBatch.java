@@ -0,0 +1,95 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+
+public class EntityBatch {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final int[] typeIds;
+    private final int[] layerIds;
+    private final int[] flags;
+    private final int[] vertexOffsets;
+    private final CoordinateBuffer xs;
+    private final CoordinateBuffer ys;
+    private final CoordinateBuffer bulges;
+    private int size;
+
+    public EntityBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EntityBatch(int capacity) {
+        this.capacity = capacity;
+        this.typeIds = new int[capacity];
+        this.layerIds = new int[capacity];
+        this.flags = new int[capacity];
+        this.vertexOffsets = new int[capacity + 1];
+        this.xs = new CoordinateBuffer(capacity * 4);
+        this.ys = new CoordinateBuffer(capacity * 4);
+        this.bulges = new CoordinateBuffer(capacity * 4);
+    }
+
+    public void add(EntityType entityType, DxfEntity entity) {
+        int count = entity.getVertexCount();
+        typeIds[size] = entityType.ordinal();
+        layerIds[size] = entity.getLayerId();
+        flags[size] = entity.getFlags();
+        xs.addAll(entity.xs(), count);
+        ys.addAll(entity.ys(), count);
+        bulges.addAll(entity.bulges(), count);
+        size++;
+        vertexOffsets[size] = xs.size();
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        xs.clear();
+        ys.clear();
+        bulges.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTypeId(int index) {
+        return typeIds[index];
+    }
+
+    public int getLayerId(int index) {
+        return layerIds[index];
+    }
+
+    public int getFlags(int index) {
+        return flags[index];
+    }
+
+    public int getVertexStart(int index) {
+        return vertexOffsets[index];
+    }
+
+    public int getVertexCount(int index) {
+        return vertexOffsets[index + 1] - vertexOffsets[index];
+    }
+
+    public double[] xs() {
+        return xs.array();
+    }
+
+    public double[] ys() {
+        return ys.array();
+    }
+
+    public double[] bulges() {
+        return bulges.array();
+    }
+}
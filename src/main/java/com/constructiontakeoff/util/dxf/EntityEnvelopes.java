@@ -0,0 +1,231 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.PackedRTree;
+
+import java.util.Arrays;
+
+public class EntityEnvelopes {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private double[] minXs = new double[INITIAL_CAPACITY];
+    private double[] minYs = new double[INITIAL_CAPACITY];
+    private double[] maxXs = new double[INITIAL_CAPACITY];
+    private double[] maxYs = new double[INITIAL_CAPACITY];
+    private int[] layerIds = new int[INITIAL_CAPACITY];
+    private int[] typeIds = new int[INITIAL_CAPACITY];
+    private int size;
+    private SymbolTable symbols;
+
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+
+    public void add(DxfEntity entity) {
+        EntityType entityType = entity.getEntityType();
+        if (entityType == null || entity.getOwnerBlockId() != SymbolTable.EMPTY || entity.getVertexCount() == 0) {
+            return;
+        }
+        if (symbols == null) {
+            symbols = entity.getSymbols();
+        }
+
+        double[] xs = entity.xs();
+        double[] ys = entity.ys();
+        int count = entity.getVertexCount();
+        switch (entityType) {
+            case CIRCLE:
+            case ARC:
+                reset(xs[0], ys[0]);
+                expand(entity.getRadius());
+                break;
+            case ELLIPSE:
+                reset(xs[0], ys[0]);
+                if (count > 1) {
+                    expand(Math.hypot(xs[1], ys[1]));
+                }
+                break;
+            case LINE:
+            case LWPOLYLINE:
+            case POLYLINE:
+                reset(xs[0], ys[0]);
+                double[] bulges = entity.bulges();
+                for (int i = 0; i < count; i++) {
+                    int next = i + 1 < count ? i + 1 : 0;
+                    include(xs[i], ys[i]);
+                    if (bulges[i] != 0 && (next != 0 || entity.isClosed())) {
+                        includeBulge(xs[i], ys[i], xs[next], ys[next], bulges[i]);
+                    }
+                }
+                break;
+            case HATCH:
+                if (!includeHatch(entity.getHatchBoundary())) {
+                    return;
+                }
+                break;
+            default:
+                reset(xs[0], ys[0]);
+                for (int i = 1; i < count; i++) {
+                    include(xs[i], ys[i]);
+                }
+                break;
+        }
+
+        if (Double.isFinite(minX) && Double.isFinite(minY) && Double.isFinite(maxX) && Double.isFinite(maxY)) {
+            append(entity.getLayerId(), entityType.ordinal());
+        }
+    }
+
+    public EntityEnvelopes merge(EntityEnvelopes other) {
+        if (other == null || other == this || other.size == 0) {
+            return this;
+        }
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.minXs, 0, minXs, size, other.size);
+        System.arraycopy(other.minYs, 0, minYs, size, other.size);
+        System.arraycopy(other.maxXs, 0, maxXs, size, other.size);
+        System.arraycopy(other.maxYs, 0, maxYs, size, other.size);
+        System.arraycopy(other.layerIds, 0, layerIds, size, other.size);
+        System.arraycopy(other.typeIds, 0, typeIds, size, other.size);
+        size += other.size;
+        if (symbols == null) {
+            symbols = other.symbols;
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public SpatialIndex toIndex() {
+        return new SpatialIndex(this, PackedRTree.build(minXs, minYs, maxXs, maxYs, size));
+    }
+
+    double getMinX(int entry) {
+        return minXs[entry];
+    }
+
+    double getMinY(int entry) {
+        return minYs[entry];
+    }
+
+    double getMaxX(int entry) {
+        return maxXs[entry];
+    }
+
+    double getMaxY(int entry) {
+        return maxYs[entry];
+    }
+
+    int getLayerId(int entry) {
+        return layerIds[entry];
+    }
+
+    int getTypeId(int entry) {
+        return typeIds[entry];
+    }
+
+    SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    private boolean includeHatch(HatchBoundary boundary) {
+        minX = Double.POSITIVE_INFINITY;
+        minY = Double.POSITIVE_INFINITY;
+        maxX = Double.NEGATIVE_INFINITY;
+        maxY = Double.NEGATIVE_INFINITY;
+        for (int edge = 0; edge < boundary.getEdgeCount(); edge++) {
+            switch (boundary.getEdgeType(edge)) {
+                case HatchBoundary.EDGE_ARC:
+                    includeDisc(boundary.getEdgeParam(edge, 0), boundary.getEdgeParam(edge, 1),
+                            boundary.getEdgeParam(edge, 2));
+                    break;
+                case HatchBoundary.EDGE_ELLIPSE:
+                    includeDisc(boundary.getEdgeParam(edge, 0), boundary.getEdgeParam(edge, 1),
+                            Math.hypot(boundary.getEdgeParam(edge, 2), boundary.getEdgeParam(edge, 3)));
+                    break;
+                case HatchBoundary.EDGE_SPLINE:
+                    int from = (int) boundary.getEdgeParam(edge, 5);
+                    int to = (int) boundary.getEdgeParam(edge, 6);
+                    for (int i = from; i < to; i++) {
+                        include(boundary.controlXs()[i], boundary.controlYs()[i]);
+                    }
+                    break;
+                default:
+                    double x1 = boundary.getEdgeParam(edge, 0);
+                    double y1 = boundary.getEdgeParam(edge, 1);
+                    double x2 = boundary.getEdgeParam(edge, 2);
+                    double y2 = boundary.getEdgeParam(edge, 3);
+                    include(x1, y1);
+                    include(x2, y2);
+                    double bulge = boundary.getEdgeParam(edge, 4);
+                    if (bulge != 0) {
+                        includeBulge(x1, y1, x2, y2, bulge);
+                    }
+                    break;
+            }
+        }
+        return boundary.getEdgeCount() > 0;
+    }
+
+    private void includeBulge(double x1, double y1, double x2, double y2, double bulge) {
+        double sagitta = Math.abs(bulge) * Math.hypot(x2 - x1, y2 - y1) * 0.5;
+        if (Math.abs(bulge) <= 1) {
+            includeDisc(x1, y1, sagitta);
+            includeDisc(x2, y2, sagitta);
+        } else {
+            includeDisc((x1 + x2) * 0.5, (y1 + y2) * 0.5, sagitta);
+        }
+    }
+
+    private void includeDisc(double x, double y, double radius) {
+        include(x - radius, y - radius);
+        include(x + radius, y + radius);
+    }
+
+    private void reset(double x, double y) {
+        minX = x;
+        minY = y;
+        maxX = x;
+        maxY = y;
+    }
+
+    private void include(double x, double y) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+    }
+
+    private void expand(double distance) {
+        minX -= distance;
+        minY -= distance;
+        maxX += distance;
+        maxY += distance;
+    }
+
+    private void append(int layerId, int typeId) {
+        ensureCapacity(size + 1);
+        minXs[size] = minX;
+        minYs[size] = minY;
+        maxXs[size] = maxX;
+        maxYs[size] = maxY;
+        layerIds[size] = layerId;
+        typeIds[size] = typeId;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > minXs.length) {
+            int grown = Math.max(capacity, minXs.length * 2);
+            minXs = Arrays.copyOf(minXs, grown);
+            minYs = Arrays.copyOf(minYs, grown);
+            maxXs = Arrays.copyOf(maxXs, grown);
+            maxYs = Arrays.copyOf(maxYs, grown);
+            layerIds = Arrays.copyOf(layerIds, grown);
+            typeIds = Arrays.copyOf(typeIds, grown);
+        }
+    }
+}
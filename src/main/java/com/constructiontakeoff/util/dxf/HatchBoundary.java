@@ -0,0 +1,199 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.util.Arrays;
+
+public class HatchBoundary {
+    public static final int EDGE_LINE = 1;
+    public static final int EDGE_ARC = 2;
+    public static final int EDGE_ELLIPSE = 3;
+    public static final int EDGE_SPLINE = 4;
+
+    public static final int LOOP_EXTERNAL = 1;
+    public static final int LOOP_POLYLINE = 2;
+    public static final int LOOP_OUTERMOST = 16;
+
+    public static final int STYLE_NORMAL = 0;
+    public static final int STYLE_OUTER = 1;
+    public static final int STYLE_IGNORE = 2;
+
+    static final int LINE_PARAMS = 5;
+    static final int ARC_PARAMS = 6;
+    static final int ELLIPSE_PARAMS = 8;
+    static final int SPLINE_PARAMS = 9;
+
+    private int[] loopFlags = new int[8];
+    private int[] loopEdgeStart = new int[9];
+    private int loopCount;
+
+    private int[] edgeTypes = new int[32];
+    private int[] edgeOffsets = new int[32];
+    private int edgeCount;
+
+    private final CoordinateBuffer params = new CoordinateBuffer(256);
+    private final CoordinateBuffer knots = new CoordinateBuffer();
+    private final CoordinateBuffer controlX = new CoordinateBuffer();
+    private final CoordinateBuffer controlY = new CoordinateBuffer();
+    private final CoordinateBuffer weights = new CoordinateBuffer();
+
+    private int style;
+
+    void clear() {
+        loopCount = 0;
+        edgeCount = 0;
+        loopEdgeStart[0] = 0;
+        style = STYLE_NORMAL;
+        params.clear();
+        knots.clear();
+        controlX.clear();
+        controlY.clear();
+        weights.clear();
+    }
+
+    void beginLoop(int flags) {
+        if (loopCount == loopFlags.length) {
+            loopFlags = Arrays.copyOf(loopFlags, loopCount * 2);
+            loopEdgeStart = Arrays.copyOf(loopEdgeStart, loopCount * 2 + 1);
+        }
+        loopFlags[loopCount] = flags;
+        loopEdgeStart[loopCount] = edgeCount;
+        loopCount++;
+        loopEdgeStart[loopCount] = edgeCount;
+    }
+
+    void beginEdge(int type) {
+        if (edgeCount == edgeTypes.length) {
+            edgeTypes = Arrays.copyOf(edgeTypes, edgeCount * 2);
+            edgeOffsets = Arrays.copyOf(edgeOffsets, edgeCount * 2);
+        }
+        int offset = params.size();
+        edgeTypes[edgeCount] = type;
+        edgeOffsets[edgeCount] = offset;
+        edgeCount++;
+        loopEdgeStart[loopCount] = edgeCount;
+
+        switch (type) {
+            case EDGE_ARC:
+                appendZeros(ARC_PARAMS);
+                params.set(offset + 5, 1.0);
+                break;
+            case EDGE_ELLIPSE:
+                appendZeros(ELLIPSE_PARAMS);
+                params.set(offset + 4, 1.0);
+                params.set(offset + 7, 1.0);
+                break;
+            case EDGE_SPLINE:
+                appendZeros(SPLINE_PARAMS);
+                params.set(offset + 3, knots.size());
+                params.set(offset + 4, knots.size());
+                params.set(offset + 5, controlX.size());
+                params.set(offset + 6, controlX.size());
+                params.set(offset + 7, weights.size());
+                params.set(offset + 8, weights.size());
+                break;
+            default:
+                appendZeros(LINE_PARAMS);
+                break;
+        }
+    }
+
+    void addLine(double x1, double y1, double x2, double y2, double bulge) {
+        beginEdge(EDGE_LINE);
+        int offset = params.size() - LINE_PARAMS;
+        params.set(offset, x1);
+        params.set(offset + 1, y1);
+        params.set(offset + 2, x2);
+        params.set(offset + 3, y2);
+        params.set(offset + 4, bulge);
+    }
+
+    void setEdgeParam(int slot, double value) {
+        if (edgeCount > 0) {
+            params.set(edgeOffsets[edgeCount - 1] + slot, value);
+        }
+    }
+
+    int currentEdgeType() {
+        return edgeCount > loopEdgeStart[loopCount - 1] ? edgeTypes[edgeCount - 1] : 0;
+    }
+
+    void addKnot(double knot) {
+        knots.add(knot);
+        setEdgeParam(4, knots.size());
+    }
+
+    void addControlPoint(double x) {
+        controlX.add(x);
+        controlY.add(0.0);
+        setEdgeParam(6, controlX.size());
+    }
+
+    void setControlY(double y) {
+        int last = controlY.size() - 1;
+        if (last >= 0) {
+            controlY.set(last, y);
+        }
+    }
+
+    void addWeight(double weight) {
+        weights.add(weight);
+        setEdgeParam(8, weights.size());
+    }
+
+    void setStyle(int style) {
+        this.style = style;
+    }
+
+    public int getStyle() {
+        return style;
+    }
+
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    public int getLoopFlags(int loop) {
+        return loopFlags[loop];
+    }
+
+    public int getLoopEdgeStart(int loop) {
+        return loopEdgeStart[loop];
+    }
+
+    public int getLoopEdgeEnd(int loop) {
+        return loopEdgeStart[loop + 1];
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getEdgeType(int edge) {
+        return edgeTypes[edge];
+    }
+
+    public double getEdgeParam(int edge, int slot) {
+        return params.get(edgeOffsets[edge] + slot);
+    }
+
+    public double[] knots() {
+        return knots.array();
+    }
+
+    public double[] controlXs() {
+        return controlX.array();
+    }
+
+    public double[] controlYs() {
+        return controlY.array();
+    }
+
+    public double[] weights() {
+        return weights.array();
+    }
+
+    private void appendZeros(int count) {
+        for (int i = 0; i < count; i++) {
+            params.add(0.0);
+        }
+    }
+}
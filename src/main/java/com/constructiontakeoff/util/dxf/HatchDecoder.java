@@ -0,0 +1,183 @@
+package com.constructiontakeoff.util.dxf;
+
+class HatchDecoder {
+    private static final int BEFORE_PATHS = 0;
+    private static final int IN_PATHS = 1;
+    private static final int AFTER_PATHS = 2;
+
+    private final CoordinateBuffer pathX = new CoordinateBuffer();
+    private final CoordinateBuffer pathY = new CoordinateBuffer();
+    private final CoordinateBuffer pathBulge = new CoordinateBuffer();
+
+    private HatchBoundary boundary;
+    private int state;
+    private boolean polylinePath;
+
+    void reset(HatchBoundary boundary) {
+        this.boundary = boundary;
+        state = BEFORE_PATHS;
+        polylinePath = false;
+        clearPath();
+    }
+
+    boolean accept(int code, DxfTokenizer tokenizer) {
+        if (state == BEFORE_PATHS) {
+            if (code == 91) {
+                state = IN_PATHS;
+                return true;
+            }
+            return false;
+        }
+        if (state == AFTER_PATHS) {
+            if (code == 75) {
+                boundary.setStyle(tokenizer.intValue());
+            }
+            return true;
+        }
+
+        switch (code) {
+            case 92:
+                finishLoop();
+                int flags = tokenizer.intValue();
+                polylinePath = (flags & HatchBoundary.LOOP_POLYLINE) != 0;
+                boundary.beginLoop(flags);
+                break;
+            case 75:
+                finishLoop();
+                boundary.setStyle(tokenizer.intValue());
+                state = AFTER_PATHS;
+                break;
+            case 76:
+            case 52:
+            case 77:
+            case 78:
+            case 98:
+                finishLoop();
+                state = AFTER_PATHS;
+                break;
+            default:
+                if (boundary.getLoopCount() > 0) {
+                    if (polylinePath) {
+                        acceptPathVertex(code, tokenizer);
+                    } else {
+                        acceptEdge(code, tokenizer);
+                    }
+                }
+                break;
+        }
+        return true;
+    }
+
+    void finish() {
+        if (state == IN_PATHS) {
+            finishLoop();
+            state = AFTER_PATHS;
+        }
+    }
+
+    private void acceptPathVertex(int code, DxfTokenizer tokenizer) {
+        int last = pathX.size() - 1;
+        switch (code) {
+            case 10:
+                pathX.add(tokenizer.doubleValue());
+                pathY.add(0.0);
+                pathBulge.add(0.0);
+                break;
+            case 20:
+                if (last >= 0) {
+                    pathY.set(last, tokenizer.doubleValue());
+                }
+                break;
+            case 42:
+                if (last >= 0) {
+                    pathBulge.set(last, tokenizer.doubleValue());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void acceptEdge(int code, DxfTokenizer tokenizer) {
+        if (code == 72) {
+            boundary.beginEdge(tokenizer.intValue());
+            return;
+        }
+
+        switch (boundary.currentEdgeType()) {
+            case HatchBoundary.EDGE_LINE:
+                acceptSlot(code, tokenizer, 10, 20, 11, 21);
+                break;
+            case HatchBoundary.EDGE_ARC:
+                acceptSlot(code, tokenizer, 10, 20, 40, 50, 51, 73);
+                break;
+            case HatchBoundary.EDGE_ELLIPSE:
+                acceptSlot(code, tokenizer, 10, 20, 11, 21, 40, 50, 51, 73);
+                break;
+            case HatchBoundary.EDGE_SPLINE:
+                acceptSpline(code, tokenizer);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void acceptSlot(int code, DxfTokenizer tokenizer, int... codes) {
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (codes[slot] == code) {
+                boundary.setEdgeParam(slot, tokenizer.doubleValue());
+                return;
+            }
+        }
+    }
+
+    private void acceptSpline(int code, DxfTokenizer tokenizer) {
+        switch (code) {
+            case 94:
+                boundary.setEdgeParam(0, tokenizer.intValue());
+                break;
+            case 73:
+                boundary.setEdgeParam(1, tokenizer.intValue());
+                break;
+            case 74:
+                boundary.setEdgeParam(2, tokenizer.intValue());
+                break;
+            case 40:
+                boundary.addKnot(tokenizer.doubleValue());
+                break;
+            case 10:
+                boundary.addControlPoint(tokenizer.doubleValue());
+                break;
+            case 20:
+                boundary.setControlY(tokenizer.doubleValue());
+                break;
+            case 42:
+                boundary.addWeight(tokenizer.doubleValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void finishLoop() {
+        if (!polylinePath) {
+            return;
+        }
+
+        int count = pathX.size();
+        if (count > 1) {
+            for (int i = 0; i < count; i++) {
+                int j = i + 1 < count ? i + 1 : 0;
+                boundary.addLine(pathX.get(i), pathY.get(i), pathX.get(j), pathY.get(j), pathBulge.get(i));
+            }
+        }
+        polylinePath = false;
+        clearPath();
+    }
+
+    private void clearPath() {
+        pathX.clear();
+        pathY.clear();
+        pathBulge.clear();
+    }
+}
@@ -1,81 +1,114 @@
 package com.constructiontakeoff.util.dxf;
 
 import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
 import com.constructiontakeoff.util.geometry.EntityProcessor;
 import com.constructiontakeoff.util.geometry.EntityType;
 import com.constructiontakeoff.util.material.MaterialProvider;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class InsertProcessor implements EntityProcessor {
     private static final Logger logger = Logger.getLogger(InsertProcessor.class.getName());
     private final MaterialProvider layerMaterialProvider;
     private final MaterialProvider blockMaterialProvider;
+    private final Map<String, Double> materialScaleFactors;
 
     public InsertProcessor(MaterialProvider layerMaterialProvider, MaterialProvider blockMaterialProvider) {
+        this(layerMaterialProvider, blockMaterialProvider, new HashMap<>());
+    }
+
+    public InsertProcessor(MaterialProvider layerMaterialProvider, MaterialProvider blockMaterialProvider,
+            Map<String, Double> materialScaleFactors) {
         this.layerMaterialProvider = layerMaterialProvider;
         this.blockMaterialProvider = blockMaterialProvider;
+        this.materialScaleFactors = materialScaleFactors;
     }
 
     @Override
-    public void process(double[] coordinates, String layer, String blockName,
-            Map<String, String> properties, Map<String, LayerInfo> layerInfoMap)
-            throws DxfParsingException {
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
 
-        if (blockName == null || blockName.isEmpty()) {
-            logger.warning("INSERT entity without block name on layer: " + layer);
+        if (entity.getBlockId() == SymbolTable.EMPTY) {
+            logger.warning("INSERT entity without block name on layer: " + entity.getLayer());
             return;
         }
 
-        String materialName = blockMaterialProvider.getMaterial(blockName);
+        long copies = (long) Math.max(1, entity.getColumnCount()) * Math.max(1, entity.getRowCount());
+        LayerInfo blockInfo = blockInfo(entity, entity.getBlockId(), layerInfos);
+        layerInfos.increment(entity.getBlockId(), EntityType.INSERT, copies);
 
-        if (materialName == null || materialName.startsWith("Unknown")) {
-            materialName = layerMaterialProvider.getMaterial(layer);
+        BlockSummary summary = entity.getBlocks().summary(entity.getBlockId());
+        if (summary == null) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("INSERT references undefined block: " + blockInfo.getLayerName());
+            }
+            return;
         }
 
-        final String finalMaterialName = materialName;
-
-        String blockKey = blockName;
+        double scaleX = entity.getScaleX();
+        double scaleY = entity.getScaleY();
+        double areaScale = Math.abs(scaleX * scaleY) * copies;
 
-        LayerInfo blockInfo = layerInfoMap.computeIfAbsent(blockKey, k -> new LayerInfo(blockName, blockName));
+        for (int i = 0; i < summary.getLayerCount(); i++) {
+            int layerId = summary.getLayerId(i) == BlockSummary.INHERITED_LAYER
+                    ? entity.getLayerId() : summary.getLayerId(i);
+            LayerInfo layerInfo = layerInfo(entity, layerId, layerInfos);
+            double scaleFactor = materialScaleFactors.getOrDefault(layerInfo.getMaterial(), 1.0);
 
-        if (finalMaterialName != null && !finalMaterialName.equals(blockInfo.getMaterial())) {
-            blockInfo.setMaterial(finalMaterialName);
+            double length = summary.getLength(i, scaleX, scaleY) * copies * scaleFactor;
+            if (length > 0) {
+                layerInfos.addLength(layerId, length);
+            }
+            double area = summary.getArea(i) * areaScale * scaleFactor;
+            if (area > 0) {
+                layerInfos.addArea(layerId, area);
+            }
+            for (EntityType entityType : EntityType.values()) {
+                long count = summary.getCount(i, entityType);
+                if (count > 0) {
+                    layerInfos.increment(layerId, entityType, count * copies);
+                }
+            }
         }
 
-        blockInfo.incrementEntityCount(EntityType.INSERT);
-
-        if (coordinates.length >= 2) {
+        for (int i = 0; i < summary.getNestedBlockCount(); i++) {
+            int nestedBlockId = summary.getNestedBlockId(i);
+            blockInfo(entity, nestedBlockId, layerInfos);
+            layerInfos.increment(nestedBlockId, EntityType.INSERT, summary.getNestedInsertCount(i) * copies);
+        }
 
-            double scaleX = 1.0;
-            double scaleY = 1.0;
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed INSERT of block: " + blockInfo.getLayerName() + " on layer: " + entity.getLayer()
+                    + " as material: " + blockInfo.getMaterial() + ", copies: " + copies + ", count: "
+                    + blockInfo.getEntityCount());
+        }
+    }
 
-            if (properties.containsKey("41")) {
-                try {
-                    scaleX = Double.parseDouble(properties.get("41"));
-                } catch (NumberFormatException e) {
-                }
-            }
+    private LayerInfo blockInfo(DxfEntity entity, int blockId, LayerInfoTable layerInfos) {
+        LayerInfo blockInfo = layerInfos.get(blockId);
+        if (blockInfo == null) {
+            String blockName = entity.getSymbols().name(blockId);
+            String materialName = blockMaterialProvider.getMaterial(blockName);
 
-            if (properties.containsKey("42")) {
-                try {
-                    scaleY = Double.parseDouble(properties.get("42"));
-                } catch (NumberFormatException e) {
-                }
+            if (materialName == null || materialName.startsWith("Unknown")) {
+                materialName = layerMaterialProvider.getMaterial(entity.getLayer());
             }
 
-            double area = Math.abs(scaleX * scaleY);
-            if (area > 0) {
-                blockInfo.addArea(area);
-            } else {
-
-                blockInfo.addArea(1.0);
-            }
+            blockInfo = layerInfos.register(blockId, blockName, materialName);
         }
+        return blockInfo;
+    }
 
-        logger.info("Processed INSERT of block: " + blockName + " on layer: " + layer +
-                " as material: " + blockInfo.getMaterial() + ", count: " + blockInfo.getEntityCount());
+    private LayerInfo layerInfo(DxfEntity entity, int layerId, LayerInfoTable layerInfos) {
+        LayerInfo layerInfo = layerInfos.get(layerId);
+        if (layerInfo == null) {
+            String layer = entity.getSymbols().name(layerId);
+            layerInfo = layerInfos.register(layerId, layer, layerMaterialProvider.getMaterial(layer));
+        }
+        return layerInfo;
     }
 
     @Override
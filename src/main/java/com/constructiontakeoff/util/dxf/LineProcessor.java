@@ -1,12 +1,14 @@
 package com.constructiontakeoff.util.dxf;
 
 import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
 import com.constructiontakeoff.util.geometry.EntityProcessor;
 import com.constructiontakeoff.util.geometry.EntityType;
 import com.constructiontakeoff.util.geometry.GeometryCalculator;
 import com.constructiontakeoff.util.material.MaterialProvider;
 
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class LineProcessor implements EntityProcessor {
@@ -20,33 +22,33 @@ public class LineProcessor implements EntityProcessor {
     }
 
     @Override
-    public void process(double[] coordinates, String layer, String blockName,
-            Map<String, String> properties, Map<String, LayerInfo> layerInfoMap)
-            throws DxfParsingException {
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
 
-        if (coordinates.length < 4) {
+        if (entity.getVertexCount() < 2) {
             throw DxfParsingException.invalidCoordinates("LINE");
         }
 
-        String material = materialProvider.getMaterial(layer);
-
-        LayerInfo layerInfo = layerInfoMap.computeIfAbsent(layer, k -> new LayerInfo(layer, material));
-
-        if (material != null && !material.equals(layerInfo.getMaterial())) {
-            layerInfo.setMaterial(material);
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
         }
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
 
-        double length = GeometryCalculator.calculateLength(coordinates);
+        double length = GeometryCalculator.calculateLength(entity.xs(), entity.ys(), 2, false);
 
         double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
         double scaledLength = length * scaleFactor;
 
-        layerInfo.addLength(scaledLength);
+        layerInfos.addLength(entity.getLayerId(), scaledLength);
 
-        layerInfo.incrementEntityCount(EntityType.LINE);
+        layerInfos.increment(entity.getLayerId(), EntityType.LINE);
 
-        logger.fine(
-                "Processed LINE with length: " + scaledLength + " on layer: " + layer + " for material: " + material);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed LINE with length: " + scaledLength + " on layer: " + layer
+                    + " for material: " + material);
+        }
     }
 
     @Override
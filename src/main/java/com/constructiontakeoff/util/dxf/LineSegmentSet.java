@@ -0,0 +1,126 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.CollinearSegmentMerger;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.PlanarRoomDetector;
+import com.constructiontakeoff.util.geometry.RoomFaces;
+import com.constructiontakeoff.util.geometry.WallCenterlineExtractor;
+import com.constructiontakeoff.util.geometry.WallCenterlines;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+public class LineSegmentSet {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] layerIds = new int[INITIAL_CAPACITY];
+    private double[] x1s = new double[INITIAL_CAPACITY];
+    private double[] y1s = new double[INITIAL_CAPACITY];
+    private double[] x2s = new double[INITIAL_CAPACITY];
+    private double[] y2s = new double[INITIAL_CAPACITY];
+    private int size;
+    private int layerCount;
+    private double summedLength;
+
+    public DxfParser.EntityHandler collector(Predicate<String> layerFilter) {
+        LayerSelector selector = new LayerSelector(layerFilter);
+        return entity -> {
+            if (accepts(entity) && selector.selects(entity)) {
+                double[] xs = entity.xs();
+                double[] ys = entity.ys();
+                add(entity.getLayerId(), xs[0], ys[0], xs[1], ys[1]);
+            }
+        };
+    }
+
+    static boolean accepts(DxfEntity entity) {
+        return entity.getEntityType() == EntityType.LINE && entity.getOwnerBlockId() == SymbolTable.EMPTY
+                && entity.getVertexCount() >= 2;
+    }
+
+    public void add(int layerId, double x1, double y1, double x2, double y2) {
+        ensureCapacity(size + 1);
+        layerIds[size] = layerId;
+        x1s[size] = x1;
+        y1s[size] = y1;
+        x2s[size] = x2;
+        y2s[size] = y2;
+        size++;
+        layerCount = Math.max(layerCount, layerId + 1);
+        summedLength += Math.hypot(x2 - x1, y2 - y1);
+    }
+
+    public LineSegmentSet merge(LineSegmentSet other) {
+        if (other == null || other == this || other.size == 0) {
+            return this;
+        }
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.layerIds, 0, layerIds, size, other.size);
+        System.arraycopy(other.x1s, 0, x1s, size, other.size);
+        System.arraycopy(other.y1s, 0, y1s, size, other.size);
+        System.arraycopy(other.x2s, 0, x2s, size, other.size);
+        System.arraycopy(other.y2s, 0, y2s, size, other.size);
+        size += other.size;
+        layerCount = Math.max(layerCount, other.layerCount);
+        summedLength += other.summedLength;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getSummedLength() {
+        return summedLength;
+    }
+
+    public double[] unionLengths(CollinearSegmentMerger merger, ForkJoinPool pool) {
+        return merger.unionLengths(layerIds, x1s, y1s, x2s, y2s, size, layerCount, pool);
+    }
+
+    public WallCenterlines extractWalls(WallCenterlineExtractor extractor, ForkJoinPool pool) {
+        return extractor.extract(layerIds, x1s, y1s, x2s, y2s, size, layerCount, pool);
+    }
+
+    public RoomFaces detectRooms(PlanarRoomDetector detector) {
+        return detector.detect(layerIds, x1s, y1s, x2s, y2s, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > layerIds.length) {
+            int grown = Math.max(capacity, layerIds.length * 2);
+            layerIds = Arrays.copyOf(layerIds, grown);
+            x1s = Arrays.copyOf(x1s, grown);
+            y1s = Arrays.copyOf(y1s, grown);
+            x2s = Arrays.copyOf(x2s, grown);
+            y2s = Arrays.copyOf(y2s, grown);
+        }
+    }
+
+    static final class LayerSelector {
+        private static final byte UNKNOWN = 0;
+        private static final byte SELECTED = 1;
+        private static final byte SKIPPED = 2;
+
+        private final Predicate<String> layerFilter;
+        private byte[] decisions = new byte[64];
+
+        LayerSelector(Predicate<String> layerFilter) {
+            this.layerFilter = layerFilter;
+        }
+
+        boolean selects(DxfEntity entity) {
+            int layerId = entity.getLayerId();
+            if (layerId >= decisions.length) {
+                decisions = Arrays.copyOf(decisions, Math.max(layerId + 1, decisions.length * 2));
+            }
+            byte decision = decisions[layerId];
+            if (decision == UNKNOWN) {
+                decision = layerFilter.test(entity.getLayer()) ? SELECTED : SKIPPED;
+                decisions[layerId] = decision;
+            }
+            return decision == SELECTED;
+        }
+    }
+}
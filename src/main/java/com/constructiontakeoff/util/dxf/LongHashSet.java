@@ -0,0 +1,92 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.util.Arrays;
+
+public class LongHashSet {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.min(Math.max(expectedSize, 8), 1 << 29) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+
+        int slot = slot(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = slot(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] previous = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (long key : previous) {
+            if (key != EMPTY) {
+                int slot = slot(key, mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
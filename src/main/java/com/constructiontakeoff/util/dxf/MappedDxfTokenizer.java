@@ -0,0 +1,367 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+public class MappedDxfTokenizer implements DxfTokenizer {
+    public static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int limit;
+    private final Charset charset = Charset.defaultCharset();
+    private final byte terminator;
+    private final long terminators;
+
+    private int position;
+    private int groupCode;
+    private int valueStart;
+    private int valueEnd;
+
+    public MappedDxfTokenizer(File dxfFile) throws IOException {
+        this(map(dxfFile));
+    }
+
+    public MappedDxfTokenizer(ByteBuffer buffer) {
+        this(buffer, 0, buffer.limit());
+    }
+
+    public MappedDxfTokenizer(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.start = start;
+        this.limit = end;
+        this.position = start;
+        this.terminator = lineTerminator(this.buffer, start, end);
+        this.terminators = ONES * terminator;
+    }
+
+    public static byte lineTerminator(ByteBuffer buffer, int from, int limit) {
+        for (int p = from; p < limit; p++) {
+            byte b = buffer.get(p);
+            if (b == '\n') {
+                return '\n';
+            }
+            if (b == '\r') {
+                return p + 1 < limit && buffer.get(p + 1) != '\n' ? (byte) '\r' : (byte) '\n';
+            }
+        }
+        return '\n';
+    }
+
+    public static ByteBuffer map(File dxfFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(dxfFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_MAPPED_SIZE) {
+                throw new IOException("DXF file too large to memory-map: " + size + " bytes");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    @Override
+    public boolean next() throws DxfParsingException {
+        if (position >= limit) {
+            return false;
+        }
+
+        int p = position;
+        byte b = 0;
+        while (p < limit && ((b = buffer.get(p)) == ' ' || b == '\t')) {
+            p++;
+        }
+
+        boolean negative = false;
+        if (p < limit && b == '-') {
+            negative = true;
+            p++;
+        }
+
+        int code = 0;
+        int digits = 0;
+        while (p < limit && (b = buffer.get(p)) >= '0' && b <= '9') {
+            code = code * 10 + (b - '0');
+            digits++;
+            p++;
+        }
+        while (p < limit && ((b = buffer.get(p)) == ' ' || b == '\t' || b == '\r' && b != terminator)) {
+            p++;
+        }
+
+        if (digits == 0 || (p < limit && b != terminator)) {
+            if (isBlank(position, limit)) {
+                position = limit;
+                return false;
+            }
+            int lineEnd = findLineEnd(position);
+            throw DxfParsingException.invalidGroupCode(
+                    decode(position, lineEnd).trim(), "byte offset " + position);
+        }
+
+        groupCode = negative ? -code : code;
+
+        int lineStart = Math.min(p + 1, limit);
+        int lineEnd = lineStart < limit ? findLineEnd(lineStart) : limit;
+        position = lineEnd + 1;
+
+        int vs = lineStart;
+        int ve = Math.min(lineEnd, limit);
+        while (ve > vs && buffer.get(ve - 1) <= ' ') {
+            ve--;
+        }
+        while (vs < ve && buffer.get(vs) <= ' ') {
+            vs++;
+        }
+        valueStart = vs;
+        valueEnd = ve;
+        return true;
+    }
+
+    @Override
+    public boolean skipToNextEntity() throws DxfParsingException {
+        while (position < limit) {
+            int codeEnd = findLineEnd(position);
+            if (isZeroCode(position, codeEnd)) {
+                return next();
+            }
+            int valueLineEnd = codeEnd < limit ? findLineEnd(codeEnd + 1) : limit;
+            position = valueLineEnd + 1;
+        }
+        return false;
+    }
+
+    @Override
+    public int groupCode() {
+        return groupCode;
+    }
+
+    @Override
+    public boolean valueEquals(String expected) {
+        int length = valueEnd - valueStart;
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = expected.charAt(i);
+            if (c > 0x7F) {
+                return stringValue().equals(expected);
+            }
+            if (buffer.get(valueStart + i) != (byte) c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String stringValue() {
+        return decode(valueStart, valueEnd);
+    }
+
+    @Override
+    public int valueHash() {
+        int hash = 0;
+        for (int i = valueStart; i < valueEnd; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) {
+                return stringValue().hashCode();
+            }
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    @Override
+    public double doubleValue() {
+        int p = valueStart;
+        int end = valueEnd;
+        if (p >= end) {
+            throw new NumberFormatException("empty String");
+        }
+
+        boolean negative = false;
+        byte b = buffer.get(p);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            p++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        boolean exact = true;
+
+        while (p < end && (b = buffer.get(p)) >= '0' && b <= '9') {
+            anyDigits = true;
+            if (significantDigits < 18) {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    significantDigits++;
+                }
+            } else {
+                exponent++;
+                exact = false;
+            }
+            p++;
+        }
+
+        if (p < end && b == '.') {
+            p++;
+            while (p < end && (b = buffer.get(p)) >= '0' && b <= '9') {
+                anyDigits = true;
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    exponent--;
+                    if (mantissa != 0) {
+                        significantDigits++;
+                    }
+                } else if (b != '0') {
+                    exact = false;
+                }
+                p++;
+            }
+        }
+
+        if (anyDigits && p < end && (b == 'e' || b == 'E')) {
+            p++;
+            boolean negativeExponent = false;
+            if (p < end && ((b = buffer.get(p)) == '-' || b == '+')) {
+                negativeExponent = b == '-';
+                p++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            while (p < end && (b = buffer.get(p)) >= '0' && b <= '9') {
+                if (explicitExponent < 10000) {
+                    explicitExponent = explicitExponent * 10 + (b - '0');
+                }
+                exponentDigits++;
+                p++;
+            }
+            if (exponentDigits == 0) {
+                return slowDoubleValue();
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (!anyDigits || p != end) {
+            return slowDoubleValue();
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            double value = exponent < 0
+                    ? mantissa / POWERS_OF_TEN[-exponent]
+                    : mantissa * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+
+        return slowDoubleValue();
+    }
+
+    @Override
+    public int intValue() {
+        int p = valueStart;
+        int end = valueEnd;
+        if (p >= end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+
+        boolean negative = false;
+        byte b = buffer.get(p);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            p++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        while (p < end && (b = buffer.get(p)) >= '0' && b <= '9' && digits < 10) {
+            value = value * 10 + (b - '0');
+            digits++;
+            p++;
+        }
+
+        if (digits == 0 || p != end || value > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+            return Integer.parseInt(stringValue());
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    @Override
+    public long bytesRead() {
+        return Math.min(position, limit) - start;
+    }
+
+    public int position() {
+        return Math.min(position, limit);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private double slowDoubleValue() {
+        return Double.parseDouble(stringValue());
+    }
+
+    private int findLineEnd(int from) {
+        int p = from;
+        while (p + Long.BYTES <= limit) {
+            long word = buffer.getLong(p) ^ terminators;
+            long found = (word - ONES) & ~word & HIGHS;
+            if (found != 0) {
+                return p + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+            p += Long.BYTES;
+        }
+        while (p < limit && buffer.get(p) != terminator) {
+            p++;
+        }
+        return p;
+    }
+
+    private boolean isZeroCode(int from, int to) {
+        boolean zero = false;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '0' && !zero) {
+                zero = true;
+            } else if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return zero;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, charset);
+    }
+}
@@ -0,0 +1,334 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfoTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+public class ParallelDxfParser {
+    private static final Logger logger = Logger.getLogger(ParallelDxfParser.class.getName());
+
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int DETERMINISTIC_CHUNK_BYTES = 1 << 20;
+    private static final byte[][] SEQUENCE_RECORDS = { "VERTEX".getBytes(), "SEQEND".getBytes() };
+
+    private final ForkJoinPool pool;
+    private final DxfParser mappedParser;
+    private final DxfParser streamParser;
+    private final boolean deterministic;
+
+    public ParallelDxfParser() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelDxfParser(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    public ParallelDxfParser(ForkJoinPool pool, Set<String> entityTypes) {
+        this(pool, entityTypes, false);
+    }
+
+    public ParallelDxfParser(ForkJoinPool pool, Set<String> entityTypes, boolean deterministic) {
+        this.pool = pool;
+        this.deterministic = deterministic;
+        this.mappedParser = new DxfParser(DxfParser.TokenizerMode.MAPPED, entityTypes);
+        this.streamParser = new DxfParser(DxfParser.TokenizerMode.STREAM, entityTypes);
+    }
+
+    public LayerInfoTable parse(File dxfFile,
+            Function<LayerInfoTable, DxfParser.EntityHandler> handlerFactory) throws DxfParsingException {
+        LayerInfoTable merged = new LayerInfoTable();
+        for (LayerInfoTable partial : parseRanges(dxfFile, LayerInfoTable::new, handlerFactory)) {
+            merged.merge(partial);
+        }
+        return merged;
+    }
+
+    public <R> List<R> parseRanges(File dxfFile, Supplier<R> stateFactory,
+            Function<R, DxfParser.EntityHandler> handlerFactory) throws DxfParsingException {
+        if (dxfFile == null || !dxfFile.exists()) {
+            throw new DxfParsingException("DXF file does not exist");
+        }
+
+        if (dxfFile.length() > MappedDxfTokenizer.MAX_MAPPED_SIZE) {
+            logger.warning("DXF file exceeds the memory-mapping limit, parsing sequentially: " + dxfFile.getPath());
+            R state = stateFactory.get();
+            streamParser.parse(dxfFile, handlerFactory.apply(state));
+            return Collections.singletonList(state);
+        }
+
+        ByteBuffer buffer;
+        boolean binary;
+        List<int[]> ranges;
+        SymbolTable symbols = new SymbolTable();
+        BlockLibrary blocks = new BlockLibrary(symbols);
+        try {
+            buffer = MappedDxfTokenizer.map(dxfFile);
+            binary = BinaryDxfTokenizer.isBinary(buffer);
+            ranges = splitRanges(buffer, binary, symbols);
+        } catch (IOException e) {
+            logger.severe("Failed to map DXF file: " + e.getMessage());
+            throw DxfParsingException.fileReadError(e);
+        }
+        logger.info("Parsing DXF file " + dxfFile.getPath() + " in " + ranges.size() + " range(s) with parallelism "
+                + parallelism() + (deterministic ? " (deterministic)" : ""));
+
+        AtomicInteger processedEntities = new AtomicInteger(0);
+        AtomicInteger errorCount = new AtomicInteger(0);
+        mappedParser.recordPass();
+
+        List<R> states = new ArrayList<>(ranges.size());
+        int[] prefix = ranges.get(0);
+        R prefixState = stateFactory.get();
+        try {
+            mappedParser.parseTokens(openTokenizer(buffer, prefix[0], prefix[1], binary),
+                    handlerFactory.apply(prefixState), processedEntities, errorCount, symbols, blocks);
+        } catch (IOException e) {
+            throw DxfParsingException.fileReadError(e);
+        }
+        blocks.resolveAll();
+        states.add(prefixState);
+
+        List<Callable<R>> tasks = new ArrayList<>(ranges.size() - 1);
+        for (int[] range : ranges.subList(1, ranges.size())) {
+            tasks.add(() -> {
+                R state = stateFactory.get();
+                mappedParser.parseTokens(openTokenizer(buffer, range[0], range[1], binary),
+                        handlerFactory.apply(state), processedEntities, errorCount, symbols, blocks);
+                return state;
+            });
+        }
+
+        try {
+            if (pool == null) {
+                for (Callable<R> task : tasks) {
+                    states.add(task.call());
+                }
+            } else {
+                for (Future<R> future : pool.invokeAll(tasks)) {
+                    states.add(future.get());
+                }
+            }
+        } catch (DxfParsingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw DxfParsingException.fileReadError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DxfParsingException("DXF parsing was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DxfParsingException) {
+                throw (DxfParsingException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw DxfParsingException.fileReadError(cause);
+            }
+            throw new DxfParsingException("Parallel DXF parsing failed: " + cause.getMessage(), cause);
+        } catch (Exception e) {
+            throw new DxfParsingException("Parallel DXF parsing failed: " + e.getMessage(), e);
+        }
+
+        if (errorCount.get() > 0) {
+            logger.warning(String.format(
+                    "Parallel DXF parsing completed. Processed %d entities with %d errors. Check logs for details.",
+                    processedEntities.get(), errorCount.get()));
+        } else {
+            logger.info(String.format("Parallel DXF parsing completed successfully. Processed %d entities.",
+                    processedEntities.get()));
+        }
+        return states;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    public int getPassCount() {
+        return mappedParser.getPassCount() + streamParser.getPassCount();
+    }
+
+    public long getBytesTokenized() {
+        return mappedParser.getBytesTokenized() + streamParser.getBytesTokenized();
+    }
+
+    List<int[]> splitRanges(ByteBuffer buffer, boolean binary, SymbolTable symbols)
+            throws IOException, DxfParsingException {
+        int size = buffer.limit();
+        int dataStart = binary ? BinaryDxfTokenizer.SENTINEL.length : 0;
+        List<int[]> ranges = new ArrayList<>();
+
+        int bodyStart = findEntitiesBody(buffer, dataStart, binary, symbols);
+        if (bodyStart < 0) {
+            ranges.add(new int[] { dataStart, size });
+            return ranges;
+        }
+
+        ranges.add(new int[] { dataStart, bodyStart });
+
+        long bodyLength = size - bodyStart;
+        int chunkCount = deterministic
+                ? (int) Math.max(1, bodyLength / DETERMINISTIC_CHUNK_BYTES)
+                : (int) Math.max(1, Math.min((long) parallelism() * CHUNKS_PER_THREAD,
+                        bodyLength / MIN_CHUNK_BYTES));
+        long chunkLength = bodyLength / chunkCount;
+
+        BinaryDxfTokenizer binaryScanner = binary ? new BinaryDxfTokenizer(buffer, bodyStart, size) : null;
+        byte terminator = binary ? (byte) '\n' : MappedDxfTokenizer.lineTerminator(buffer, dataStart, size);
+        int rangeStart = bodyStart;
+        for (int i = 1; i < chunkCount; i++) {
+            int target = (int) (bodyStart + chunkLength * i);
+            if (target <= rangeStart) {
+                continue;
+            }
+            int boundary = binary
+                    ? findBinaryEntityBoundary(binaryScanner, bodyStart, target, size)
+                    : findEntityBoundary(buffer, target, size, terminator);
+            if (boundary >= size) {
+                break;
+            }
+            if (boundary > rangeStart) {
+                ranges.add(new int[] { rangeStart, boundary });
+                rangeStart = boundary;
+            }
+        }
+        ranges.add(new int[] { rangeStart, size });
+        return ranges;
+    }
+
+    private int parallelism() {
+        return pool != null ? pool.getParallelism() : 1;
+    }
+
+    private static DxfTokenizer openTokenizer(ByteBuffer buffer, int start, int end, boolean binary) {
+        return binary ? new BinaryDxfTokenizer(buffer, start, end) : new MappedDxfTokenizer(buffer, start, end);
+    }
+
+    private int findEntitiesBody(ByteBuffer buffer, int dataStart, boolean binary, SymbolTable symbols)
+            throws IOException, DxfParsingException {
+        DxfTokenizer tokenizer = openTokenizer(buffer, dataStart, buffer.limit(), binary);
+        boolean sectionStart = false;
+        boolean symbolRecord = false;
+        while (tokenizer.next()) {
+            int code = tokenizer.groupCode();
+            if (code == 0) {
+                sectionStart = tokenizer.valueEquals("SECTION");
+                symbolRecord = tokenizer.valueEquals("LAYER") || tokenizer.valueEquals("BLOCK_RECORD")
+                        || tokenizer.valueEquals("BLOCK");
+            } else if (code == 2 && sectionStart) {
+                if (tokenizer.valueEquals("ENTITIES")) {
+                    mappedParser.recordBytesTokenized(tokenizer.bytesRead());
+                    return dataStart + (int) tokenizer.bytesRead();
+                }
+                sectionStart = false;
+            } else if (code == 2 && symbolRecord) {
+                symbols.id(tokenizer);
+                symbolRecord = false;
+            } else {
+                sectionStart = false;
+            }
+        }
+        mappedParser.recordBytesTokenized(tokenizer.bytesRead());
+        return -1;
+    }
+
+    private static int findBinaryEntityBoundary(BinaryDxfTokenizer scanner, int bodyStart, int target, int limit)
+            throws DxfParsingException {
+        int recordStart = bodyStart + (int) scanner.bytesRead();
+        while (scanner.next()) {
+            if (scanner.groupCode() == 0 && recordStart >= target && !scanner.valueEquals("VERTEX")
+                    && !scanner.valueEquals("SEQEND")) {
+                return recordStart;
+            }
+            recordStart = bodyStart + (int) scanner.bytesRead();
+        }
+        return limit;
+    }
+
+    static int findEntityBoundary(ByteBuffer buffer, int from, int limit, byte terminator) {
+        int lineStart = nextLineStart(buffer, from, limit, terminator);
+        while (lineStart < limit) {
+            int nextLine = nextLineStart(buffer, lineStart, limit, terminator);
+            if (isZeroCodeLine(buffer, lineStart, nextLine) && startsWithLetter(buffer, nextLine, limit)
+                    && !isSequenceRecord(buffer, nextLine, limit)) {
+                return lineStart;
+            }
+            lineStart = nextLine;
+        }
+        return limit;
+    }
+
+    private static int nextLineStart(ByteBuffer buffer, int from, int limit, byte terminator) {
+        int p = from;
+        while (p < limit && buffer.get(p) != terminator) {
+            p++;
+        }
+        return Math.min(p + 1, limit);
+    }
+
+    private static boolean isZeroCodeLine(ByteBuffer buffer, int from, int to) {
+        boolean zero = false;
+        for (int p = from; p < to; p++) {
+            byte b = buffer.get(p);
+            if (b == '0' && !zero) {
+                zero = true;
+            } else if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return false;
+            }
+        }
+        return zero;
+    }
+
+    private static boolean startsWithLetter(ByteBuffer buffer, int from, int limit) {
+        int p = from;
+        while (p < limit && buffer.get(p) == ' ') {
+            p++;
+        }
+        if (p >= limit) {
+            return false;
+        }
+        byte b = buffer.get(p);
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+
+    private static boolean isSequenceRecord(ByteBuffer buffer, int from, int limit) {
+        int p = from;
+        while (p < limit && buffer.get(p) == ' ') {
+            p++;
+        }
+        for (byte[] record : SEQUENCE_RECORDS) {
+            if (matches(buffer, p, limit, record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int from, int limit, byte[] expected) {
+        if (from + expected.length > limit) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        int end = from + expected.length;
+        return end == limit || buffer.get(end) == '\r' || buffer.get(end) == '\n' || buffer.get(end) == ' ';
+    }
+}
@@ -1,16 +1,20 @@
 package com.constructiontakeoff.util.dxf;
 
 import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
 import com.constructiontakeoff.util.geometry.EntityProcessor;
 import com.constructiontakeoff.util.geometry.EntityType;
 import com.constructiontakeoff.util.geometry.GeometryCalculator;
 import com.constructiontakeoff.util.material.MaterialProvider;
 
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class PolylineProcessor implements EntityProcessor {
     private static final Logger logger = Logger.getLogger(PolylineProcessor.class.getName());
+    static final double MIN_CLOSED_AREA = 0.01;
+
     private final MaterialProvider materialProvider;
     private final Map<String, Double> materialScaleFactors;
     private final EntityType entityType;
@@ -23,65 +27,62 @@ public class PolylineProcessor implements EntityProcessor {
     }
 
     @Override
-    public void process(double[] coordinates, String layer, String blockName,
-            Map<String, String> properties, Map<String, LayerInfo> layerInfoMap)
-            throws DxfParsingException {
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
 
-        if (coordinates.length < 4) {
+        int vertexCount = entity.getVertexCount();
+        if (vertexCount < 2) {
             throw DxfParsingException.invalidCoordinates(entityType.name());
         }
 
-        String material = materialProvider.getMaterial(layer);
-
-        LayerInfo layerInfo = layerInfoMap.computeIfAbsent(layer, k -> new LayerInfo(layer, material));
-        if (material != null && !material.equals(layerInfo.getMaterial())) {
-            layerInfo.setMaterial(material);
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
         }
-        boolean isClosed = isClosedPolyline(properties, coordinates);
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
+
+        boolean isClosed = isClosedPolyline(entity);
 
-        if (isClosed && coordinates.length >= 6) {
-            double area = GeometryCalculator.calculatePolygonArea(coordinates);
+        if (isClosed) {
+            double area = GeometryCalculator.calculatePolygonArea(entity.xs(), entity.ys(), entity.bulges(),
+                    vertexCount);
 
-            if (area > 0.01) {
+            if (area > MIN_CLOSED_AREA) {
                 double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
                 double scaledArea = area * scaleFactor;
 
-                layerInfo.addArea(scaledArea);
+                layerInfos.addArea(entity.getLayerId(), scaledArea);
 
-                layerInfo.incrementEntityCount(entityType);
+                layerInfos.increment(entity.getLayerId(), entityType);
 
-                logger.fine("Processed closed " + entityType.name() +
-                        " with area: " + scaledArea + " on layer: " + layer + " for material: " + material);
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Processed closed " + entityType.name() +
+                            " with area: " + scaledArea + " on layer: " + layer + " for material: " + material);
+                }
                 return;
             }
         }
 
-        double length = GeometryCalculator.calculateLength(coordinates);
+        double length = GeometryCalculator.calculateLength(entity.xs(), entity.ys(), entity.bulges(), vertexCount,
+                isClosed);
 
         double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
         double scaledLength = length * scaleFactor;
 
-        layerInfo.addLength(scaledLength);
+        layerInfos.addLength(entity.getLayerId(), scaledLength);
 
-        layerInfo.incrementEntityCount(entityType);
+        layerInfos.increment(entity.getLayerId(), entityType);
 
-        logger.fine("Processed open " + entityType.name() +
-                " with length: " + scaledLength + " on layer: " + layer + " for material: " + material);
-    }
-
-    private boolean isClosedPolyline(Map<String, String> properties, double[] coordinates) {
-        if (properties.containsKey("70")) {
-            try {
-                int flag = Integer.parseInt(properties.get("70"));
-                if ((flag & 1) == 1) {
-                    return true;
-                }
-            } catch (NumberFormatException e) {
-                logger.warning("Failed to parse polyline flag: " + properties.get("70"));
-            }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed open " + entityType.name() +
+                    " with length: " + scaledLength + " on layer: " + layer + " for material: " + material);
         }
+    }
 
-        return GeometryCalculator.isClosedByEndpoints(coordinates);
+    static boolean isClosedPolyline(DxfEntity entity) {
+        return entity.isClosed()
+                || GeometryCalculator.isClosedByEndpoints(entity.xs(), entity.ys(), entity.getVertexCount());
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.PackedRTree;
+
+import java.util.function.IntConsumer;
+
+public class SpatialIndex {
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final EntityEnvelopes envelopes;
+    private final PackedRTree tree;
+
+    SpatialIndex(EntityEnvelopes envelopes, PackedRTree tree) {
+        this.envelopes = envelopes;
+        this.tree = tree;
+    }
+
+    public int size() {
+        return tree.size();
+    }
+
+    public int[] search(double minX, double minY, double maxX, double maxY) {
+        return tree.search(minX, minY, maxX, maxY);
+    }
+
+    public void search(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        tree.search(minX, minY, maxX, maxY, visitor);
+    }
+
+    public int[] searchPoint(double x, double y, double tolerance) {
+        return tree.searchPoint(x, y, tolerance);
+    }
+
+    public double getMinX(int entry) {
+        return envelopes.getMinX(entry);
+    }
+
+    public double getMinY(int entry) {
+        return envelopes.getMinY(entry);
+    }
+
+    public double getMaxX(int entry) {
+        return envelopes.getMaxX(entry);
+    }
+
+    public double getMaxY(int entry) {
+        return envelopes.getMaxY(entry);
+    }
+
+    public int getLayerId(int entry) {
+        return envelopes.getLayerId(entry);
+    }
+
+    public String getLayerName(int entry) {
+        SymbolTable symbols = envelopes.getSymbols();
+        return symbols != null ? symbols.name(envelopes.getLayerId(entry)) : "";
+    }
+
+    public EntityType getEntityType(int entry) {
+        return TYPES[envelopes.getTypeId(entry)];
+    }
+}
@@ -0,0 +1,74 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+public class StreamDxfTokenizer implements DxfTokenizer {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final BufferedReader reader;
+    private int groupCode;
+    private String value;
+    private long bytesRead;
+    private long lineNumber;
+
+    public StreamDxfTokenizer(File dxfFile) throws IOException {
+        this.reader = new BufferedReader(new FileReader(dxfFile), BUFFER_SIZE);
+    }
+
+    @Override
+    public boolean next() throws IOException, DxfParsingException {
+        String codeLine = reader.readLine();
+        if (codeLine == null) {
+            return false;
+        }
+        String valueLine = reader.readLine();
+        lineNumber += 2;
+        bytesRead += codeLine.length() + (valueLine != null ? valueLine.length() + 2 : 1);
+
+        try {
+            groupCode = Integer.parseInt(codeLine.trim());
+        } catch (NumberFormatException e) {
+            throw DxfParsingException.invalidGroupCode(codeLine.trim(), "line " + (lineNumber - 1));
+        }
+        value = valueLine != null ? valueLine.trim() : "";
+        return true;
+    }
+
+    @Override
+    public int groupCode() {
+        return groupCode;
+    }
+
+    @Override
+    public boolean valueEquals(String expected) {
+        return value.equals(expected);
+    }
+
+    @Override
+    public String stringValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return Double.parseDouble(value);
+    }
+
+    @Override
+    public int intValue() {
+        return Integer.parseInt(value);
+    }
+
+    @Override
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,129 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.util.Arrays;
+
+public class SymbolTable {
+    public static final int EMPTY = 0;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final class Snapshot {
+        private final int[] slots;
+        private final int[] hashes;
+        private final String[] names;
+        private final int size;
+
+        private Snapshot(int[] slots, int[] hashes, String[] names, int size) {
+            this.slots = slots;
+            this.hashes = hashes;
+            this.names = names;
+            this.size = size;
+        }
+    }
+
+    private volatile Snapshot snapshot;
+
+    public SymbolTable() {
+        int[] slots = new int[INITIAL_CAPACITY];
+        Arrays.fill(slots, -1);
+        this.snapshot = new Snapshot(slots, new int[INITIAL_CAPACITY], new String[INITIAL_CAPACITY], 0);
+        id("");
+    }
+
+    public int id(DxfTokenizer tokenizer) {
+        int hash = tokenizer.valueHash();
+        Snapshot current = snapshot;
+        int mask = current.slots.length - 1;
+        int slot = mix(hash) & mask;
+        int id;
+        while ((id = current.slots[slot]) >= 0 && id < current.size) {
+            if (current.hashes[id] == hash && tokenizer.valueEquals(current.names[id])) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return insert(hash, tokenizer.stringValue());
+    }
+
+    public int id(String name) {
+        int hash = name.hashCode();
+        Snapshot current = snapshot;
+        int id = find(current, hash, name);
+        return id >= 0 ? id : insert(hash, name);
+    }
+
+    public String intern(DxfTokenizer tokenizer) {
+        return name(id(tokenizer));
+    }
+
+    public String intern(String name) {
+        return name(id(name));
+    }
+
+    public String name(int id) {
+        return snapshot.names[id];
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    // Snapshots share their arrays until the load threshold is crossed; a new name is appended into spare capacity
+    // and published with a larger size. Readers stop probing at any id beyond their own snapshot's size: a slot
+    // filled after the snapshot was taken always sits behind the name being looked up, so the lookup falls through
+    // to this method and resolves under the lock.
+    private synchronized int insert(int hash, String name) {
+        Snapshot current = snapshot;
+        int existing = find(current, hash, name);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        int id = current.size;
+        int[] slots = current.slots;
+        int[] hashes = current.hashes;
+        String[] names = current.names;
+        if ((id + 1) * 2 > slots.length) {
+            int capacity = slots.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            for (int i = 0; i < id; i++) {
+                place(slots, hashes[i], i);
+            }
+        }
+        names[id] = name;
+        hashes[id] = hash;
+        place(slots, hash, id);
+
+        snapshot = new Snapshot(slots, hashes, names, id + 1);
+        return id;
+    }
+
+    private static int find(Snapshot current, int hash, String name) {
+        int mask = current.slots.length - 1;
+        int slot = mix(hash) & mask;
+        int id;
+        while ((id = current.slots[slot]) >= 0 && id < current.size) {
+            if (current.hashes[id] == hash && current.names[id].equals(name)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static void place(int[] slots, int hash, int id) {
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,6 +1,7 @@
 package com.constructiontakeoff.util.engine;
 
 import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
 import com.constructiontakeoff.model.QuantityItem;
 import com.constructiontakeoff.model.User;
 import com.constructiontakeoff.model.TakeoffRecord;
@@ -8,11 +9,23 @@ import com.constructiontakeoff.util.DatabaseService;
 import com.constructiontakeoff.util.ThreadLocalUserContext;
 
 import com.constructiontakeoff.util.dxf.*;
+import com.constructiontakeoff.util.geometry.ArcProcessor;
 import com.constructiontakeoff.util.geometry.CircleProcessor;
+import com.constructiontakeoff.util.geometry.CollinearSegmentMerger;
+import com.constructiontakeoff.util.geometry.EllipseProcessor;
 import com.constructiontakeoff.util.geometry.EntityProcessor;
+import com.constructiontakeoff.util.geometry.EntityProcessorProvider;
 import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.HatchProcessor;
+import com.constructiontakeoff.util.geometry.PlanarRoomDetector;
+import com.constructiontakeoff.util.geometry.RoomFaces;
+import com.constructiontakeoff.util.geometry.SplineProcessor;
+import com.constructiontakeoff.util.geometry.UnitScaleManager;
+import com.constructiontakeoff.util.geometry.WallCenterlineExtractor;
+import com.constructiontakeoff.util.geometry.WallCenterlines;
 import com.constructiontakeoff.util.material.BlockMaterialProvider;
 import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import com.constructiontakeoff.util.material.LayerNormalizer;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -20,9 +33,18 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,6 +55,10 @@ public class TakeoffEngineRefactored {
     public static final String ENTITY_LINE = "LINE";
     public static final String ENTITY_POLYLINE = "POLYLINE";
     public static final String ENTITY_CIRCLE = "CIRCLE";
+    public static final String ENTITY_ARC = "ARC";
+    public static final String ENTITY_ELLIPSE = "ELLIPSE";
+    public static final String ENTITY_SPLINE = "SPLINE";
+    public static final String ENTITY_HATCH = "HATCH";
     public static final String ENTITY_INSERT = "INSERT";
     public static final String ENTITY_BLOCK = "BLOCK";
 
@@ -40,36 +66,95 @@ public class TakeoffEngineRefactored {
     public static final String UNIT_SQUARE_METERS = "m²";
     public static final String UNIT_PIECES = "pcs";
 
+    private static final int BYTES_PER_ENTITY_ESTIMATE = 256;
+    private static final String WALL_CATEGORY = "WALL";
+    private static final double WALL_THICKNESS_RESOLUTION = 0.005;
+    private static final double COLLINEAR_OFFSET_RESOLUTION = 1e-5;
+    private static final Set<String> ROOM_BOUNDARY_CATEGORIES = Set.of(WALL_CATEGORY, "DOOR", "WINDOW");
+    private static final double ROOM_SNAP_TOLERANCE = 0.005;
+    private static final double MIN_ROOM_AREA = 1.0;
+    private static final double MIN_ROOM_WIDTH = 0.6;
+
     private final LayerMaterialProvider layerMaterialProvider;
     private final BlockMaterialProvider blockMaterialProvider;
 
-    private final Map<String, EntityProcessor> entityProcessors;
+    private final EntityProcessor[] processors = new EntityProcessor[EntityType.values().length];
 
     private final Map<String, Double> materialScaleFactors;
     private final DatabaseService databaseService;
+    private final boolean parallelParsing;
+    private final ForkJoinPool parsePool;
+    private final boolean batchProcessing;
+    private final boolean deterministicReduction;
+    private final boolean duplicateElimination;
+    private final boolean spatialIndexing;
+    private final Set<String> collinearMergeMaterials;
+    private final boolean wallCenterlines;
+    private final double minWallThickness;
+    private final double maxWallThickness;
+    private final boolean roomDetection;
 
     private TakeoffEngineRefactored(Builder builder) {
         this.layerMaterialProvider = builder.layerMaterialProvider;
         this.blockMaterialProvider = builder.blockMaterialProvider;
         this.materialScaleFactors = builder.materialScaleFactors;
+        this.parallelParsing = builder.parallelParsing;
+        this.parsePool = builder.parsePool;
+        this.batchProcessing = builder.batchProcessing;
+        this.deterministicReduction = builder.deterministicReduction;
+        this.duplicateElimination = builder.duplicateElimination;
+        this.spatialIndexing = builder.spatialIndexing;
+        this.collinearMergeMaterials = new HashSet<>(builder.collinearMergeMaterials);
+        this.wallCenterlines = builder.wallCenterlines;
+        this.minWallThickness = builder.minWallThickness;
+        this.maxWallThickness = builder.maxWallThickness;
+        this.roomDetection = builder.roomDetection;
         this.databaseService = DatabaseService.getInstance();
 
-        this.entityProcessors = new HashMap<>();
-
-        entityProcessors.put(ENTITY_LINE,
-                new LineProcessor(layerMaterialProvider, materialScaleFactors));
-
-        entityProcessors.put(ENTITY_LWPOLYLINE,
-                new PolylineProcessor(EntityType.LWPOLYLINE, layerMaterialProvider, materialScaleFactors));
+        register(new LineProcessor(layerMaterialProvider, materialScaleFactors));
+        register(new PolylineProcessor(EntityType.LWPOLYLINE, layerMaterialProvider, materialScaleFactors));
+        register(new PolylineProcessor(EntityType.POLYLINE, layerMaterialProvider, materialScaleFactors));
+        register(new CircleProcessor(layerMaterialProvider, materialScaleFactors));
+        register(new ArcProcessor(layerMaterialProvider, materialScaleFactors));
+        register(new EllipseProcessor(layerMaterialProvider, materialScaleFactors));
+        register(new SplineProcessor(layerMaterialProvider, materialScaleFactors, deterministicReduction));
+        register(new HatchProcessor(layerMaterialProvider, materialScaleFactors, parsePool));
+        register(new InsertProcessor(layerMaterialProvider, blockMaterialProvider, materialScaleFactors));
+
+        loadProcessorProviders();
+    }
 
-        entityProcessors.put(ENTITY_POLYLINE,
-                new PolylineProcessor(EntityType.POLYLINE, layerMaterialProvider, materialScaleFactors));
+    private void register(EntityProcessor processor) {
+        processors[processor.getEntityType().ordinal()] = processor;
+    }
 
-        entityProcessors.put(ENTITY_CIRCLE,
-                new CircleProcessor(layerMaterialProvider, materialScaleFactors));
+    private void loadProcessorProviders() {
+        try {
+            for (EntityProcessorProvider provider : ServiceLoader.load(EntityProcessorProvider.class)) {
+                EntityProcessor processor = provider.createProcessor(layerMaterialProvider, blockMaterialProvider,
+                        materialScaleFactors);
+                if (processor == null || processor.getEntityType() == null) {
+                    logger.warning("Ignoring entity processor provider without an entity type: "
+                            + provider.getClass().getName());
+                    continue;
+                }
+                logger.info("Registered " + processor.getEntityType() + " processor from provider: "
+                        + provider.getClass().getName());
+                register(processor);
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.log(Level.WARNING, "Could not load entity processor providers", e);
+        }
+    }
 
-        entityProcessors.put(ENTITY_INSERT,
-                new InsertProcessor(layerMaterialProvider, blockMaterialProvider));
+    private Set<String> processedEntityTypes() {
+        Set<String> entityTypes = new LinkedHashSet<>();
+        for (EntityType entityType : EntityType.values()) {
+            if (processors[entityType.ordinal()] != null) {
+                entityTypes.add(entityType.name());
+            }
+        }
+        return entityTypes;
     }
 
     public CompletableFuture<Map<String, Object>> processDxf(File dxfFile, User user, String pdfAbsolutePath) {
@@ -89,19 +174,11 @@ public class TakeoffEngineRefactored {
         logger.info("Starting DXF processing for file: " + dxfFile.getPath());
 
         return CompletableFuture.<Map<String, Object>>supplyAsync(() -> {
-            Map<String, LayerInfo> layerInfoMap = new HashMap<>();
+            LayerInfoTable layerInfos;
+            Map<String, Object> result = new HashMap<>();
 
             try {
-                DxfParser parser = new DxfParser();
-                parser.parse(dxfFile, (entityType, coordinates, layer, blockName, properties) -> {
-                    EntityProcessor processor = entityProcessors.get(entityType);
-
-                    if (processor != null) {
-                        processor.process(coordinates, layer, blockName, properties, layerInfoMap);
-                    } else {
-                        logger.warning("No processor found for entity type: " + entityType);
-                    }
-                });
+                layerInfos = parseLayerInfo(dxfFile, result);
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "Error parsing DXF file: " + dxfFile.getPath(), e);
 
@@ -112,11 +189,17 @@ public class TakeoffEngineRefactored {
             }
 
             ObservableList<QuantityItem> items = FXCollections.observableArrayList();
-            logger.info("Converting LayerInfo map (size: " + layerInfoMap.size() + ") to QuantityItems.");
+            Map<String, Long> duplicatesRemoved = new LinkedHashMap<>();
+            logger.info("Converting LayerInfo table (size: " + layerInfos.size() + ") to QuantityItems.");
 
-            for (LayerInfo info : layerInfoMap.values()) {
+            for (LayerInfo info : layerInfos.layers()) {
                 String layerName = info.getLayerName();
 
+                if (info.getDuplicateCount() > 0) {
+                    duplicatesRemoved.put(layerName, info.getDuplicateCount());
+                    logger.info("Removed " + info.getDuplicateCount() + " duplicate entities on layer " + layerName);
+                }
+
                 if (info.getEntityCount() > 0 &&
                         (info.containsEntityType(EntityType.INSERT) || info.containsEntityType(EntityType.BLOCK))) {
                     items.add(new QuantityItem(
@@ -134,6 +217,9 @@ public class TakeoffEngineRefactored {
 
                 if (info.getTotalArea() > 0 &&
                         (info.containsEntityType(EntityType.CIRCLE) ||
+                                info.containsEntityType(EntityType.ELLIPSE) ||
+                                info.containsEntityType(EntityType.SPLINE) ||
+                                info.containsEntityType(EntityType.HATCH) ||
                                 info.containsEntityType(EntityType.LWPOLYLINE) ||
                                 info.containsEntityType(EntityType.POLYLINE))) {
                     items.add(new QuantityItem(
@@ -142,7 +228,8 @@ public class TakeoffEngineRefactored {
                             UNIT_SQUARE_METERS));
                 }
 
-                if (info.getTotalLength() == 0 && info.getTotalArea() == 0 && info.getEntityCount() == 0) {
+                if (info.getTotalLength() == 0 && info.getTotalArea() == 0 && info.getEntityCount() == 0
+                        && info.getDuplicateCount() == 0) {
                     logger.warning("Layer " + layerName + " has no quantities to report.");
                 }
             }
@@ -156,9 +243,9 @@ public class TakeoffEngineRefactored {
                 logger.info("Skipping saving to history as requested");
             }
 
-            Map<String, Object> result = new HashMap<>();
             result.put("items", items);
             result.put("recordId", recordId);
+            result.put("duplicatesRemoved", duplicatesRemoved);
             if (pdfAbsolutePath != null && !pdfAbsolutePath.isEmpty()) {
                 result.put("pdfAbsolutePath", pdfAbsolutePath);
             }
@@ -166,6 +253,225 @@ public class TakeoffEngineRefactored {
         });
     }
 
+    private LayerInfoTable parseLayerInfo(File dxfFile, Map<String, Object> result) throws DxfParsingException {
+        DxfParseSession session = new DxfParseSession(parallelParsing ? parsePool : null, deterministicReduction);
+        DxfProcessingHelper helper = new DxfProcessingHelper(new UnitScaleManager());
+        DxfHeader header = probeHeader(dxfFile);
+        helper.applyHeader(header);
+        result.put("drawingHeader", header.toProperties());
+
+        DxfParseSession.Result<LayerInfoTable> quantities = null;
+        DxfParseSession.Result<DuplicateFilter> filteredQuantities = null;
+        if (duplicateElimination) {
+            DuplicateGeometryIndex duplicates = DuplicateGeometryIndex.forUnits(helper.getUnitScaleManager(),
+                    (int) Math.min(Integer.MAX_VALUE, dxfFile.length() / BYTES_PER_ENTITY_ESTIMATE));
+            filteredQuantities = session.register("quantities", processedEntityTypes(),
+                    () -> createDuplicateFilter(duplicates), filter -> filter, DuplicateFilter::append);
+        } else {
+            quantities = session.register("quantities", processedEntityTypes(), LayerInfoTable::new,
+                    this::createQuantityHandler, LayerInfoTable::merge);
+        }
+        DxfParseSession.Result<List<Map<String, String>>> textEntities = helper.registerTextCollector(session,
+                dxfFile.getName());
+        DxfParseSession.Result<EntityEnvelopes> envelopes = spatialIndexing
+                ? session.register("spatialIndex", processedEntityTypes(), EntityEnvelopes::new,
+                        state -> state::add, EntityEnvelopes::merge)
+                : null;
+        DxfParseSession.Result<LineSegmentSet> collinearLines = collinearMergeMaterials.isEmpty() ? null
+                : session.register("collinearLines", Set.of(ENTITY_LINE), LineSegmentSet::new,
+                        lines -> lines.collector(this::isCollinearMergeLayer), LineSegmentSet::merge);
+        DxfParseSession.Result<LineSegmentSet> wallLines = wallCenterlines
+                ? session.register("wallLines", Set.of(ENTITY_LINE), LineSegmentSet::new,
+                        lines -> lines.collector(wallLayerFilter()), LineSegmentSet::merge)
+                : null;
+        DxfParseSession.Result<LineSegmentSet> roomLines = roomDetection
+                ? session.register("roomLines", Set.of(ENTITY_LINE), LineSegmentSet::new,
+                        lines -> lines.collector(roomBoundaryFilter()), LineSegmentSet::merge)
+                : null;
+
+        session.run(dxfFile);
+        LayerInfoTable layerInfos = filteredQuantities != null
+                ? filteredQuantities.get().resolve()
+                : quantities.get();
+        helper.detectUnitsAndScale(textEntities.get());
+        if (collinearLines != null) {
+            addCollinearLengths(layerInfos, collinearLines.get(), helper.getUnitScaleManager());
+        }
+        if (wallLines != null) {
+            addWallCenterlines(layerInfos, wallLines.get(), helper.getUnitScaleManager(), result);
+        }
+        if (roomLines != null) {
+            addRoomAreas(layerInfos, roomLines.get(), textEntities.get(), helper.getUnitScaleManager(),
+                    result);
+        }
+        if (envelopes != null) {
+            long start = System.nanoTime();
+            SpatialIndex spatialIndex = envelopes.get().toIndex();
+            logger.info(String.format("Built spatial index over %d entities in %.1f ms", spatialIndex.size(),
+                    (System.nanoTime() - start) / 1e6));
+            result.put("spatialIndex", spatialIndex);
+        }
+        return layerInfos;
+    }
+
+    private boolean isCollinearMergeLayer(String layer) {
+        return collinearMergeMaterials.contains(layerMaterialProvider.getMaterial(layer));
+    }
+
+    private static Predicate<String> wallLayerFilter() {
+        LayerNormalizer normalizer = new LayerNormalizer();
+        return layer -> WALL_CATEGORY.equals(normalizer.getLayerCategory(layer));
+    }
+
+    private static Predicate<String> roomBoundaryFilter() {
+        LayerNormalizer normalizer = new LayerNormalizer();
+        return layer -> ROOM_BOUNDARY_CATEGORIES.contains(normalizer.getLayerCategory(layer));
+    }
+
+    private void addRoomAreas(LayerInfoTable layerInfos, LineSegmentSet lines, List<Map<String, String>> texts,
+            UnitScaleManager units, Map<String, Object> result) {
+        long start = System.nanoTime();
+        double metersPerUnit = units.toMeters(1.0);
+        PlanarRoomDetector detector = new PlanarRoomDetector(units.fromMeters(ROOM_SNAP_TOLERANCE),
+                MIN_ROOM_AREA / (metersPerUnit * metersPerUnit), units.fromMeters(MIN_ROOM_WIDTH));
+        RoomFaces rooms = lines.detectRooms(detector);
+
+        for (Map<String, String> text : texts) {
+            String content = text.get("text");
+            if (text.containsKey("blockName") || content == null || content.isBlank()) {
+                continue;
+            }
+            try {
+                rooms.assignTag(Double.parseDouble(text.get("x")), Double.parseDouble(text.get("y")),
+                        content.trim());
+            } catch (NumberFormatException e) {
+                logger.fine("Skipping room tag with invalid position: " + content);
+            }
+        }
+
+        Map<String, Double> byLayer = new LinkedHashMap<>();
+        Map<String, Double> byTag = new TreeMap<>();
+        double totalArea = 0.0;
+        for (int room = 0; room < rooms.size(); room++) {
+            // Every total uses the same area: scaled by the boundary layer's material, or as drawn when the layer
+            // was never registered.
+            LayerInfo info = layerInfos.get(rooms.getLayerId(room));
+            double scaleFactor = info != null ? materialScaleFactors.getOrDefault(info.getMaterial(), 1.0) : 1.0;
+            double area = rooms.getArea(room) * scaleFactor;
+            totalArea += area;
+            if (info != null) {
+                byLayer.merge(info.getLayerName(), area, Double::sum);
+            }
+            if (rooms.getTag(room) != null) {
+                byTag.merge(rooms.getTag(room), area, Double::sum);
+            }
+        }
+
+        logger.info(String.format("Detected %d rooms from %d lines in %.1f ms, area %.3f", rooms.size(),
+                lines.size(), (System.nanoTime() - start) / 1e6, totalArea));
+        result.put("roomCount", rooms.size());
+        result.put("roomAreasByLayer", byLayer);
+        result.put("roomAreasByTag", byTag);
+    }
+
+    private void addWallCenterlines(LayerInfoTable layerInfos, LineSegmentSet lines, UnitScaleManager units,
+            Map<String, Object> result) {
+        long start = System.nanoTime();
+        WallCenterlineExtractor extractor = new WallCenterlineExtractor(units.fromMeters(minWallThickness),
+                units.fromMeters(maxWallThickness), units.fromMeters(WALL_THICKNESS_RESOLUTION));
+        WallCenterlines walls = lines.extractWalls(extractor, parallelParsing ? parsePool : null);
+
+        // Thickness keys are in metres; lengths stay in drawing units with the layer's material scale applied, the
+        // same as the centreline lengths, so both maps add up to the same total.
+        Map<String, Double> centerlines = new LinkedHashMap<>();
+        Map<Double, Double> thicknesses = new TreeMap<>();
+        for (LayerInfo info : layerInfos.layers()) {
+            double scaleFactor = materialScaleFactors.getOrDefault(info.getMaterial(), 1.0);
+            double length = walls.getCenterlineLength(info.getId());
+            if (length > 0) {
+                centerlines.put(info.getLayerName(), length * scaleFactor);
+            }
+            walls.getThicknessDistribution(info.getId()).forEach((thickness, thicknessLength) -> thicknesses
+                    .merge(units.toMeters(thickness), thicknessLength * scaleFactor, Double::sum));
+            if (walls.getUnpairedLength(info.getId()) > 0) {
+                logger.info("Wall layer " + info.getLayerName() + " has " + walls.getUnpairedLength(info.getId())
+                        + " of unpaired face length");
+            }
+        }
+
+        logger.info(String.format("Paired %d wall faces from %d lines in %.1f ms, centreline length %.3f",
+                walls.getPairCount(), lines.size(), (System.nanoTime() - start) / 1e6,
+                walls.getTotalCenterlineLength()));
+        result.put("wallCenterlines", centerlines);
+        result.put("wallThicknessDistribution", thicknesses);
+    }
+
+    private void addCollinearLengths(LayerInfoTable layerInfos, LineSegmentSet lines, UnitScaleManager units) {
+        long start = System.nanoTime();
+        CollinearSegmentMerger merger = new CollinearSegmentMerger(CollinearSegmentMerger.DEFAULT_ANGLE_RESOLUTION,
+                units.fromMeters(COLLINEAR_OFFSET_RESOLUTION));
+        double[] lengths = lines.unionLengths(merger, parallelParsing ? parsePool : null);
+        double unionLength = 0.0;
+        for (int id = 0; id < lengths.length; id++) {
+            LayerInfo info = layerInfos.get(id);
+            if (info == null || lengths[id] == 0) {
+                continue;
+            }
+            unionLength += lengths[id];
+            layerInfos.addLength(id, lengths[id] * materialScaleFactors.getOrDefault(info.getMaterial(), 1.0));
+        }
+        logger.info(String.format("Merged %d collinear LINE segments in %.1f ms, length %.3f -> %.3f",
+                lines.size(), (System.nanoTime() - start) / 1e6, lines.getSummedLength(), unionLength));
+    }
+
+    private DxfHeader probeHeader(File dxfFile) {
+        try {
+            DxfHeader header = DxfHeaderProbe.probe(dxfFile);
+            if (header.hasExtents()) {
+                logger.info("Drawing extents: " + header.getWidth() + " x " + header.getHeight());
+            }
+            return header;
+        } catch (DxfParsingException e) {
+            logger.warning("Could not read DXF header, units will be detected from text: " + e.getMessage());
+            return new DxfHeader();
+        }
+    }
+
+    private DuplicateFilter createDuplicateFilter(DuplicateGeometryIndex duplicates) {
+        LayerInfoTable layerInfos = new LayerInfoTable();
+        return new DuplicateFilter(layerInfos, layerMaterialProvider, materialScaleFactors, duplicates,
+                createQuantityHandler(layerInfos));
+    }
+
+    private DxfParser.EntityHandler createQuantityHandler(LayerInfoTable layerInfos) {
+        DxfParser.EntityHandler handler = createEntityHandler(layerInfos);
+        if (batchProcessing) {
+            handler = new BatchGeometryPipeline(layerInfos, layerMaterialProvider, materialScaleFactors, handler);
+        }
+        if (!collinearMergeMaterials.isEmpty()) {
+            handler = new CollinearLineFilter(layerInfos, layerMaterialProvider, this::isCollinearMergeLayer, handler);
+        }
+        return handler;
+    }
+
+    private DxfParser.EntityHandler createEntityHandler(LayerInfoTable layerInfos) {
+        return entity -> {
+            if (entity.getOwnerBlockId() != SymbolTable.EMPTY) {
+                return;
+            }
+
+            EntityType entityType = entity.getEntityType();
+            if (entityType == null) {
+                return;
+            }
+
+            EntityProcessor processor = processors[entityType.ordinal()];
+            if (processor != null) {
+                processor.process(entity, layerInfos);
+            }
+        };
+    }
+
     public int saveToHistory(File dxfFile, User user, String pdfAbsolutePath, ObservableList<QuantityItem> items) {
         try {
             logger.info("Starting database save process for takeoff history...");
@@ -325,6 +631,17 @@ public class TakeoffEngineRefactored {
         private LayerMaterialProvider layerMaterialProvider;
         private BlockMaterialProvider blockMaterialProvider;
         private Map<String, Double> materialScaleFactors;
+        private boolean parallelParsing = Runtime.getRuntime().availableProcessors() > 1;
+        private ForkJoinPool parsePool = ForkJoinPool.commonPool();
+        private boolean batchProcessing = true;
+        private boolean deterministicReduction = false;
+        private boolean duplicateElimination = false;
+        private boolean spatialIndexing = false;
+        private final Set<String> collinearMergeMaterials = new HashSet<>();
+        private boolean wallCenterlines = false;
+        private double minWallThickness = 0.05;
+        private double maxWallThickness = 0.6;
+        private boolean roomDetection = false;
 
         public Builder() {
 
@@ -368,6 +685,65 @@ public class TakeoffEngineRefactored {
             return this;
         }
 
+        public Builder withParallelParsing(boolean parallelParsing) {
+            this.parallelParsing = parallelParsing;
+            return this;
+        }
+
+        public Builder withParsePool(ForkJoinPool pool) {
+            if (pool != null) {
+                this.parsePool = pool;
+            }
+            return this;
+        }
+
+        public Builder withBatchProcessing(boolean batchProcessing) {
+            this.batchProcessing = batchProcessing;
+            return this;
+        }
+
+        public Builder withDeterministicReduction(boolean deterministicReduction) {
+            this.deterministicReduction = deterministicReduction;
+            return this;
+        }
+
+        public Builder withDuplicateElimination(boolean duplicateElimination) {
+            this.duplicateElimination = duplicateElimination;
+            return this;
+        }
+
+        public Builder withSpatialIndex(boolean spatialIndexing) {
+            this.spatialIndexing = spatialIndexing;
+            return this;
+        }
+
+        public Builder withCollinearMerging(String material, boolean enabled) {
+            if (enabled) {
+                collinearMergeMaterials.add(material);
+            } else {
+                collinearMergeMaterials.remove(material);
+            }
+            return this;
+        }
+
+        public Builder withWallCenterlines(boolean wallCenterlines) {
+            this.wallCenterlines = wallCenterlines;
+            return this;
+        }
+
+        public Builder withWallThicknessRange(double minMeters, double maxMeters) {
+            if (minMeters >= 0 && maxMeters > minMeters) {
+                this.minWallThickness = minMeters;
+                this.maxWallThickness = maxMeters;
+            }
+            return this;
+        }
+
+        public Builder withRoomDetection(boolean roomDetection) {
+            this.roomDetection = roomDetection;
+            return this;
+        }
+
         public TakeoffEngineRefactored build() {
             return new TakeoffEngineRefactored(this);
         }
@@ -0,0 +1,46 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.function.DoubleUnaryOperator;
+
+public class AdaptiveQuadrature {
+    private static final int MAX_DEPTH = 16;
+
+    private static final double[] NODES = {
+            0.0,
+            0.5384693101056831,
+            0.9061798459386640 };
+    private static final double[] WEIGHTS = {
+            0.5688888888888889,
+            0.4786286704993665,
+            0.2369268850561891 };
+
+    public static double integrate(DoubleUnaryOperator f, double a, double b, double tolerance) {
+        if (a == b) {
+            return 0.0;
+        }
+        return refine(f, a, b, gaussLegendre(f, a, b), Math.max(tolerance, 1e-15), MAX_DEPTH);
+    }
+
+    private static double refine(DoubleUnaryOperator f, double a, double b, double whole, double tolerance,
+            int depth) {
+        double mid = 0.5 * (a + b);
+        double left = gaussLegendre(f, a, mid);
+        double right = gaussLegendre(f, mid, b);
+        double sum = left + right;
+        if (depth == 0 || Math.abs(sum - whole) <= tolerance) {
+            return sum;
+        }
+        return refine(f, a, mid, left, tolerance / 2, depth - 1) + refine(f, mid, b, right, tolerance / 2, depth - 1);
+    }
+
+    static double gaussLegendre(DoubleUnaryOperator f, double a, double b) {
+        double half = 0.5 * (b - a);
+        double center = 0.5 * (a + b);
+        double sum = WEIGHTS[0] * f.applyAsDouble(center);
+        for (int i = 1; i < NODES.length; i++) {
+            double offset = half * NODES[i];
+            sum += WEIGHTS[i] * (f.applyAsDouble(center - offset) + f.applyAsDouble(center + offset));
+        }
+        return sum * half;
+    }
+}
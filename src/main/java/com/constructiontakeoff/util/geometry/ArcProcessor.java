@@ -0,0 +1,62 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.dxf.DxfEntity;
+import com.constructiontakeoff.util.dxf.DxfParsingException;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ArcProcessor implements EntityProcessor {
+    private static final Logger logger = Logger.getLogger(ArcProcessor.class.getName());
+    private final MaterialProvider materialProvider;
+    private final Map<String, Double> materialScaleFactors;
+
+    public ArcProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors) {
+        this.materialProvider = materialProvider;
+        this.materialScaleFactors = materialScaleFactors;
+    }
+
+    @Override
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
+
+        if (entity.getVertexCount() < 1) {
+            throw DxfParsingException.invalidCoordinates("ARC");
+        }
+        if (entity.getRadius() <= 0) {
+            throw DxfParsingException.invalidEntityData("ARC", "radius " + entity.getRadius());
+        }
+
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
+        }
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
+
+        double sweep = GeometryCalculator.calculateSweep(Math.toRadians(entity.getStartAngle()),
+                Math.toRadians(entity.getEndAngle()));
+        double length = GeometryCalculator.calculateCircularArcLength(entity.getRadius(), sweep);
+
+        double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
+        double scaledLength = length * scaleFactor;
+
+        layerInfos.addLength(entity.getLayerId(), scaledLength);
+
+        layerInfos.increment(entity.getLayerId(), EntityType.ARC);
+
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed ARC with radius: " + entity.getRadius() + ", sweep: " + Math.toDegrees(sweep)
+                    + ", length: " + scaledLength + " on layer: " + layer + " for material: " + material);
+        }
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.ARC;
+    }
+}
@@ -1,10 +1,13 @@
 package com.constructiontakeoff.util.geometry;
 
 import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.dxf.DxfEntity;
 import com.constructiontakeoff.util.dxf.DxfParsingException;
 import com.constructiontakeoff.util.material.MaterialProvider;
 
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class CircleProcessor implements EntityProcessor {
@@ -18,33 +21,37 @@ public class CircleProcessor implements EntityProcessor {
     }
 
     @Override
-    public void process(double[] coordinates, String layer, String blockName,
-            Map<String, String> properties, Map<String, LayerInfo> layerInfoMap)
-            throws DxfParsingException {
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
 
-        if (coordinates.length < 3) {
+        if (entity.getVertexCount() < 1) {
             throw DxfParsingException.invalidCoordinates("CIRCLE");
         }
+        if (entity.getRadius() <= 0) {
+            throw DxfParsingException.invalidEntityData("CIRCLE", "radius " + entity.getRadius());
+        }
 
-        String material = materialProvider.getMaterial(layer);
-
-        LayerInfo layerInfo = layerInfoMap.computeIfAbsent(layer, k -> new LayerInfo(layer, material));
-        if (material != null && !material.equals(layerInfo.getMaterial())) {
-            layerInfo.setMaterial(material);
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
         }
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
 
-        double radius = coordinates[2];
+        double radius = entity.getRadius();
         double area = GeometryCalculator.calculateCircleArea(radius);
 
         double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
         double scaledArea = area * scaleFactor;
 
-        layerInfo.addArea(scaledArea);
+        layerInfos.addArea(entity.getLayerId(), scaledArea);
 
-        layerInfo.incrementEntityCount(EntityType.CIRCLE);
+        layerInfos.increment(entity.getLayerId(), EntityType.CIRCLE);
 
-        logger.fine("Processed CIRCLE with radius: " + radius +
-                ", area: " + scaledArea + " on layer: " + layer + " for material: " + material);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed CIRCLE with radius: " + radius +
+                    ", area: " + scaledArea + " on layer: " + layer + " for material: " + material);
+        }
     }
 
     @Override
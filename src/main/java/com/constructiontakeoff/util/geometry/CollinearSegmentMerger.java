@@ -0,0 +1,320 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class CollinearSegmentMerger {
+    public static final double DEFAULT_ANGLE_RESOLUTION = 1e-4;
+    public static final double DEFAULT_OFFSET_RESOLUTION = 1e-3;
+
+    private static final int BUCKET_BITS = 8;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int BUCKETS_PER_TASK = 8;
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int[] NEIGHBOURS = { 0, -1, 1 };
+    private static final int GROUPS_EXPECTED = 1024;
+
+    private final double angleResolution;
+    private final double offsetResolution;
+    private final long angleBins;
+
+    public CollinearSegmentMerger() {
+        this(DEFAULT_ANGLE_RESOLUTION, DEFAULT_OFFSET_RESOLUTION);
+    }
+
+    public CollinearSegmentMerger(double angleResolution, double offsetResolution) {
+        if (!(angleResolution > 0) || !(offsetResolution > 0)) {
+            throw new IllegalArgumentException("Resolutions must be positive: " + angleResolution + ", "
+                    + offsetResolution);
+        }
+        this.angleBins = Math.max(1, Math.round(Math.PI / angleResolution));
+        this.angleResolution = Math.PI / angleBins;
+        this.offsetResolution = offsetResolution;
+    }
+
+    public double[] unionLengths(int[] layerIds, double[] x1s, double[] y1s, double[] x2s, double[] y2s, int count,
+            int layerCount, ForkJoinPool pool) {
+        Groups groups = new Groups(count, layerCount);
+        for (int i = 0; i < count; i++) {
+            groups.project(i, layerIds[i], x1s[i], y1s[i], x2s[i], y2s[i]);
+        }
+        groups.partition();
+
+        if (pool != null && count >= PARALLEL_THRESHOLD) {
+            pool.invoke(new BucketTask(groups, 0, BUCKETS));
+        } else {
+            groups.sweep(0, BUCKETS);
+        }
+        return groups.totals();
+    }
+
+    private final class Groups {
+        private final int count;
+        private final int layerCount;
+        private int[] layers;
+        private long[] angles;
+        private long[] offsets;
+        private long[] keys;
+        private double[] starts;
+        private double[] ends;
+        private long[] sortedKeys;
+        private final int[] order;
+        private final PrimitiveSort.IndexComparator byGroup = this::compare;
+        private final double[] unions;
+        private final int[] bucketStarts = new int[BUCKETS + 1];
+        private final LongIntHashMap angleGroups = new LongIntHashMap(GROUPS_EXPECTED);
+        private final LongIntHashMap offsetGroups = new LongIntHashMap(GROUPS_EXPECTED);
+        private double[] angleAnchors = new double[GROUPS_EXPECTED];
+        private double[] angleCosines = new double[GROUPS_EXPECTED];
+        private double[] angleSines = new double[GROUPS_EXPECTED];
+        private int[] angleLayers = new int[GROUPS_EXPECTED];
+        private int angleGroupCount;
+        private double[] offsetAnchors = new double[GROUPS_EXPECTED];
+        private int offsetGroupCount;
+        private int lastAngle = -1;
+        private int previousAngle = -1;
+
+        Groups(int count, int layerCount) {
+            this.count = count;
+            this.layerCount = layerCount;
+            this.layers = new int[count];
+            this.angles = new long[count];
+            this.offsets = new long[count];
+            this.keys = new long[count];
+            this.starts = new double[count];
+            this.ends = new double[count];
+            this.order = new int[count];
+            this.unions = new double[count];
+        }
+
+        // Each angle and offset group is anchored at its first member, and a segment joins an anchor within one
+        // resolution step of it. Anchors are looked up in the segment's own bin and both neighbours, so values either
+        // side of a bin boundary still meet.
+        void project(int i, int layer, double x1, double y1, double x2, double y2) {
+            double theta = Math.atan2(y2 - y1, x2 - x1);
+            if (theta < 0) {
+                theta += Math.PI;
+            }
+            if (theta >= Math.PI) {
+                theta -= Math.PI;
+            }
+            int angle = snapAngle(layer, theta);
+            double ux = angleCosines[angle];
+            double uy = angleSines[angle];
+            double offset = ux * (y1 + y2) * 0.5 - uy * (x1 + x2) * 0.5;
+            double t1 = ux * x1 + uy * y1;
+            double t2 = ux * x2 + uy * y2;
+
+            layers[i] = layer;
+            angles[i] = angle;
+            offsets[i] = snapOffset(angle, offset);
+            keys[i] = key(layer, angle, offsets[i]);
+            starts[i] = Math.min(t1, t2);
+            ends[i] = Math.max(t1, t2);
+        }
+
+        private int snapAngle(int layer, double theta) {
+            if (joinsAngle(lastAngle, layer, theta)) {
+                return lastAngle;
+            }
+            previousAngle = lastAngle;
+            lastAngle = findAngle(layer, theta);
+            return lastAngle;
+        }
+
+        private int findAngle(int layer, double theta) {
+            if (joinsAngle(previousAngle, layer, theta)) {
+                return previousAngle;
+            }
+            long bin = Math.round(theta / angleResolution);
+            for (int probe = 0; probe < 3; probe++) {
+                int group = angleGroups.get(key(layer, wrap(bin + NEIGHBOURS[probe]), -1));
+                if (joinsAngle(group, layer, theta)) {
+                    return group;
+                }
+            }
+            if (angleGroupCount == angleAnchors.length) {
+                angleAnchors = Arrays.copyOf(angleAnchors, angleGroupCount * 2);
+                angleCosines = Arrays.copyOf(angleCosines, angleGroupCount * 2);
+                angleSines = Arrays.copyOf(angleSines, angleGroupCount * 2);
+                angleLayers = Arrays.copyOf(angleLayers, angleGroupCount * 2);
+            }
+            angleAnchors[angleGroupCount] = theta;
+            angleCosines[angleGroupCount] = Math.cos(theta);
+            angleSines[angleGroupCount] = Math.sin(theta);
+            angleLayers[angleGroupCount] = layer;
+            angleGroups.put(key(layer, wrap(bin), -1), angleGroupCount);
+            return angleGroupCount++;
+        }
+
+        private long wrap(long bin) {
+            return bin < 0 ? bin + angleBins : bin >= angleBins ? bin - angleBins : bin;
+        }
+
+        private boolean joinsAngle(int group, int layer, double theta) {
+            if (group < 0 || angleLayers[group] != layer) {
+                return false;
+            }
+            double difference = Math.abs(theta - angleAnchors[group]);
+            return Math.min(difference, Math.PI - difference) <= angleResolution;
+        }
+
+        private int snapOffset(int angle, double offset) {
+            long bin = Math.round(offset / offsetResolution);
+            for (int probe = 0; probe < 3; probe++) {
+                int group = offsetGroups.get(key(-1, angle, bin + NEIGHBOURS[probe]));
+                if (group != LongIntHashMap.MISSING && Math.abs(offset - offsetAnchors[group]) <= offsetResolution) {
+                    return group;
+                }
+            }
+            if (offsetGroupCount == offsetAnchors.length) {
+                offsetAnchors = Arrays.copyOf(offsetAnchors, offsetGroupCount * 2);
+            }
+            offsetAnchors[offsetGroupCount] = offset;
+            offsetGroups.put(key(-1, angle, bin), offsetGroupCount);
+            return offsetGroupCount++;
+        }
+
+        void partition() {
+            for (int i = 0; i < count; i++) {
+                bucketStarts[bucket(keys[i]) + 1]++;
+            }
+            for (int b = 0; b < BUCKETS; b++) {
+                bucketStarts[b + 1] += bucketStarts[b];
+            }
+            int[] cursor = new int[BUCKETS];
+            System.arraycopy(bucketStarts, 0, cursor, 0, BUCKETS);
+            int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = cursor[bucket(keys[i])]++;
+                order[i] = i;
+            }
+
+            int[] scatteredLayers = new int[count];
+            long[] scatteredAngles = new long[count];
+            long[] scatteredOffsets = new long[count];
+            long[] scatteredKeys = new long[count];
+            double[] scatteredStarts = new double[count];
+            double[] scatteredEnds = new double[count];
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                scatteredLayers[position] = layers[i];
+                scatteredAngles[position] = angles[i];
+                scatteredOffsets[position] = offsets[i];
+                scatteredKeys[position] = keys[i];
+                scatteredStarts[position] = starts[i];
+                scatteredEnds[position] = ends[i];
+            }
+            layers = scatteredLayers;
+            angles = scatteredAngles;
+            offsets = scatteredOffsets;
+            keys = scatteredKeys;
+            starts = scatteredStarts;
+            ends = scatteredEnds;
+            sortedKeys = scatteredKeys.clone();
+        }
+
+        void sweep(int fromBucket, int toBucket) {
+            for (int b = fromBucket; b < toBucket; b++) {
+                int from = bucketStarts[b];
+                int to = bucketStarts[b + 1];
+                if (from == to) {
+                    continue;
+                }
+                PrimitiveSort.sort(sortedKeys, order, from, to - 1);
+                for (int run = from; run < to;) {
+                    int runEnd = run + 1;
+                    while (runEnd < to && sortedKeys[runEnd] == sortedKeys[run]) {
+                        runEnd++;
+                    }
+                    if (runEnd - run > 1) {
+                        PrimitiveSort.sort(order, run, runEnd - 1, byGroup);
+                    }
+                    run = runEnd;
+                }
+
+                int first = order[from];
+                double start = starts[first];
+                double end = ends[first];
+                for (int k = from + 1; k < to; k++) {
+                    int previous = order[k - 1];
+                    int segment = order[k];
+                    if (sameGroup(previous, segment) && starts[segment] <= end) {
+                        end = Math.max(end, ends[segment]);
+                        continue;
+                    }
+                    unions[k - 1] = end - start;
+                    start = starts[segment];
+                    end = ends[segment];
+                }
+                unions[to - 1] = end - start;
+            }
+        }
+
+        double[] totals() {
+            double[] totals = new double[layerCount];
+            for (int k = 0; k < count; k++) {
+                if (unions[k] != 0) {
+                    totals[layers[order[k]]] += unions[k];
+                }
+            }
+            return totals;
+        }
+
+        private boolean sameGroup(int a, int b) {
+            return keys[a] == keys[b] && layers[a] == layers[b] && angles[a] == angles[b] && offsets[a] == offsets[b];
+        }
+
+        private int compare(int a, int b) {
+            if (keys[a] != keys[b]) {
+                return Long.compare(keys[a], keys[b]);
+            }
+            if (layers[a] != layers[b]) {
+                return Integer.compare(layers[a], layers[b]);
+            }
+            if (angles[a] != angles[b]) {
+                return Long.compare(angles[a], angles[b]);
+            }
+            if (offsets[a] != offsets[b]) {
+                return Long.compare(offsets[a], offsets[b]);
+            }
+            return Double.compare(starts[a], starts[b]);
+        }
+    }
+
+    private static long key(int layer, long angle, long offset) {
+        long h = layer * 0x9E3779B97F4A7C15L;
+        h = (h ^ angle) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ offset) * 0x165667B19E3779F9L;
+        return h ^ (h >>> 29);
+    }
+
+    private static int bucket(long key) {
+        return (int) (key >>> (64 - BUCKET_BITS));
+    }
+
+    private static final class BucketTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Groups groups;
+        private final int from;
+        private final int to;
+
+        BucketTask(Groups groups, int from, int to) {
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BUCKETS_PER_TASK) {
+                groups.sweep(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BucketTask(groups, from, mid), new BucketTask(groups, mid, to));
+        }
+    }
+}
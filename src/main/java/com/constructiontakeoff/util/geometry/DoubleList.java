@@ -0,0 +1,27 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Arrays;
+
+final class DoubleList {
+    private double[] items = new double[16];
+    private int size;
+
+    void add(double value) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = value;
+    }
+
+    double get(int index) {
+        return items[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    double[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+}
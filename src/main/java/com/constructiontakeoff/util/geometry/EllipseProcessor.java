@@ -0,0 +1,76 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.dxf.DxfEntity;
+import com.constructiontakeoff.util.dxf.DxfParsingException;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class EllipseProcessor implements EntityProcessor {
+    private static final Logger logger = Logger.getLogger(EllipseProcessor.class.getName());
+    private final MaterialProvider materialProvider;
+    private final Map<String, Double> materialScaleFactors;
+
+    public EllipseProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors) {
+        this.materialProvider = materialProvider;
+        this.materialScaleFactors = materialScaleFactors;
+    }
+
+    @Override
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
+
+        if (entity.getVertexCount() < 2) {
+            throw DxfParsingException.invalidCoordinates("ELLIPSE");
+        }
+
+        double majorRadius = Math.hypot(entity.getX(1), entity.getY(1));
+        double minorRadius = majorRadius * entity.getAxisRatio();
+        if (majorRadius <= 0 || minorRadius <= 0) {
+            throw DxfParsingException.invalidEntityData("ELLIPSE", "axis ratio " + entity.getAxisRatio());
+        }
+
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
+        }
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
+        double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
+
+        double sweep = GeometryCalculator.calculateSweep(entity.getStartAngle(), entity.getEndAngle());
+        if (GeometryCalculator.isFullTurn(sweep)) {
+            double scaledArea = GeometryCalculator.calculateEllipseArea(majorRadius, minorRadius) * scaleFactor;
+            layerInfos.addArea(entity.getLayerId(), scaledArea);
+            layerInfos.increment(entity.getLayerId(), EntityType.ELLIPSE);
+
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Processed closed ELLIPSE with area: " + scaledArea + " on layer: " + layer
+                        + " for material: " + material);
+            }
+            return;
+        }
+
+        double length = GeometryCalculator.calculateEllipseLength(majorRadius, minorRadius, entity.getStartAngle(),
+                sweep);
+        double scaledLength = length * scaleFactor;
+
+        layerInfos.addLength(entity.getLayerId(), scaledLength);
+
+        layerInfos.increment(entity.getLayerId(), EntityType.ELLIPSE);
+
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed ELLIPSE arc with length: " + scaledLength + " on layer: " + layer
+                    + " for material: " + material);
+        }
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.ELLIPSE;
+    }
+}
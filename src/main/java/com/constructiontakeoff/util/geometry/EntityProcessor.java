@@ -1,17 +1,12 @@
 package com.constructiontakeoff.util.geometry;
 
+import com.constructiontakeoff.util.dxf.DxfEntity;
 import com.constructiontakeoff.util.dxf.DxfParsingException;
-import com.constructiontakeoff.model.LayerInfo;
-
-import java.util.Map;
+import com.constructiontakeoff.model.LayerInfoTable;
 
 public interface EntityProcessor {
     
-    void process(double[] coordinates, 
-                String layer, 
-                String blockName,
-                Map<String, String> properties, 
-                Map<String, LayerInfo> layerInfoMap) throws DxfParsingException;
+    void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException;
     
     EntityType getEntityType();
 }
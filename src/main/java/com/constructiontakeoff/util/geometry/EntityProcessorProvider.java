@@ -0,0 +1,11 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.Map;
+
+public interface EntityProcessorProvider {
+
+    EntityProcessor createProcessor(MaterialProvider layerMaterialProvider, MaterialProvider blockMaterialProvider,
+            Map<String, Double> materialScaleFactors);
+}
@@ -5,6 +5,10 @@ public enum EntityType {
     LINE("m"),
     POLYLINE("m"),
     CIRCLE("m²"),
+    ARC("m"),
+    ELLIPSE("m"),
+    SPLINE("m"),
+    HATCH("m²"),
     INSERT("pcs"),
     BLOCK("pcs");
 
@@ -2,25 +2,32 @@ package com.constructiontakeoff.util.geometry;
 
 public class GeometryCalculator {
     private static final double ENDPOINT_TOLERANCE = 0.0001;
+    private static final double SMALL_ARC_ANGLE = 1e-2;
+    private static final double FULL_TURN = 2 * Math.PI;
+    private static final double ELLIPSE_TOLERANCE = 1e-9;
 
     public static double calculateLength(double[] coordinates) {
-        if (coordinates.length < 4) {
+        return calculateLength(coordinates, coordinates.length);
+    }
+
+    public static double calculateLength(double[] coordinates, int length) {
+        if (length < 4) {
             return 0;
         }
 
         double totalLength = 0;
 
-        if (coordinates.length == 4) {
+        if (length == 4) {
             double x1 = coordinates[0];
             double y1 = coordinates[1];
             double x2 = coordinates[2];
             double y2 = coordinates[3];
 
-            return Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2));
+            return Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
         }
 
-        for (int i = 0; i < coordinates.length - 2; i += 2) {
-            if (i + 3 >= coordinates.length)
+        for (int i = 0; i < length - 2; i += 2) {
+            if (i + 3 >= length)
                 break;
 
             double x1 = coordinates[i];
@@ -28,18 +35,18 @@ public class GeometryCalculator {
             double x2 = coordinates[i + 2];
             double y2 = coordinates[i + 3];
 
-            double segmentLength = Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2));
+            double segmentLength = Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
             totalLength += segmentLength;
         }
 
-        boolean isClosed = isClosedByEndpoints(coordinates);
-        if (!isClosed && coordinates.length >= 4) {
-            double x1 = coordinates[coordinates.length - 2];
-            double y1 = coordinates[coordinates.length - 1];
+        boolean isClosed = isClosedByEndpoints(coordinates, length);
+        if (!isClosed && length >= 4) {
+            double x1 = coordinates[length - 2];
+            double y1 = coordinates[length - 1];
             double x2 = coordinates[0];
             double y2 = coordinates[1];
 
-            double closingSegmentLength = Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2));
+            double closingSegmentLength = Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
 
             if (closingSegmentLength > ENDPOINT_TOLERANCE) {
                 totalLength += closingSegmentLength;
@@ -49,13 +56,95 @@ public class GeometryCalculator {
         return totalLength;
     }
 
+    public static double calculateLength(double[] xs, double[] ys, int count, boolean closed) {
+        if (count < 2) {
+            return 0;
+        }
+
+        double totalLength = GeometryKernels.get().sumSegmentLengths(xs, ys, 0, count);
+
+        if (closed && count > 2) {
+            double dx = xs[0] - xs[count - 1];
+            double dy = ys[0] - ys[count - 1];
+            totalLength += Math.sqrt(dx * dx + dy * dy);
+        }
+
+        return totalLength;
+    }
+
+    public static double calculateLength(double[] xs, double[] ys, double[] bulges, int count, boolean closed) {
+        return calculateLength(xs, ys, bulges, 0, count, closed);
+    }
+
+    public static double calculateLength(double[] xs, double[] ys, double[] bulges, int from, int count,
+            boolean closed) {
+        if (count < 2) {
+            return 0;
+        }
+
+        int to = from + count;
+        double totalLength = GeometryKernels.get().sumSegmentLengths(xs, ys, from, to);
+        for (int i = from + 1; i < to; i++) {
+            double bulge = bulges[i - 1];
+            if (bulge != 0) {
+                double dx = xs[i] - xs[i - 1];
+                double dy = ys[i] - ys[i - 1];
+                double chord = Math.sqrt(dx * dx + dy * dy);
+                totalLength += calculateArcLength(chord, bulge) - chord;
+            }
+        }
+
+        int last = to - 1;
+        if (closed && (count > 2 || bulges[last] != 0)) {
+            double dx = xs[from] - xs[last];
+            double dy = ys[from] - ys[last];
+            totalLength += calculateArcLength(Math.sqrt(dx * dx + dy * dy), bulges[last]);
+        }
+
+        return totalLength;
+    }
+
+    public static double calculateArcLength(double chord, double bulge) {
+        if (bulge == 0 || chord == 0) {
+            return chord;
+        }
+
+        double t = Math.abs(bulge);
+        return chord * (1 + t * t) * Math.atan(t) / t;
+    }
+
+    public static double calculateSegmentArea(double chord, double bulge) {
+        if (bulge == 0 || chord == 0) {
+            return 0;
+        }
+
+        double t = Math.abs(bulge);
+        double angle = 4 * Math.atan(t);
+        double radius = chord * (1 + t * t) / (4 * t);
+
+        double excess;
+        if (angle < SMALL_ARC_ANGLE) {
+            double angle2 = angle * angle;
+            excess = angle * angle2 * (1.0 / 6 - angle2 * (1.0 / 120 - angle2 / 5040));
+        } else {
+            excess = angle - Math.sin(angle);
+        }
+
+        double area = radius * radius * excess / 2;
+        return bulge > 0 ? area : -area;
+    }
+
     public static double calculatePolygonArea(double[] coordinates) {
-        if (coordinates.length < 6) {
+        return calculatePolygonArea(coordinates, coordinates.length);
+    }
+
+    public static double calculatePolygonArea(double[] coordinates, int length) {
+        if (length < 6) {
             return 0;
         }
 
         double sum = 0;
-        for (int i = 0; i < coordinates.length - 2; i += 2) {
+        for (int i = 0; i < length - 3; i += 2) {
             double x1 = coordinates[i];
             double y1 = coordinates[i + 1];
             double x2 = coordinates[i + 2];
@@ -64,8 +153,8 @@ public class GeometryCalculator {
             sum += (x1 * y2) - (x2 * y1);
         }
 
-        double xn = coordinates[coordinates.length - 2];
-        double yn = coordinates[coordinates.length - 1];
+        double xn = coordinates[length - 2];
+        double yn = coordinates[length - 1];
         double x1 = coordinates[0];
         double y1 = coordinates[1];
         sum += (xn * y1) - (x1 * yn);
@@ -73,20 +162,149 @@ public class GeometryCalculator {
         return Math.abs(sum / 2.0);
     }
 
+    public static double calculatePolygonArea(double[] xs, double[] ys, int count) {
+        if (count < 3) {
+            return 0;
+        }
+
+        double sum = GeometryKernels.get().sumCrossProducts(xs, ys, 0, count);
+        sum += (xs[count - 1] * ys[0]) - (xs[0] * ys[count - 1]);
+
+        return Math.abs(sum / 2.0);
+    }
+
+    public static double calculatePolygonArea(double[] xs, double[] ys, double[] bulges, int count) {
+        return Math.abs(calculateSignedPolygonArea(xs, ys, bulges, count));
+    }
+
+    public static double calculateSignedPolygonArea(double[] xs, double[] ys, double[] bulges, int count) {
+        return calculateSignedPolygonArea(xs, ys, bulges, 0, count);
+    }
+
+    public static double calculateSignedPolygonArea(double[] xs, double[] ys, double[] bulges, int from,
+            int count) {
+        if (count < 2) {
+            return 0;
+        }
+
+        int to = from + count;
+        int last = to - 1;
+        double sum = GeometryKernels.get().sumCrossProducts(xs, ys, from, to);
+        sum += (xs[last] * ys[from]) - (xs[from] * ys[last]);
+        double segments = 0;
+        for (int i = from; i < to; i++) {
+            int j = i < last ? i + 1 : from;
+            double bulge = bulges[i];
+            if (bulge != 0) {
+                double dx = xs[j] - xs[i];
+                double dy = ys[j] - ys[i];
+                segments += calculateSegmentArea(Math.sqrt(dx * dx + dy * dy), bulge);
+            }
+        }
+
+        return sum / 2.0 + segments;
+    }
+
     public static double calculateCircleArea(double radius) {
         return Math.PI * radius * radius;
     }
 
+    public static double calculateSweep(double startRadians, double endRadians) {
+        double sweep = (endRadians - startRadians) % FULL_TURN;
+        if (sweep <= 0) {
+            sweep += FULL_TURN;
+        }
+        return sweep;
+    }
+
+    public static boolean isFullTurn(double sweep) {
+        return Math.abs(sweep - FULL_TURN) < 1e-9;
+    }
+
+    public static double calculateCircularArcLength(double radius, double sweep) {
+        return radius * sweep;
+    }
+
+    public static double calculateSectorArea(double radius, double sweep) {
+        return 0.5 * radius * radius * sweep;
+    }
+
+    public static double calculateChordAreaTerm(double x1, double y1, double x2, double y2, double bulge) {
+        double term = 0.5 * (x1 * y2 - x2 * y1);
+        if (bulge != 0) {
+            double dx = x2 - x1;
+            double dy = y2 - y1;
+            term += calculateSegmentArea(Math.sqrt(dx * dx + dy * dy), bulge);
+        }
+        return term;
+    }
+
+    public static double calculateArcAreaTerm(double centerX, double centerY, double radius, double startRadians,
+            double signedSweep) {
+        double endRadians = startRadians + signedSweep;
+        double dSin = Math.sin(endRadians) - Math.sin(startRadians);
+        double dCos = Math.cos(endRadians) - Math.cos(startRadians);
+        return 0.5 * (radius * radius * signedSweep + radius * (centerX * dSin - centerY * dCos));
+    }
+
+    public static double calculateEllipseAreaTerm(double centerX, double centerY, double majorX, double majorY,
+            double ratio, double startParameter, double signedSweep) {
+        double minorX = -majorY * ratio;
+        double minorY = majorX * ratio;
+        double endParameter = startParameter + signedSweep;
+        double dCos = Math.cos(endParameter) - Math.cos(startParameter);
+        double dSin = Math.sin(endParameter) - Math.sin(startParameter);
+        double dx = majorX * dCos + minorX * dSin;
+        double dy = majorY * dCos + minorY * dSin;
+        return 0.5 * ((majorX * minorY - majorY * minorX) * signedSweep + centerX * dy - centerY * dx);
+    }
+
+    public static double calculateEllipseParameter(double angleRadians, double ratio) {
+        return Math.atan2(Math.sin(angleRadians) / ratio, Math.cos(angleRadians));
+    }
+
+    public static double calculateEllipseArea(double majorRadius, double minorRadius) {
+        return Math.PI * majorRadius * minorRadius;
+    }
+
+    public static double calculateEllipseLength(double majorRadius, double minorRadius, double startParameter,
+            double sweep) {
+        double a2 = majorRadius * majorRadius;
+        double b2 = minorRadius * minorRadius;
+        return AdaptiveQuadrature.integrate(t -> {
+            double sin = Math.sin(t);
+            double cos = Math.cos(t);
+            return Math.sqrt(a2 * sin * sin + b2 * cos * cos);
+        }, startParameter, startParameter + sweep, ELLIPSE_TOLERANCE * majorRadius * sweep);
+    }
+
     public static boolean isClosedByEndpoints(double[] coordinates) {
-        if (coordinates.length < 6)
+        return isClosedByEndpoints(coordinates, coordinates.length);
+    }
+
+    public static boolean isClosedByEndpoints(double[] coordinates, int length) {
+        if (length < 6)
             return false;
 
         double x1 = coordinates[0];
         double y1 = coordinates[1];
-        double xn = coordinates[coordinates.length - 2];
-        double yn = coordinates[coordinates.length - 1];
+        double xn = coordinates[length - 2];
+        double yn = coordinates[length - 1];
 
         return Math.abs(x1 - xn) < ENDPOINT_TOLERANCE &&
                 Math.abs(y1 - yn) < ENDPOINT_TOLERANCE;
     }
+
+    public static boolean isClosedByEndpoints(double[] xs, double[] ys, int count) {
+        return isClosedByEndpoints(xs, ys, 0, count);
+    }
+
+    public static boolean isClosedByEndpoints(double[] xs, double[] ys, int from, int count) {
+        if (count < 3)
+            return false;
+
+        int last = from + count - 1;
+        return Math.abs(xs[from] - xs[last]) < ENDPOINT_TOLERANCE &&
+                Math.abs(ys[from] - ys[last]) < ENDPOINT_TOLERANCE;
+    }
 }
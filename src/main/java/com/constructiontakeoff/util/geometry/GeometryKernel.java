@@ -0,0 +1,10 @@
+package com.constructiontakeoff.util.geometry;
+
+public interface GeometryKernel {
+
+    double sumSegmentLengths(double[] xs, double[] ys, int from, int to);
+
+    double sumCrossProducts(double[] xs, double[] ys, int from, int to);
+
+    String getName();
+}
@@ -0,0 +1,51 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.logging.Logger;
+
+public class GeometryKernels {
+    private static final Logger logger = Logger.getLogger(GeometryKernels.class.getName());
+    public static final String KERNEL_PROPERTY = "takeoff.geometry.kernel";
+    public static final String SCALAR = "scalar";
+    public static final String VECTOR = "vector";
+    public static final String AUTO = "auto";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.constructiontakeoff.util.geometry.VectorGeometryKernel";
+
+    private static volatile GeometryKernel kernel = select(System.getProperty(KERNEL_PROPERTY, SCALAR));
+
+    public static GeometryKernel get() {
+        return kernel;
+    }
+
+    public static void use(GeometryKernel geometryKernel) {
+        kernel = geometryKernel;
+        logger.info("Using geometry kernel: " + geometryKernel.getName());
+    }
+
+    public static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    public static GeometryKernel select(String name) {
+        if (SCALAR.equalsIgnoreCase(name)) {
+            return new ScalarGeometryKernel();
+        }
+        if (!isVectorAvailable()) {
+            if (VECTOR.equalsIgnoreCase(name)) {
+                logger.warning("Vector geometry kernel requested but " + VECTOR_MODULE
+                        + " is not available, add --add-modules " + VECTOR_MODULE + " to the JVM options");
+            }
+            return new ScalarGeometryKernel();
+        }
+
+        try {
+            GeometryKernel vector = (GeometryKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor()
+                    .newInstance();
+            logger.info("Using geometry kernel: " + vector.getName());
+            return vector;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warning("Failed to load vector geometry kernel, falling back to scalar: " + e.getMessage());
+            return new ScalarGeometryKernel();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.dxf.DxfEntity;
+import com.constructiontakeoff.util.dxf.DxfParsingException;
+import com.constructiontakeoff.util.dxf.HatchBoundary;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class HatchProcessor implements EntityProcessor {
+    private static final Logger logger = Logger.getLogger(HatchProcessor.class.getName());
+    private static final int PARALLEL_LOOP_THRESHOLD = 256;
+    private static final int LOOPS_PER_TASK = 64;
+    private static final int CURVE_SAMPLES = 8;
+
+    private final MaterialProvider materialProvider;
+    private final Map<String, Double> materialScaleFactors;
+    private final ForkJoinPool pool;
+
+    public HatchProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors) {
+        this(materialProvider, materialScaleFactors, ForkJoinPool.commonPool());
+    }
+
+    public HatchProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors,
+            ForkJoinPool pool) {
+        this.materialProvider = materialProvider;
+        this.materialScaleFactors = materialScaleFactors;
+        this.pool = pool;
+    }
+
+    @Override
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
+
+        HatchBoundary boundary = entity.getHatchBoundary();
+        if (boundary.getLoopCount() == 0 || boundary.getEdgeCount() == 0) {
+            throw DxfParsingException.invalidEntityData("HATCH", "no boundary paths");
+        }
+
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
+        }
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
+
+        double area = calculateNetArea(boundary, pool);
+
+        double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
+        double scaledArea = area * scaleFactor;
+
+        layerInfos.addArea(entity.getLayerId(), scaledArea);
+
+        layerInfos.increment(entity.getLayerId(), EntityType.HATCH);
+
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed HATCH with " + boundary.getLoopCount() + " loops, area: " + scaledArea
+                    + " on layer: " + layer + " for material: " + material);
+        }
+    }
+
+    public static double calculateNetArea(HatchBoundary boundary, ForkJoinPool pool) {
+        int loopCount = boundary.getLoopCount();
+        if (loopCount == 1) {
+            return Math.abs(calculateLoopArea(boundary, 0));
+        }
+
+        Loops loops = new Loops(boundary);
+        if (pool != null && loopCount >= PARALLEL_LOOP_THRESHOLD) {
+            pool.invoke(new LoopTask(loops, 0, loopCount, false));
+            loops.rankByArea();
+            pool.invoke(new LoopTask(loops, 0, loopCount, true));
+        } else {
+            loops.measure(0, loopCount);
+            loops.rankByArea();
+            loops.classify(0, loopCount);
+        }
+
+        int style = boundary.getStyle();
+        double total = 0.0;
+        for (int i = 0; i < loopCount; i++) {
+            int depth = loops.depths[i];
+            if (style == HatchBoundary.STYLE_IGNORE && depth > 0
+                    || style == HatchBoundary.STYLE_OUTER && depth > 1) {
+                continue;
+            }
+            total += (depth & 1) == 0 ? loops.areas[i] : -loops.areas[i];
+        }
+        return Math.max(total, 0.0);
+    }
+
+    public static double calculateLoopArea(HatchBoundary boundary, int loop) {
+        double area = 0.0;
+        for (int edge = boundary.getLoopEdgeStart(loop); edge < boundary.getLoopEdgeEnd(loop); edge++) {
+            area += calculateEdgeAreaTerm(boundary, edge);
+        }
+        return area;
+    }
+
+    private static double calculateEdgeAreaTerm(HatchBoundary boundary, int edge) {
+        switch (boundary.getEdgeType(edge)) {
+            case HatchBoundary.EDGE_LINE:
+                return GeometryCalculator.calculateChordAreaTerm(boundary.getEdgeParam(edge, 0),
+                        boundary.getEdgeParam(edge, 1), boundary.getEdgeParam(edge, 2),
+                        boundary.getEdgeParam(edge, 3), boundary.getEdgeParam(edge, 4));
+            case HatchBoundary.EDGE_ARC: {
+                double[] sweep = arcSweep(boundary, edge);
+                return GeometryCalculator.calculateArcAreaTerm(boundary.getEdgeParam(edge, 0),
+                        boundary.getEdgeParam(edge, 1), boundary.getEdgeParam(edge, 2), sweep[0], sweep[1]);
+            }
+            case HatchBoundary.EDGE_ELLIPSE: {
+                double[] sweep = ellipseSweep(boundary, edge);
+                return GeometryCalculator.calculateEllipseAreaTerm(boundary.getEdgeParam(edge, 0),
+                        boundary.getEdgeParam(edge, 1), boundary.getEdgeParam(edge, 2),
+                        boundary.getEdgeParam(edge, 3), boundary.getEdgeParam(edge, 4), sweep[0], sweep[1]);
+            }
+            case HatchBoundary.EDGE_SPLINE:
+                return splineAreaTerm(boundary, edge);
+            default:
+                return 0.0;
+        }
+    }
+
+    private static double[] arcSweep(HatchBoundary boundary, int edge) {
+        double start = Math.toRadians(boundary.getEdgeParam(edge, 3));
+        double end = Math.toRadians(boundary.getEdgeParam(edge, 4));
+        double sweep = GeometryCalculator.calculateSweep(start, end);
+        if (boundary.getEdgeParam(edge, 5) != 0) {
+            return new double[] { start, sweep };
+        }
+        return new double[] { -start, -sweep };
+    }
+
+    private static double[] ellipseSweep(HatchBoundary boundary, int edge) {
+        double ratio = boundary.getEdgeParam(edge, 4);
+        double startAngle = Math.toRadians(boundary.getEdgeParam(edge, 5));
+        double endAngle = Math.toRadians(boundary.getEdgeParam(edge, 6));
+        double start = GeometryCalculator.calculateEllipseParameter(startAngle, ratio);
+        double sweep = GeometryCalculator.calculateSweep(startAngle, endAngle);
+        if (!GeometryCalculator.isFullTurn(sweep)) {
+            sweep = GeometryCalculator.calculateSweep(start,
+                    GeometryCalculator.calculateEllipseParameter(endAngle, ratio));
+        }
+        if (boundary.getEdgeParam(edge, 7) != 0) {
+            return new double[] { start, sweep };
+        }
+        return new double[] { -start, -sweep };
+    }
+
+    private static double splineAreaTerm(HatchBoundary boundary, int edge) {
+        int degree = (int) boundary.getEdgeParam(edge, 0);
+        int knotStart = (int) boundary.getEdgeParam(edge, 3);
+        int knotEnd = (int) boundary.getEdgeParam(edge, 4);
+        int controlStart = (int) boundary.getEdgeParam(edge, 5);
+        int controlEnd = (int) boundary.getEdgeParam(edge, 6);
+        int weightStart = (int) boundary.getEdgeParam(edge, 7);
+        int weightEnd = (int) boundary.getEdgeParam(edge, 8);
+        int count = controlEnd - controlStart;
+
+        double[] xs = Arrays.copyOfRange(boundary.controlXs(), controlStart, controlEnd);
+        double[] ys = Arrays.copyOfRange(boundary.controlYs(), controlStart, controlEnd);
+        if (!SplineGeometry.isValid(degree, knotEnd - knotStart, count)) {
+            double area = 0.0;
+            for (int i = 0; i + 1 < count; i++) {
+                area += GeometryCalculator.calculateChordAreaTerm(xs[i], ys[i], xs[i + 1], ys[i + 1], 0.0);
+            }
+            return area;
+        }
+
+        double[] knots = Arrays.copyOfRange(boundary.knots(), knotStart, knotEnd);
+        double[] weights = Arrays.copyOfRange(boundary.weights(), weightStart, weightEnd);
+        return new SplineGeometry(degree, knots, weights, weights.length, xs, ys, count).areaTerm();
+    }
+
+    private static class Loops {
+        private final HatchBoundary boundary;
+        private final double[] areas;
+        private final double[][] outlines;
+        private final int[] outlineSizes;
+        private final double[] bounds;
+        private final int[] depths;
+        private int[] byArea;
+
+        Loops(HatchBoundary boundary) {
+            int loopCount = boundary.getLoopCount();
+            this.boundary = boundary;
+            this.areas = new double[loopCount];
+            this.outlines = new double[loopCount][];
+            this.outlineSizes = new int[loopCount];
+            this.bounds = new double[loopCount * 4];
+            this.depths = new int[loopCount];
+        }
+
+        void measure(int from, int to) {
+            for (int loop = from; loop < to; loop++) {
+                areas[loop] = Math.abs(calculateLoopArea(boundary, loop));
+                outline(loop);
+            }
+        }
+
+        void rankByArea() {
+            int loopCount = areas.length;
+            Integer[] order = new Integer[loopCount];
+            for (int i = 0; i < loopCount; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(areas[b], areas[a]));
+            byArea = new int[loopCount];
+            for (int i = 0; i < loopCount; i++) {
+                byArea[i] = order[i];
+            }
+        }
+
+        void classify(int from, int to) {
+            for (int loop = from; loop < to; loop++) {
+                if ((boundary.getLoopFlags(loop) & HatchBoundary.LOOP_EXTERNAL) != 0 || outlineSizes[loop] == 0) {
+                    depths[loop] = 0;
+                    continue;
+                }
+                double x = outlines[loop][0];
+                double y = outlines[loop][1];
+                int depth = 0;
+                double area = areas[loop];
+                for (int r = 0; r < byArea.length && areas[byArea[r]] > area; r++) {
+                    int other = byArea[r];
+                    int b = other * 4;
+                    if (x >= bounds[b] && x <= bounds[b + 2] && y >= bounds[b + 1] && y <= bounds[b + 3]
+                            && contains(other, x, y)) {
+                        depth++;
+                    }
+                }
+                depths[loop] = depth;
+            }
+        }
+
+        private boolean contains(int loop, double x, double y) {
+            double[] outline = outlines[loop];
+            int size = outlineSizes[loop];
+            boolean inside = false;
+            for (int i = 0, j = size - 2; i < size; j = i, i += 2) {
+                double xi = outline[i];
+                double yi = outline[i + 1];
+                double xj = outline[j];
+                double yj = outline[j + 1];
+                if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private void outline(int loop) {
+            double[] points = new double[16];
+            int size = 0;
+            for (int edge = boundary.getLoopEdgeStart(loop); edge < boundary.getLoopEdgeEnd(loop); edge++) {
+                double[] samples = sample(edge);
+                if (size + samples.length > points.length) {
+                    points = Arrays.copyOf(points, Math.max(points.length * 2, size + samples.length));
+                }
+                System.arraycopy(samples, 0, points, size, samples.length);
+                size += samples.length;
+            }
+
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i += 2) {
+                minX = Math.min(minX, points[i]);
+                minY = Math.min(minY, points[i + 1]);
+                maxX = Math.max(maxX, points[i]);
+                maxY = Math.max(maxY, points[i + 1]);
+            }
+            outlines[loop] = points;
+            outlineSizes[loop] = size;
+            bounds[loop * 4] = minX;
+            bounds[loop * 4 + 1] = minY;
+            bounds[loop * 4 + 2] = maxX;
+            bounds[loop * 4 + 3] = maxY;
+        }
+
+        private double[] sample(int edge) {
+            switch (boundary.getEdgeType(edge)) {
+                case HatchBoundary.EDGE_LINE: {
+                    double x1 = boundary.getEdgeParam(edge, 0);
+                    double y1 = boundary.getEdgeParam(edge, 1);
+                    double bulge = boundary.getEdgeParam(edge, 4);
+                    if (bulge == 0) {
+                        return new double[] { x1, y1 };
+                    }
+                    double dx = boundary.getEdgeParam(edge, 2) - x1;
+                    double dy = boundary.getEdgeParam(edge, 3) - y1;
+                    return new double[] { x1, y1, x1 + dx / 2 + bulge * dy / 2, y1 + dy / 2 - bulge * dx / 2 };
+                }
+                case HatchBoundary.EDGE_ARC: {
+                    double[] sweep = arcSweep(boundary, edge);
+                    double cx = boundary.getEdgeParam(edge, 0);
+                    double cy = boundary.getEdgeParam(edge, 1);
+                    double radius = boundary.getEdgeParam(edge, 2);
+                    double[] samples = new double[CURVE_SAMPLES * 2];
+                    for (int k = 0; k < CURVE_SAMPLES; k++) {
+                        double t = sweep[0] + sweep[1] * k / CURVE_SAMPLES;
+                        samples[k * 2] = cx + radius * Math.cos(t);
+                        samples[k * 2 + 1] = cy + radius * Math.sin(t);
+                    }
+                    return samples;
+                }
+                case HatchBoundary.EDGE_ELLIPSE: {
+                    double[] sweep = ellipseSweep(boundary, edge);
+                    double cx = boundary.getEdgeParam(edge, 0);
+                    double cy = boundary.getEdgeParam(edge, 1);
+                    double mx = boundary.getEdgeParam(edge, 2);
+                    double my = boundary.getEdgeParam(edge, 3);
+                    double ratio = boundary.getEdgeParam(edge, 4);
+                    double[] samples = new double[CURVE_SAMPLES * 2];
+                    for (int k = 0; k < CURVE_SAMPLES; k++) {
+                        double t = sweep[0] + sweep[1] * k / CURVE_SAMPLES;
+                        double cos = Math.cos(t);
+                        double sin = Math.sin(t);
+                        samples[k * 2] = cx + mx * cos - my * ratio * sin;
+                        samples[k * 2 + 1] = cy + my * cos + mx * ratio * sin;
+                    }
+                    return samples;
+                }
+                case HatchBoundary.EDGE_SPLINE: {
+                    int controlStart = (int) boundary.getEdgeParam(edge, 5);
+                    int controlEnd = (int) boundary.getEdgeParam(edge, 6);
+                    double[] samples = new double[(controlEnd - controlStart) * 2];
+                    for (int i = controlStart; i < controlEnd; i++) {
+                        samples[(i - controlStart) * 2] = boundary.controlXs()[i];
+                        samples[(i - controlStart) * 2 + 1] = boundary.controlYs()[i];
+                    }
+                    return samples;
+                }
+                default:
+                    return new double[0];
+            }
+        }
+    }
+
+    private static class LoopTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Loops loops;
+        private final int from;
+        private final int to;
+        private final boolean classify;
+
+        LoopTask(Loops loops, int from, int to, boolean classify) {
+            this.loops = loops;
+            this.from = from;
+            this.to = to;
+            this.classify = classify;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LOOPS_PER_TASK) {
+                if (classify) {
+                    loops.classify(from, to);
+                } else {
+                    loops.measure(from, to);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LoopTask(loops, from, mid, classify), new LoopTask(loops, mid, to, classify));
+        }
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.HATCH;
+    }
+}
@@ -0,0 +1,27 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Arrays;
+
+final class IntList {
+    private int[] items = new int[16];
+    private int size;
+
+    void add(int value) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = value;
+    }
+
+    int get(int index) {
+        return items[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+}
@@ -0,0 +1,73 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Arrays;
+
+final class LongIntHashMap {
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.min(Math.max(expectedSize, 8), 1 << 29) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, MISSING);
+    }
+
+    int get(long key) {
+        for (int slot = slot(key, mask); values[slot] != MISSING; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key, mask);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] previousKeys = keys;
+        int[] previousValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(values, MISSING);
+        for (int i = 0; i < previousKeys.length; i++) {
+            if (previousValues[i] != MISSING) {
+                int slot = slot(previousKeys[i], mask);
+                while (values[slot] != MISSING) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = previousKeys[i];
+                values[slot] = previousValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,184 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class PackedRTree {
+    public static final int DEFAULT_NODE_SIZE = 16;
+
+    private final int nodeSize;
+    private final int itemCount;
+    private final double[] boxes;
+    private final int[] indices;
+    private final int[] levelBounds;
+
+    private PackedRTree(int nodeSize, int itemCount, double[] boxes, int[] indices, int[] levelBounds) {
+        this.nodeSize = nodeSize;
+        this.itemCount = itemCount;
+        this.boxes = boxes;
+        this.indices = indices;
+        this.levelBounds = levelBounds;
+    }
+
+    public static PackedRTree build(double[] minX, double[] minY, double[] maxX, double[] maxY, int count) {
+        return build(minX, minY, maxX, maxY, count, DEFAULT_NODE_SIZE);
+    }
+
+    public static PackedRTree build(double[] minX, double[] minY, double[] maxX, double[] maxY, int count,
+            int nodeSize) {
+        if (nodeSize < 2) {
+            throw new IllegalArgumentException("Node size must be at least 2: " + nodeSize);
+        }
+
+        int slots = count;
+        int levels = 1;
+        int levelSize = count;
+        do {
+            levelSize = (levelSize + nodeSize - 1) / nodeSize;
+            slots += levelSize;
+            levels++;
+        } while (levelSize > 1);
+
+        double[] boxes = new double[slots * 4];
+        int[] indices = new int[slots];
+        int[] levelBounds = new int[levels];
+
+        int[] order = strOrder(minX, minY, maxX, maxY, count, nodeSize);
+        for (int i = 0; i < count; i++) {
+            int item = order[i];
+            boxes[i * 4] = minX[item];
+            boxes[i * 4 + 1] = minY[item];
+            boxes[i * 4 + 2] = maxX[item];
+            boxes[i * 4 + 3] = maxY[item];
+            indices[i] = item;
+        }
+        levelBounds[0] = count;
+
+        int levelStart = 0;
+        int levelEnd = count;
+        int slot = count;
+        int level = 1;
+        do {
+            for (int child = levelStart; child < levelEnd; child += nodeSize) {
+                int last = Math.min(child + nodeSize, levelEnd);
+                double nodeMinX = Double.POSITIVE_INFINITY;
+                double nodeMinY = Double.POSITIVE_INFINITY;
+                double nodeMaxX = Double.NEGATIVE_INFINITY;
+                double nodeMaxY = Double.NEGATIVE_INFINITY;
+                for (int c = child; c < last; c++) {
+                    nodeMinX = Math.min(nodeMinX, boxes[c * 4]);
+                    nodeMinY = Math.min(nodeMinY, boxes[c * 4 + 1]);
+                    nodeMaxX = Math.max(nodeMaxX, boxes[c * 4 + 2]);
+                    nodeMaxY = Math.max(nodeMaxY, boxes[c * 4 + 3]);
+                }
+                boxes[slot * 4] = nodeMinX;
+                boxes[slot * 4 + 1] = nodeMinY;
+                boxes[slot * 4 + 2] = nodeMaxX;
+                boxes[slot * 4 + 3] = nodeMaxY;
+                indices[slot] = child;
+                slot++;
+            }
+            levelStart = levelEnd;
+            levelEnd = slot;
+            levelBounds[level++] = levelEnd;
+        } while (levelEnd - levelStart > 1);
+
+        return new PackedRTree(nodeSize, count, boxes, indices, levelBounds);
+    }
+
+    public int size() {
+        return itemCount;
+    }
+
+    public int itemAt(int position) {
+        return indices[position];
+    }
+
+    public int getNodeSize() {
+        return nodeSize;
+    }
+
+    public void search(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        if (itemCount == 0) {
+            return;
+        }
+
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = indices.length - 1;
+        while (top > 0) {
+            int node = stack[--top];
+            int first = indices[node];
+            int last = Math.min(first + nodeSize, levelEnd(first));
+            for (int slot = first; slot < last; slot++) {
+                int b = slot * 4;
+                if (maxX < boxes[b] || maxY < boxes[b + 1] || minX > boxes[b + 2] || minY > boxes[b + 3]) {
+                    continue;
+                }
+                if (slot < itemCount) {
+                    visitor.accept(indices[slot]);
+                } else {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = slot;
+                }
+            }
+        }
+    }
+
+    public int[] search(double minX, double minY, double maxX, double maxY) {
+        int[][] results = { new int[16] };
+        int[] size = { 0 };
+        search(minX, minY, maxX, maxY, item -> {
+            if (size[0] == results[0].length) {
+                results[0] = Arrays.copyOf(results[0], size[0] * 2);
+            }
+            results[0][size[0]++] = item;
+        });
+        return Arrays.copyOf(results[0], size[0]);
+    }
+
+    public int[] searchPoint(double x, double y, double tolerance) {
+        return search(x - tolerance, y - tolerance, x + tolerance, y + tolerance);
+    }
+
+    private int levelEnd(int slot) {
+        for (int bound : levelBounds) {
+            if (slot < bound) {
+                return bound;
+            }
+        }
+        return indices.length;
+    }
+
+    private static int[] strOrder(double[] minX, double[] minY, double[] maxX, double[] maxY, int count,
+            int nodeSize) {
+        int[] order = new int[count];
+        double[] centersX = new double[count];
+        double[] centersY = new double[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            centersX[i] = (minX[i] + maxX[i]) * 0.5;
+            centersY[i] = (minY[i] + maxY[i]) * 0.5;
+        }
+
+        int leafCount = (count + nodeSize - 1) / nodeSize;
+        int sliceCount = (int) Math.ceil(Math.sqrt(leafCount));
+        int sliceSize = sliceCount * nodeSize;
+
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = centersX[i];
+        }
+        PrimitiveSort.sort(keys, order, 0, count - 1);
+
+        for (int i = 0; i < count; i++) {
+            keys[i] = centersY[order[i]];
+        }
+        for (int from = 0; from < count; from += sliceSize) {
+            PrimitiveSort.sort(keys, order, from, Math.min(from + sliceSize, count) - 1);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,534 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.util.dxf.LongHashSet;
+
+import java.util.Arrays;
+
+public class PlanarRoomDetector {
+    private static final int MAX_ROWS = 4096;
+    private static final double PARALLEL_EPSILON = 1e-12;
+
+    private final double snapTolerance;
+    private final double minRoomArea;
+    private final double minRoomWidth;
+
+    public PlanarRoomDetector(double snapTolerance, double minRoomArea, double minRoomWidth) {
+        if (!(snapTolerance > 0) || !(minRoomArea >= 0) || !(minRoomWidth >= 0)) {
+            throw new IllegalArgumentException("Invalid room detection settings: snap " + snapTolerance
+                    + ", area " + minRoomArea + ", width " + minRoomWidth);
+        }
+        this.snapTolerance = snapTolerance;
+        this.minRoomArea = minRoomArea;
+        this.minRoomWidth = minRoomWidth;
+    }
+
+    public RoomFaces detect(int[] layerIds, double[] x1s, double[] y1s, double[] x2s, double[] y2s, int count) {
+        Vertices vertices = new Vertices(snapTolerance, count * 2);
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = vertices.snap(x1s[i], y1s[i]);
+            ends[i] = vertices.snap(x2s[i], y2s[i]);
+        }
+
+        Splits splits = new Splits();
+        new RowSweep(vertices, starts, ends, count, splits).run();
+        Graph graph = Graph.build(vertices, layerIds, starts, ends, count, splits);
+        return extractRooms(vertices, graph);
+    }
+
+    private RoomFaces extractRooms(Vertices vertices, Graph graph) {
+        int halfEdges = graph.halfEdgeCount();
+        boolean[] visited = new boolean[halfEdges];
+        IntList loopStarts = new IntList();
+        IntList loopVertices = new IntList();
+        DoubleList loopAreas = new DoubleList();
+        DoubleList loopPerimeters = new DoubleList();
+        IntList loopLayers = new IntList();
+
+        for (int first = 0; first < halfEdges; first++) {
+            if (visited[first]) {
+                continue;
+            }
+            loopStarts.add(loopVertices.size());
+            double area = 0.0;
+            double perimeter = 0.0;
+            int layer = -1;
+            double layerWeight = 0.0;
+            int edge = first;
+            while (!visited[edge]) {
+                visited[edge] = true;
+                int from = graph.origin(edge);
+                int to = graph.origin(edge ^ 1);
+                double x1 = vertices.xs[from];
+                double y1 = vertices.ys[from];
+                double x2 = vertices.xs[to];
+                double y2 = vertices.ys[to];
+                area += x1 * y2 - x2 * y1;
+                double length = Math.hypot(x2 - x1, y2 - y1);
+                perimeter += length;
+                int edgeLayer = graph.layers[edge >>> 1];
+                if (edgeLayer == layer) {
+                    layerWeight += length;
+                } else if (layerWeight <= length) {
+                    layer = edgeLayer;
+                    layerWeight = length - layerWeight;
+                } else {
+                    layerWeight -= length;
+                }
+                loopVertices.add(from);
+                edge = graph.next(edge);
+            }
+            loopAreas.add(area * 0.5);
+            loopPerimeters.add(perimeter);
+            loopLayers.add(layer);
+        }
+        loopStarts.add(loopVertices.size());
+
+        return RoomFaces.build(vertices.xs, vertices.ys, loopStarts.toArray(), loopVertices.toArray(),
+                loopAreas.toArray(), loopPerimeters.toArray(), loopLayers.toArray(), graph.components(vertices.size),
+                minRoomArea, minRoomWidth);
+    }
+
+    private static final class Vertices {
+        private final double tolerance;
+        private final double toleranceSquared;
+        private final CellMap cells;
+        double[] xs;
+        double[] ys;
+        int[] chain;
+        int size;
+
+        Vertices(double tolerance, int expected) {
+            this.tolerance = tolerance;
+            this.toleranceSquared = tolerance * tolerance;
+            this.cells = new CellMap(expected);
+            int capacity = Math.max(16, expected);
+            this.xs = new double[capacity];
+            this.ys = new double[capacity];
+            this.chain = new int[capacity];
+        }
+
+        int snap(double x, double y) {
+            long cellX = (long) Math.floor(x / tolerance);
+            long cellY = (long) Math.floor(y / tolerance);
+            for (long dx = -1; dx <= 1; dx++) {
+                for (long dy = -1; dy <= 1; dy++) {
+                    for (int v = cells.get(key(cellX + dx, cellY + dy)); v >= 0; v = chain[v]) {
+                        double ex = xs[v] - x;
+                        double ey = ys[v] - y;
+                        if (ex * ex + ey * ey <= toleranceSquared) {
+                            return v;
+                        }
+                    }
+                }
+            }
+
+            if (size == xs.length) {
+                int capacity = size * 2;
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                chain = Arrays.copyOf(chain, capacity);
+            }
+            int vertex = size++;
+            xs[vertex] = x;
+            ys[vertex] = y;
+            long key = key(cellX, cellY);
+            chain[vertex] = cells.get(key);
+            cells.put(key, vertex);
+            return vertex;
+        }
+
+        private static long key(long cellX, long cellY) {
+            return cellX << 32 ^ cellY & 0xFFFFFFFFL;
+        }
+    }
+
+    private static final class CellMap {
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        CellMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, -1);
+            mask = capacity - 1;
+        }
+
+        int get(long key) {
+            for (int slot = mix(key) & mask; values[slot] >= 0; slot = slot + 1 & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            int slot = mix(key) & mask;
+            while (values[slot] >= 0) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = slot + 1 & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                rehash();
+            }
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(values, -1);
+            mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (values[slot] >= 0) {
+                        slot = slot + 1 & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ h >>> 32);
+        }
+    }
+
+    private static final class Splits {
+        final IntList segments = new IntList();
+        final DoubleList params = new DoubleList();
+        final IntList vertices = new IntList();
+
+        void add(int segment, double param, int vertex) {
+            segments.add(segment);
+            params.add(param);
+            vertices.add(vertex);
+        }
+    }
+
+    // Not a Bentley-Ottmann sweep: segments are visited in order of their left end, and the y range is cut into
+    // up to sqrt(n) fixed rows. Each segment is tested against the segments still active in the rows its y extent
+    // covers, then joins those rows itself; entries whose right end lies behind the current x are dropped as the
+    // rows are scanned. Short wall segments touch one or two rows and expire quickly, so plans stay close to
+    // O(n log n). Long lines do not: a segment spanning most of the x range stays active to the end, and one spanning
+    // most of the y range is filed in every row, so a drawing dominated by long lines (grids, full-width section
+    // lines) degrades to O(n^2) pair tests plus O(n * rows) row entries.
+    private final class RowSweep {
+        private final Vertices vertices;
+        private final int[] starts;
+        private final int[] ends;
+        private final int count;
+        private final Splits splits;
+        private final double[] minXs;
+        private final double[] maxXs;
+        private final double[] minYs;
+        private final double[] maxYs;
+        private final int[] checked;
+        private int stamp;
+
+        RowSweep(Vertices vertices, int[] starts, int[] ends, int count, Splits splits) {
+            this.vertices = vertices;
+            this.starts = starts;
+            this.ends = ends;
+            this.count = count;
+            this.splits = splits;
+            this.minXs = new double[count];
+            this.maxXs = new double[count];
+            this.minYs = new double[count];
+            this.maxYs = new double[count];
+            this.checked = new int[count];
+        }
+
+        void run() {
+            if (count == 0) {
+                return;
+            }
+            double lowY = Double.POSITIVE_INFINITY;
+            double highY = Double.NEGATIVE_INFINITY;
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                double x1 = vertices.xs[starts[i]];
+                double x2 = vertices.xs[ends[i]];
+                double y1 = vertices.ys[starts[i]];
+                double y2 = vertices.ys[ends[i]];
+                minXs[i] = Math.min(x1, x2);
+                maxXs[i] = Math.max(x1, x2);
+                minYs[i] = Math.min(y1, y2);
+                maxYs[i] = Math.max(y1, y2);
+                lowY = Math.min(lowY, minYs[i]);
+                highY = Math.max(highY, maxYs[i]);
+                order[i] = i;
+            }
+            PrimitiveSort.sort(minXs.clone(), order, 0, count - 1);
+
+            int rows = (int) Math.max(1, Math.min(MAX_ROWS, Math.sqrt(count)));
+            double rowHeight = Math.max((highY - lowY) / rows, snapTolerance);
+            int[][] active = new int[rows][];
+            int[] activeSizes = new int[rows];
+
+            for (int k = 0; k < count; k++) {
+                int segment = order[k];
+                double sweepX = minXs[segment] - snapTolerance;
+                int firstRow = row(minYs[segment] - snapTolerance, lowY, rowHeight, rows);
+                int lastRow = row(maxYs[segment] + snapTolerance, lowY, rowHeight, rows);
+                stamp++;
+                for (int r = firstRow; r <= lastRow; r++) {
+                    int[] items = active[r];
+                    int kept = 0;
+                    for (int i = 0; i < activeSizes[r]; i++) {
+                        int other = items[i];
+                        if (maxXs[other] < sweepX) {
+                            continue;
+                        }
+                        items[kept++] = other;
+                        if (checked[other] != stamp) {
+                            checked[other] = stamp;
+                            intersect(segment, other);
+                        }
+                    }
+                    activeSizes[r] = kept;
+                }
+                for (int r = firstRow; r <= lastRow; r++) {
+                    if (active[r] == null) {
+                        active[r] = new int[8];
+                    } else if (activeSizes[r] == active[r].length) {
+                        active[r] = Arrays.copyOf(active[r], activeSizes[r] * 2);
+                    }
+                    active[r][activeSizes[r]++] = segment;
+                }
+            }
+        }
+
+        private int row(double y, double lowY, double rowHeight, int rows) {
+            int row = (int) ((y - lowY) / rowHeight);
+            return Math.max(0, Math.min(rows - 1, row));
+        }
+
+        private void intersect(int a, int b) {
+            if (minYs[a] > maxYs[b] + snapTolerance || minYs[b] > maxYs[a] + snapTolerance) {
+                return;
+            }
+            int a1 = starts[a];
+            int a2 = ends[a];
+            int b1 = starts[b];
+            int b2 = ends[b];
+            if (a1 == a2 || b1 == b2) {
+                return;
+            }
+            double px = vertices.xs[a1];
+            double py = vertices.ys[a1];
+            double rx = vertices.xs[a2] - px;
+            double ry = vertices.ys[a2] - py;
+            double qx = vertices.xs[b1];
+            double qy = vertices.ys[b1];
+            double sx = vertices.xs[b2] - qx;
+            double sy = vertices.ys[b2] - qy;
+            double lengthA = Math.hypot(rx, ry);
+            double lengthB = Math.hypot(sx, sy);
+            double toleranceA = snapTolerance / lengthA;
+            double toleranceB = snapTolerance / lengthB;
+            double wx = qx - px;
+            double wy = qy - py;
+            double denominator = rx * sy - ry * sx;
+
+            if (Math.abs(denominator) > PARALLEL_EPSILON * lengthA * lengthB) {
+                double t = (wx * sy - wy * sx) / denominator;
+                double u = (wx * ry - wy * rx) / denominator;
+                if (t < -toleranceA || t > 1 + toleranceA || u < -toleranceB || u > 1 + toleranceB) {
+                    return;
+                }
+                t = Math.max(0.0, Math.min(1.0, t));
+                u = Math.max(0.0, Math.min(1.0, u));
+                int vertex = vertices.snap(px + t * rx, py + t * ry);
+                split(a, a1, a2, t, vertex);
+                split(b, b1, b2, u, vertex);
+                return;
+            }
+
+            if (Math.abs(wx * ry - wy * rx) > snapTolerance * lengthA) {
+                return;
+            }
+            double squaredA = lengthA * lengthA;
+            double squaredB = lengthB * lengthB;
+            split(a, a1, a2, (wx * rx + wy * ry) / squaredA, b1);
+            split(a, a1, a2, ((wx + sx) * rx + (wy + sy) * ry) / squaredA, b2);
+            split(b, b1, b2, (-wx * sx - wy * sy) / squaredB, a1);
+            split(b, b1, b2, ((rx - wx) * sx + (ry - wy) * sy) / squaredB, a2);
+        }
+
+        private void split(int segment, int start, int end, double param, int vertex) {
+            if (vertex != start && vertex != end && param > 0 && param < 1) {
+                splits.add(segment, param, vertex);
+            }
+        }
+    }
+
+    private static final class Graph {
+        private final int[] origins;
+        private final int[] offsets;
+        private final int[] adjacency;
+        private final int[] positions;
+        final int[] layers;
+
+        private Graph(int[] origins, int[] offsets, int[] adjacency, int[] positions, int[] layers) {
+            this.origins = origins;
+            this.offsets = offsets;
+            this.adjacency = adjacency;
+            this.positions = positions;
+            this.layers = layers;
+        }
+
+        static Graph build(Vertices vertices, int[] layerIds, int[] starts, int[] ends, int count, Splits splits) {
+            int splitCount = splits.segments.size();
+            int[] splitOffsets = new int[count + 1];
+            for (int i = 0; i < splitCount; i++) {
+                splitOffsets[splits.segments.get(i) + 1]++;
+            }
+            for (int i = 0; i < count; i++) {
+                splitOffsets[i + 1] += splitOffsets[i];
+            }
+            int[] cursor = Arrays.copyOf(splitOffsets, count);
+            int[] splitOrder = new int[splitCount];
+            for (int i = 0; i < splitCount; i++) {
+                splitOrder[cursor[splits.segments.get(i)]++] = i;
+            }
+
+            IntList froms = new IntList();
+            IntList tos = new IntList();
+            IntList edgeLayers = new IntList();
+            LongHashSet seen = new LongHashSet(count + splitCount);
+            double[] params = new double[16];
+            int[] chainVertices = new int[16];
+            for (int segment = 0; segment < count; segment++) {
+                int from = splitOffsets[segment];
+                int size = splitOffsets[segment + 1] - from;
+                if (size + 2 > params.length) {
+                    params = new double[size + 2];
+                    chainVertices = new int[size + 2];
+                }
+                for (int k = 0; k < size; k++) {
+                    int split = splitOrder[from + k];
+                    params[k] = splits.params.get(split);
+                    chainVertices[k] = splits.vertices.get(split);
+                }
+                PrimitiveSort.sort(params, chainVertices, 0, size - 1);
+
+                int previous = starts[segment];
+                for (int k = 0; k <= size; k++) {
+                    int vertex = k < size ? chainVertices[k] : ends[segment];
+                    if (vertex == previous) {
+                        continue;
+                    }
+                    long key = (long) Math.min(previous, vertex) << 32 | Math.max(previous, vertex);
+                    if (seen.add(key)) {
+                        froms.add(previous);
+                        tos.add(vertex);
+                        edgeLayers.add(layerIds[segment]);
+                    }
+                    previous = vertex;
+                }
+            }
+
+            int edgeCount = froms.size();
+            int[] origins = new int[edgeCount * 2];
+            double[] angles = new double[edgeCount * 2];
+            int[] offsets = new int[vertices.size + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                int u = froms.get(e);
+                int v = tos.get(e);
+                origins[2 * e] = u;
+                origins[2 * e + 1] = v;
+                double dx = vertices.xs[v] - vertices.xs[u];
+                double dy = vertices.ys[v] - vertices.ys[u];
+                angles[2 * e] = Math.atan2(dy, dx);
+                angles[2 * e + 1] = Math.atan2(-dy, -dx);
+                offsets[u + 1]++;
+                offsets[v + 1]++;
+            }
+            for (int v = 0; v < vertices.size; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] adjacency = new int[edgeCount * 2];
+            int[] fill = Arrays.copyOf(offsets, vertices.size);
+            for (int h = 0; h < edgeCount * 2; h++) {
+                adjacency[fill[origins[h]]++] = h;
+            }
+
+            int[] positions = new int[edgeCount * 2];
+            for (int v = 0; v < vertices.size; v++) {
+                int from = offsets[v];
+                int to = offsets[v + 1];
+                for (int i = from + 1; i < to; i++) {
+                    int h = adjacency[i];
+                    int j = i;
+                    while (j > from && angles[adjacency[j - 1]] > angles[h]) {
+                        adjacency[j] = adjacency[j - 1];
+                        j--;
+                    }
+                    adjacency[j] = h;
+                }
+                for (int i = from; i < to; i++) {
+                    positions[adjacency[i]] = i - from;
+                }
+            }
+            return new Graph(origins, offsets, adjacency, positions, edgeLayers.toArray());
+        }
+
+        int halfEdgeCount() {
+            return origins.length;
+        }
+
+        int origin(int halfEdge) {
+            return origins[halfEdge];
+        }
+
+        int next(int halfEdge) {
+            int twin = halfEdge ^ 1;
+            int vertex = origins[twin];
+            int from = offsets[vertex];
+            int degree = offsets[vertex + 1] - from;
+            int position = positions[twin] - 1;
+            return adjacency[from + (position < 0 ? degree - 1 : position)];
+        }
+
+        int[] components(int vertexCount) {
+            int[] parents = new int[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                parents[v] = v;
+            }
+            for (int h = 0; h < origins.length; h += 2) {
+                int a = find(parents, origins[h]);
+                int b = find(parents, origins[h + 1]);
+                if (a != b) {
+                    parents[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                parents[v] = find(parents, v);
+            }
+            return parents;
+        }
+
+        private static int find(int[] parents, int v) {
+            while (parents[v] != v) {
+                parents[v] = parents[parents[v]];
+                v = parents[v];
+            }
+            return v;
+        }
+    }
+}
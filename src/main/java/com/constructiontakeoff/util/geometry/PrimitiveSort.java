@@ -0,0 +1,148 @@
+package com.constructiontakeoff.util.geometry;
+
+// Median-of-three quicksort over primitive arrays with an insertion sort for short ranges. Bounds are inclusive;
+// the value array is permuted alongside the keys.
+final class PrimitiveSort {
+    private static final int INSERTION_THRESHOLD = 16;
+
+    interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private PrimitiveSort() {
+    }
+
+    static void sort(double[] keys, int[] values, int left, int right) {
+        while (right - left > INSERTION_THRESHOLD) {
+            double a = keys[left];
+            double b = keys[(left + right) >>> 1];
+            double c = keys[right];
+            double pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            if (j - left < right - i) {
+                sort(keys, values, left, j);
+                left = i;
+            } else {
+                sort(keys, values, i, right);
+                right = j;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    static void sort(long[] keys, int[] values, int left, int right) {
+        while (right - left > INSERTION_THRESHOLD) {
+            long a = keys[left];
+            long b = keys[(left + right) >>> 1];
+            long c = keys[right];
+            long pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            if (j - left < right - i) {
+                sort(keys, values, left, j);
+                left = i;
+            } else {
+                sort(keys, values, i, right);
+                right = j;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    static void sort(int[] indices, int left, int right, IndexComparator comparator) {
+        while (right - left > INSERTION_THRESHOLD) {
+            int pivot = median(indices[left], indices[(left + right) >>> 1], indices[right], comparator);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (comparator.compare(indices[i], pivot) < 0) {
+                    i++;
+                }
+                while (comparator.compare(indices[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(indices, i++, j--);
+                }
+            }
+            if (j - left < right - i) {
+                sort(indices, left, j, comparator);
+                left = i;
+            } else {
+                sort(indices, i, right, comparator);
+                right = j;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && comparator.compare(indices[j - 1], indices[j]) > 0; j--) {
+                swap(indices, j - 1, j);
+            }
+        }
+    }
+
+    private static int median(int a, int b, int c, IndexComparator comparator) {
+        if (comparator.compare(a, b) > 0) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        if (comparator.compare(b, c) > 0) {
+            b = c;
+            if (comparator.compare(a, b) > 0) {
+                b = a;
+            }
+        }
+        return b;
+    }
+
+    private static void swap(double[] keys, int[] values, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        swap(values, i, j);
+    }
+
+    private static void swap(long[] keys, int[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        swap(values, i, j);
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
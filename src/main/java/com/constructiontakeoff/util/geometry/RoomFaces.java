@@ -0,0 +1,221 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Arrays;
+
+public class RoomFaces {
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] loopStarts;
+    private final int[] loopVertices;
+    private final int[] roomLoops;
+    private final double[] grossAreas;
+    private final double[] areas;
+    private final int[] layerIds;
+    private final int[] components;
+    private final int[] holeHeads;
+    private final int[] holeNext;
+    private final String[] tags;
+    private final PackedRTree tree;
+
+    private RoomFaces(double[] xs, double[] ys, int[] loopStarts, int[] loopVertices, int[] roomLoops,
+            double[] grossAreas, double[] areas, int[] layerIds, int[] components, int[] holeHeads,
+            int[] holeNext) {
+        this.xs = xs;
+        this.ys = ys;
+        this.loopStarts = loopStarts;
+        this.loopVertices = loopVertices;
+        this.roomLoops = roomLoops;
+        this.grossAreas = grossAreas;
+        this.areas = areas;
+        this.layerIds = layerIds;
+        this.components = components;
+        this.holeHeads = holeHeads;
+        this.holeNext = holeNext;
+        this.tags = new String[roomLoops.length];
+
+        int count = roomLoops.length;
+        double[] minXs = new double[count];
+        double[] minYs = new double[count];
+        double[] maxXs = new double[count];
+        double[] maxYs = new double[count];
+        for (int room = 0; room < count; room++) {
+            int loop = roomLoops[room];
+            minXs[room] = Double.POSITIVE_INFINITY;
+            minYs[room] = Double.POSITIVE_INFINITY;
+            maxXs[room] = Double.NEGATIVE_INFINITY;
+            maxYs[room] = Double.NEGATIVE_INFINITY;
+            for (int k = loopStarts[loop]; k < loopStarts[loop + 1]; k++) {
+                int vertex = loopVertices[k];
+                minXs[room] = Math.min(minXs[room], xs[vertex]);
+                minYs[room] = Math.min(minYs[room], ys[vertex]);
+                maxXs[room] = Math.max(maxXs[room], xs[vertex]);
+                maxYs[room] = Math.max(maxYs[room], ys[vertex]);
+            }
+        }
+        this.tree = PackedRTree.build(minXs, minYs, maxXs, maxYs, count);
+    }
+
+    static RoomFaces build(double[] xs, double[] ys, int[] loopStarts, int[] loopVertices, double[] loopAreas,
+            double[] loopPerimeters, int[] loopLayers, int[] vertexComponents, double minArea, double minWidth) {
+        int loopCount = loopAreas.length;
+        int faceCount = 0;
+        for (double area : loopAreas) {
+            if (area > 0) {
+                faceCount++;
+            }
+        }
+        int[] faceLoops = new int[faceCount];
+        faceCount = 0;
+        for (int loop = 0; loop < loopCount; loop++) {
+            if (loopAreas[loop] > 0) {
+                faceLoops[faceCount++] = loop;
+            }
+        }
+
+        int[] holeNext = new int[loopCount];
+        int[] faceHoles = new int[faceCount];
+        Arrays.fill(faceHoles, -1);
+        RoomFaces faces = create(xs, ys, loopStarts, loopVertices, faceLoops, loopAreas, loopLayers,
+                vertexComponents, faceHoles, holeNext);
+        double[] netAreas = faces.areas;
+        double[] perimeters = new double[faceCount];
+        for (int face = 0; face < faceCount; face++) {
+            perimeters[face] = loopPerimeters[faceLoops[face]];
+        }
+        for (int loop = 0; loop < loopCount; loop++) {
+            if (loopAreas[loop] >= 0) {
+                continue;
+            }
+            int vertex = loopVertices[loopStarts[loop]];
+            int face = faces.locate(xs[vertex], ys[vertex], vertexComponents[vertex]);
+            if (face >= 0) {
+                netAreas[face] += loopAreas[loop];
+                perimeters[face] += loopPerimeters[loop];
+                holeNext[loop] = faceHoles[face];
+                faceHoles[face] = loop;
+            }
+        }
+
+        int roomCount = 0;
+        int[] kept = new int[faceCount];
+        for (int face = 0; face < faceCount; face++) {
+            if (netAreas[face] >= minArea && 2 * netAreas[face] >= minWidth * perimeters[face]) {
+                kept[roomCount++] = face;
+            }
+        }
+        int[] roomLoops = new int[roomCount];
+        int[] roomHoles = new int[roomCount];
+        double[] roomAreas = new double[roomCount];
+        for (int room = 0; room < roomCount; room++) {
+            roomLoops[room] = faceLoops[kept[room]];
+            roomHoles[room] = faceHoles[kept[room]];
+            roomAreas[room] = netAreas[kept[room]];
+        }
+        RoomFaces rooms = create(xs, ys, loopStarts, loopVertices, roomLoops, loopAreas, loopLayers,
+                vertexComponents, roomHoles, holeNext);
+        System.arraycopy(roomAreas, 0, rooms.areas, 0, roomCount);
+        return rooms;
+    }
+
+    private static RoomFaces create(double[] xs, double[] ys, int[] loopStarts, int[] loopVertices,
+            int[] roomLoops, double[] loopAreas, int[] loopLayers, int[] vertexComponents, int[] holeHeads,
+            int[] holeNext) {
+        int count = roomLoops.length;
+        double[] grossAreas = new double[count];
+        int[] layerIds = new int[count];
+        int[] components = new int[count];
+        for (int room = 0; room < count; room++) {
+            int loop = roomLoops[room];
+            grossAreas[room] = loopAreas[loop];
+            layerIds[room] = loopLayers[loop];
+            components[room] = vertexComponents[loopVertices[loopStarts[loop]]];
+        }
+        return new RoomFaces(xs, ys, loopStarts, loopVertices, roomLoops, grossAreas, grossAreas.clone(), layerIds,
+                components, holeHeads, holeNext);
+    }
+
+    public int size() {
+        return roomLoops.length;
+    }
+
+    public double getArea(int room) {
+        return areas[room];
+    }
+
+    public double getGrossArea(int room) {
+        return grossAreas[room];
+    }
+
+    public int getLayerId(int room) {
+        return layerIds[room];
+    }
+
+    public String getTag(int room) {
+        return tags[room];
+    }
+
+    public int getVertexCount(int room) {
+        int loop = roomLoops[room];
+        return loopStarts[loop + 1] - loopStarts[loop];
+    }
+
+    public double getX(int room, int vertex) {
+        return xs[loopVertices[loopStarts[roomLoops[room]] + vertex]];
+    }
+
+    public double getY(int room, int vertex) {
+        return ys[loopVertices[loopStarts[roomLoops[room]] + vertex]];
+    }
+
+    public int locate(double x, double y) {
+        return locate(x, y, -1);
+    }
+
+    public int assignTag(double x, double y, String tag) {
+        int room = locate(x, y);
+        if (room >= 0 && tags[room] == null) {
+            tags[room] = tag;
+        }
+        return room;
+    }
+
+    private int locate(double x, double y, int excludedComponent) {
+        int best = -1;
+        for (int room : tree.searchPoint(x, y, 0.0)) {
+            if (components[room] == excludedComponent || !contains(roomLoops[room], x, y)
+                    || insideHole(room, x, y)) {
+                continue;
+            }
+            if (best < 0 || grossAreas[room] < grossAreas[best]
+                    || grossAreas[room] == grossAreas[best] && room < best) {
+                best = room;
+            }
+        }
+        return best;
+    }
+
+    private boolean insideHole(int room, double x, double y) {
+        for (int hole = holeHeads[room]; hole >= 0; hole = holeNext[hole]) {
+            if (contains(hole, x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(int loop, double x, double y) {
+        boolean inside = false;
+        int from = loopStarts[loop];
+        int to = loopStarts[loop + 1];
+        for (int k = from, previous = to - 1; k < to; previous = k++) {
+            double xi = xs[loopVertices[k]];
+            double yi = ys[loopVertices[k]];
+            double xj = xs[loopVertices[previous]];
+            double yj = ys[loopVertices[previous]];
+            if (yi > y != yj > y && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
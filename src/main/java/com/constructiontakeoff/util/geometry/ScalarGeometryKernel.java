@@ -0,0 +1,37 @@
+package com.constructiontakeoff.util.geometry;
+
+public class ScalarGeometryKernel implements GeometryKernel {
+
+    @Override
+    public double sumSegmentLengths(double[] xs, double[] ys, int from, int to) {
+        return segmentLengths(xs, ys, from, to);
+    }
+
+    @Override
+    public double sumCrossProducts(double[] xs, double[] ys, int from, int to) {
+        return crossProducts(xs, ys, from, to);
+    }
+
+    static double segmentLengths(double[] xs, double[] ys, int from, int to) {
+        double total = 0;
+        for (int i = from + 1; i < to; i++) {
+            double dx = xs[i] - xs[i - 1];
+            double dy = ys[i] - ys[i - 1];
+            total += Math.sqrt(dx * dx + dy * dy);
+        }
+        return total;
+    }
+
+    static double crossProducts(double[] xs, double[] ys, int from, int to) {
+        double sum = 0;
+        for (int i = from + 1; i < to; i++) {
+            sum += (xs[i - 1] * ys[i]) - (xs[i] * ys[i - 1]);
+        }
+        return sum;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,182 @@
+package com.constructiontakeoff.util.geometry;
+
+public class SplineGeometry {
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+    private static final double ENDPOINT_TOLERANCE = 0.0001;
+
+    private final int degree;
+    private final double[] knots;
+    private final double[] weights;
+    private final double[] xs;
+    private final double[] ys;
+    private final int count;
+
+    private final double[] left;
+    private final double[] right;
+    private final double[] ndu;
+    private final double[] basis;
+    private final double[] derivative;
+    private final double[] point = new double[4];
+
+    public SplineGeometry(int degree, double[] knots, double[] weights, int weightCount, double[] xs, double[] ys,
+            int count) {
+        this.degree = degree;
+        this.knots = knots;
+        this.weights = weightCount == count ? weights : null;
+        this.xs = xs;
+        this.ys = ys;
+        this.count = count;
+        this.left = new double[degree + 1];
+        this.right = new double[degree + 1];
+        this.ndu = new double[(degree + 1) * (degree + 1)];
+        this.basis = new double[degree + 1];
+        this.derivative = new double[degree + 1];
+    }
+
+    public static boolean isValid(int degree, int knotCount, int count) {
+        return degree >= 1 && count > degree && knotCount == count + degree + 1;
+    }
+
+    public boolean isClosedByEndpoints() {
+        double startX;
+        double startY;
+        evaluate(degree, knots[degree]);
+        startX = point[0];
+        startY = point[1];
+        evaluate(lastSpan(), knots[count]);
+        return Math.abs(point[0] - startX) < ENDPOINT_TOLERANCE && Math.abs(point[1] - startY) < ENDPOINT_TOLERANCE;
+    }
+
+    public double length() {
+        double tolerance = RELATIVE_TOLERANCE * Math.max(controlPolygonLength(), ENDPOINT_TOLERANCE);
+        double range = knots[count] - knots[degree];
+        double total = 0.0;
+        for (int span = degree; span < count; span++) {
+            double from = knots[span];
+            double to = knots[span + 1];
+            if (to <= from) {
+                continue;
+            }
+            int current = span;
+            total += AdaptiveQuadrature.integrate(u -> {
+                evaluate(current, u);
+                return Math.sqrt(point[2] * point[2] + point[3] * point[3]);
+            }, from, to, tolerance * (to - from) / range);
+        }
+        return total;
+    }
+
+    public double area() {
+        evaluate(degree, knots[degree]);
+        double startX = point[0];
+        double startY = point[1];
+        evaluate(lastSpan(), knots[count]);
+        return Math.abs(areaTerm() + 0.5 * (point[0] * startY - startX * point[1]));
+    }
+
+    public double areaTerm() {
+        double extent = Math.max(controlPolygonLength(), ENDPOINT_TOLERANCE);
+        double tolerance = RELATIVE_TOLERANCE * extent * extent;
+        double range = knots[count] - knots[degree];
+        double twiceArea = 0.0;
+        for (int span = degree; span < count; span++) {
+            double from = knots[span];
+            double to = knots[span + 1];
+            if (to <= from) {
+                continue;
+            }
+            int current = span;
+            twiceArea += AdaptiveQuadrature.integrate(u -> {
+                evaluate(current, u);
+                return point[0] * point[3] - point[1] * point[2];
+            }, from, to, tolerance * (to - from) / range);
+        }
+        return twiceArea / 2.0;
+    }
+
+    private int lastSpan() {
+        int span = count - 1;
+        while (span > degree && knots[span] >= knots[span + 1]) {
+            span--;
+        }
+        return span;
+    }
+
+    private double controlPolygonLength() {
+        double total = 0.0;
+        for (int i = 1; i < count; i++) {
+            double dx = xs[i] - xs[i - 1];
+            double dy = ys[i] - ys[i - 1];
+            total += Math.sqrt(dx * dx + dy * dy);
+        }
+        return total;
+    }
+
+    private void evaluate(int span, double u) {
+        basisFunctions(span, u);
+
+        double ax = 0.0;
+        double ay = 0.0;
+        double w = 0.0;
+        double dax = 0.0;
+        double day = 0.0;
+        double dw = 0.0;
+        int first = span - degree;
+        for (int r = 0; r <= degree; r++) {
+            int i = first + r;
+            double weight = weights != null ? weights[i] : 1.0;
+            double n = basis[r] * weight;
+            double dn = derivative[r] * weight;
+            ax += n * xs[i];
+            ay += n * ys[i];
+            w += n;
+            dax += dn * xs[i];
+            day += dn * ys[i];
+            dw += dn;
+        }
+
+        double x = ax / w;
+        double y = ay / w;
+        point[0] = x;
+        point[1] = y;
+        point[2] = (dax - dw * x) / w;
+        point[3] = (day - dw * y) / w;
+    }
+
+    private void basisFunctions(int span, double u) {
+        int p = degree;
+        int stride = p + 1;
+        ndu[0] = 1.0;
+        for (int j = 1; j <= p; j++) {
+            left[j] = u - knots[span + 1 - j];
+            right[j] = knots[span + j] - u;
+            double saved = 0.0;
+            for (int r = 0; r < j; r++) {
+                double difference = right[r + 1] + left[j - r];
+                ndu[j * stride + r] = difference;
+                double temp = difference != 0 ? ndu[r * stride + j - 1] / difference : 0.0;
+                ndu[r * stride + j] = saved + right[r + 1] * temp;
+                saved = left[j - r] * temp;
+            }
+            ndu[j * stride + j] = saved;
+        }
+
+        for (int r = 0; r <= p; r++) {
+            basis[r] = ndu[r * stride + p];
+            double d = 0.0;
+            if (r >= 1) {
+                double difference = ndu[p * stride + r - 1];
+                if (difference != 0) {
+                    d += ndu[(r - 1) * stride + p - 1] / difference;
+                }
+            }
+            if (r < p) {
+                double difference = ndu[p * stride + r];
+                if (difference != 0) {
+                    d -= ndu[r * stride + p - 1] / difference;
+                }
+            }
+            derivative[r] = d * p;
+        }
+    }
+}
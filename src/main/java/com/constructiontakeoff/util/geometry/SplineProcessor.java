@@ -0,0 +1,188 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.dxf.DxfEntity;
+import com.constructiontakeoff.util.dxf.DxfParsingException;
+import com.constructiontakeoff.util.material.MaterialProvider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class SplineProcessor implements EntityProcessor {
+    private static final Logger logger = Logger.getLogger(SplineProcessor.class.getName());
+    private static final int DEFAULT_CACHE_CAPACITY = 4096;
+    private static final double MIN_CLOSED_AREA = 0.01;
+    private static final double KEY_RESOLUTION = 1e6;
+
+    private final MaterialProvider materialProvider;
+    private final Map<String, Double> materialScaleFactors;
+    private final Map<Long, double[]> cache;
+    private final int cacheCapacity;
+    private final boolean deterministic;
+    private final AtomicLong cacheHits = new AtomicLong(0);
+    private final AtomicLong cacheMisses = new AtomicLong(0);
+
+    public SplineProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors) {
+        this(materialProvider, materialScaleFactors, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public SplineProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors,
+            boolean deterministic) {
+        this(materialProvider, materialScaleFactors, DEFAULT_CACHE_CAPACITY, deterministic);
+    }
+
+    public SplineProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors,
+            int cacheCapacity) {
+        this(materialProvider, materialScaleFactors, cacheCapacity, false);
+    }
+
+    public SplineProcessor(MaterialProvider materialProvider, Map<String, Double> materialScaleFactors,
+            int cacheCapacity, boolean deterministic) {
+        this.materialProvider = materialProvider;
+        this.materialScaleFactors = materialScaleFactors;
+        this.cacheCapacity = cacheCapacity;
+        this.deterministic = deterministic;
+        this.cache = new LinkedHashMap<Long, double[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, double[]> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    @Override
+    public void process(DxfEntity entity, LayerInfoTable layerInfos) throws DxfParsingException {
+
+        int count = entity.getVertexCount();
+        if (count < 2) {
+            throw DxfParsingException.invalidCoordinates("SPLINE");
+        }
+        if (!SplineGeometry.isValid(entity.getDegree(), entity.getKnotCount(), count)) {
+            throw DxfParsingException.invalidEntityData("SPLINE", "degree " + entity.getDegree() + " with "
+                    + entity.getKnotCount() + " knots and " + count + " control points");
+        }
+
+        LayerInfo layerInfo = layerInfos.get(entity.getLayerId());
+        if (layerInfo == null) {
+            String layer = entity.getLayer();
+            layerInfo = layerInfos.register(entity.getLayerId(), layer, materialProvider.getMaterial(layer));
+        }
+        String layer = layerInfo.getLayerName();
+        String material = layerInfo.getMaterial();
+        double scaleFactor = materialScaleFactors.getOrDefault(material, 1.0);
+
+        double[] measures = measure(entity);
+        if (measures[1] > MIN_CLOSED_AREA) {
+            double scaledArea = measures[1] * scaleFactor;
+            layerInfos.addArea(entity.getLayerId(), scaledArea);
+            layerInfos.increment(entity.getLayerId(), EntityType.SPLINE);
+
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Processed closed SPLINE with area: " + scaledArea + " on layer: " + layer
+                        + " for material: " + material);
+            }
+            return;
+        }
+
+        double scaledLength = measures[0] * scaleFactor;
+
+        layerInfos.addLength(entity.getLayerId(), scaledLength);
+
+        layerInfos.increment(entity.getLayerId(), EntityType.SPLINE);
+
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Processed SPLINE with length: " + scaledLength + " on layer: " + layer
+                    + " for material: " + material);
+        }
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    private double[] measure(DxfEntity entity) {
+        if (cacheCapacity <= 0) {
+            return computeMeasures(entity);
+        }
+
+        long key = shapeKey(entity, deterministic);
+        synchronized (cache) {
+            double[] cached = cache.get(key);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        cacheMisses.incrementAndGet();
+        double[] measures = deterministic ? computeRelativeMeasures(entity) : computeMeasures(entity);
+        synchronized (cache) {
+            cache.put(key, measures);
+        }
+        return measures;
+    }
+
+    public static double[] computeMeasures(DxfEntity entity) {
+        return computeMeasures(entity, entity.xs(), entity.ys());
+    }
+
+    private static double[] computeRelativeMeasures(DxfEntity entity) {
+        int count = entity.getVertexCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = entity.xs()[i] - entity.xs()[0];
+            ys[i] = entity.ys()[i] - entity.ys()[0];
+        }
+        return computeMeasures(entity, xs, ys);
+    }
+
+    private static double[] computeMeasures(DxfEntity entity, double[] xs, double[] ys) {
+        SplineGeometry spline = new SplineGeometry(entity.getDegree(), entity.knots(), entity.weights(),
+                entity.getWeightCount(), xs, ys, entity.getVertexCount());
+        boolean closed = entity.isClosed() || spline.isClosedByEndpoints();
+        return new double[] { spline.length(), closed ? spline.area() : 0.0 };
+    }
+
+    private static long shapeKey(DxfEntity entity, boolean exact) {
+        int count = entity.getVertexCount();
+        double[] xs = entity.xs();
+        double[] ys = entity.ys();
+        double[] knots = entity.knots();
+        double[] weights = entity.weights();
+
+        long hash = mix(entity.getDegree() * 31L + (entity.getFlags() & 1));
+        for (int i = 0; i < entity.getKnotCount(); i++) {
+            hash = mix(hash ^ Double.doubleToLongBits(knots[i]));
+        }
+        for (int i = 0; i < entity.getWeightCount(); i++) {
+            hash = mix(hash ^ Double.doubleToLongBits(weights[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            double dx = xs[i] - xs[0];
+            double dy = ys[i] - ys[0];
+            hash = mix(hash ^ (exact ? Double.doubleToLongBits(dx) : Math.round(dx * KEY_RESOLUTION)));
+            hash = mix(hash ^ (exact ? Double.doubleToLongBits(dy) : Math.round(dy * KEY_RESOLUTION)));
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.SPLINE;
+    }
+}
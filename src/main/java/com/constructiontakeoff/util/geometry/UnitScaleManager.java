@@ -121,8 +121,8 @@ public class UnitScaleManager {
 
     public boolean detectScaleFromText(List<Map<String, String>> textEntities) {
         for (Map<String, String> text : textEntities) {
-            if (text.containsKey("TEXT")) {
-                String content = text.get("TEXT");
+            if (text.containsKey("content")) {
+                String content = text.get("content");
                 Matcher matcher = SCALE_PATTERN.matcher(content);
                 if (matcher.find()) {
                     double scaleValue;
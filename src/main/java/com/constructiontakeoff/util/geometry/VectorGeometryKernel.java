@@ -0,0 +1,51 @@
+package com.constructiontakeoff.util.geometry;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorGeometryKernel implements GeometryKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int MIN_VECTOR_COUNT = 4 * SPECIES.length();
+
+    @Override
+    public double sumSegmentLengths(double[] xs, double[] ys, int from, int to) {
+        if (to - from < MIN_VECTOR_COUNT) {
+            return ScalarGeometryKernel.segmentLengths(xs, ys, from, to);
+        }
+
+        int bound = from + SPECIES.loopBound(to - from - 1);
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int i = from;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, i + 1).sub(DoubleVector.fromArray(SPECIES, xs, i));
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, i + 1).sub(DoubleVector.fromArray(SPECIES, ys, i));
+            sum = sum.add(dx.mul(dx).add(dy.mul(dy)).sqrt());
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + ScalarGeometryKernel.segmentLengths(xs, ys, i, to);
+    }
+
+    @Override
+    public double sumCrossProducts(double[] xs, double[] ys, int from, int to) {
+        if (to - from < MIN_VECTOR_COUNT) {
+            return ScalarGeometryKernel.crossProducts(xs, ys, from, to);
+        }
+
+        int bound = from + SPECIES.loopBound(to - from - 1);
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int i = from;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector x0 = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector y0 = DoubleVector.fromArray(SPECIES, ys, i);
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, xs, i + 1);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, ys, i + 1);
+            sum = sum.add(x0.mul(y1).sub(x1.mul(y0)));
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + ScalarGeometryKernel.crossProducts(xs, ys, i, to);
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+}
@@ -0,0 +1,435 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+public class WallCenterlineExtractor {
+    public static final double DEFAULT_ANGLE_TOLERANCE = Math.toRadians(1.0);
+
+    private static final int FACES_PER_TASK = 4096;
+    private static final double EPSILON = 1e-9;
+
+    private final double minThickness;
+    private final double maxThickness;
+    private final double thicknessResolution;
+    private final double minCosine;
+
+    public WallCenterlineExtractor(double minThickness, double maxThickness, double thicknessResolution) {
+        this(minThickness, maxThickness, thicknessResolution, DEFAULT_ANGLE_TOLERANCE);
+    }
+
+    public WallCenterlineExtractor(double minThickness, double maxThickness, double thicknessResolution,
+            double angleTolerance) {
+        if (!(minThickness >= 0) || !(maxThickness > minThickness) || !(thicknessResolution > 0)) {
+            throw new IllegalArgumentException("Invalid wall thickness band: " + minThickness + " - " + maxThickness
+                    + " at resolution " + thicknessResolution);
+        }
+        this.minThickness = minThickness;
+        this.maxThickness = maxThickness;
+        this.thicknessResolution = thicknessResolution;
+        this.minCosine = Math.cos(angleTolerance);
+    }
+
+    public WallCenterlines extract(int[] layerIds, double[] x1s, double[] y1s, double[] x2s, double[] y2s, int count,
+            int layerCount, ForkJoinPool pool) {
+        Faces faces = new Faces(layerIds, x1s, y1s, x2s, y2s, count);
+        PackedRTree tree = PackedRTree.build(faces.minXs, faces.minYs, faces.maxXs, faces.maxYs, count);
+
+        int taskCount = (count + FACES_PER_TASK - 1) / FACES_PER_TASK;
+        Candidates[] found = new Candidates[taskCount];
+        if (pool != null && taskCount > 1) {
+            pool.invoke(new SearchTask(faces, tree, found, 0, taskCount));
+        } else {
+            for (int task = 0; task < taskCount; task++) {
+                found[task] = search(faces, tree, task);
+            }
+        }
+
+        Candidates candidates = Candidates.concat(found);
+        double[] support = new double[binCount()];
+        for (int c = 0; c < candidates.size; c++) {
+            support[bin(candidates.distances[c])] += candidates.ends[c] - candidates.starts[c];
+        }
+        candidates.sortBySupport(support, thicknessResolution);
+        return pair(faces, candidates, layerCount);
+    }
+
+    private Candidates search(Faces faces, PackedRTree tree, int task) {
+        int from = task * FACES_PER_TASK;
+        int to = Math.min(from + FACES_PER_TASK, faces.count);
+        CandidateSearch search = new CandidateSearch(faces);
+        for (int position = from; position < to; position++) {
+            int face = tree.itemAt(position);
+            if (faces.lengths[face] <= EPSILON) {
+                continue;
+            }
+            search.face = face;
+            tree.search(faces.minXs[face] - maxThickness, faces.minYs[face] - maxThickness,
+                    faces.maxXs[face] + maxThickness, faces.maxYs[face] + maxThickness, search);
+        }
+        return search.candidates;
+    }
+
+    private WallCenterlines pair(Faces faces, Candidates candidates, int layerCount) {
+        double[] centerlines = new double[layerCount];
+        double[][] thicknessBins = new double[layerCount][];
+        Coverage coverage = new Coverage(faces.count);
+        int pairCount = 0;
+
+        for (int k = 0; k < candidates.size; k++) {
+            int c = candidates.order[k];
+            int first = candidates.firsts[c];
+            int second = candidates.seconds[c];
+            double paired = coverage.claim(first, second, candidates.starts[c], candidates.ends[c],
+                    candidates.origins[c], candidates.dots[c]);
+            if (paired > 0) {
+                int layer = faces.layers[first];
+                if (thicknessBins[layer] == null) {
+                    thicknessBins[layer] = new double[binCount()];
+                }
+                centerlines[layer] += paired;
+                thicknessBins[layer][bin(candidates.distances[c])] += paired;
+                pairCount++;
+            }
+        }
+
+        double[] unpaired = new double[layerCount];
+        for (int face = 0; face < faces.count; face++) {
+            unpaired[faces.layers[face]] += Math.max(0.0, faces.lengths[face] - coverage.covered(face));
+        }
+
+        List<SortedMap<Double, Double>> distributions = new ArrayList<>(layerCount);
+        for (double[] bins : thicknessBins) {
+            SortedMap<Double, Double> distribution = new TreeMap<>();
+            for (int bin = 0; bins != null && bin < bins.length; bin++) {
+                if (bins[bin] > 0) {
+                    distribution.put(bin * thicknessResolution, bins[bin]);
+                }
+            }
+            distributions.add(distribution);
+        }
+        return new WallCenterlines(centerlines, unpaired, distributions, pairCount);
+    }
+
+    private int binCount() {
+        return (int) Math.ceil(maxThickness / thicknessResolution) + 1;
+    }
+
+    private int bin(double thickness) {
+        return (int) Math.round(thickness / thicknessResolution);
+    }
+
+    private static final class Faces {
+        final int count;
+        final int[] layers;
+        final double[] x1s;
+        final double[] y1s;
+        final double[] uxs;
+        final double[] uys;
+        final double[] lengths;
+        final double[] minXs;
+        final double[] minYs;
+        final double[] maxXs;
+        final double[] maxYs;
+
+        Faces(int[] layerIds, double[] x1s, double[] y1s, double[] x2s, double[] y2s, int count) {
+            this.count = count;
+            this.layers = layerIds;
+            this.x1s = x1s;
+            this.y1s = y1s;
+            this.uxs = new double[count];
+            this.uys = new double[count];
+            this.lengths = new double[count];
+            this.minXs = new double[count];
+            this.minYs = new double[count];
+            this.maxXs = new double[count];
+            this.maxYs = new double[count];
+            for (int i = 0; i < count; i++) {
+                double dx = x2s[i] - x1s[i];
+                double dy = y2s[i] - y1s[i];
+                double length = Math.hypot(dx, dy);
+                lengths[i] = length;
+                if (length > EPSILON) {
+                    uxs[i] = dx / length;
+                    uys[i] = dy / length;
+                }
+                minXs[i] = Math.min(x1s[i], x2s[i]);
+                minYs[i] = Math.min(y1s[i], y2s[i]);
+                maxXs[i] = Math.max(x1s[i], x2s[i]);
+                maxYs[i] = Math.max(y1s[i], y2s[i]);
+            }
+        }
+    }
+
+    private final class CandidateSearch implements IntConsumer {
+        private final Faces faces;
+        private final Candidates candidates = new Candidates();
+        int face;
+
+        CandidateSearch(Faces faces) {
+            this.faces = faces;
+        }
+
+        @Override
+        public void accept(int other) {
+            if (other <= face || faces.layers[other] != faces.layers[face] || faces.lengths[other] <= EPSILON) {
+                return;
+            }
+            double ux = faces.uxs[face];
+            double uy = faces.uys[face];
+            double dot = ux * faces.uxs[other] + uy * faces.uys[other];
+            if (Math.abs(dot) < minCosine) {
+                return;
+            }
+
+            double ax = faces.x1s[other] - faces.x1s[face];
+            double ay = faces.y1s[other] - faces.y1s[face];
+            double bx = ax + faces.uxs[other] * faces.lengths[other];
+            double by = ay + faces.uys[other] * faces.lengths[other];
+            double side1 = ux * ay - uy * ax;
+            double side2 = ux * by - uy * bx;
+            if (side1 > 0 != side2 > 0 || side1 == 0 && side2 == 0) {
+                return;
+            }
+            double distance = (Math.abs(side1) + Math.abs(side2)) * 0.5;
+            if (distance < minThickness || distance > maxThickness) {
+                return;
+            }
+
+            double origin = ux * ax + uy * ay;
+            double end = ux * bx + uy * by;
+            double start = Math.max(0.0, Math.min(origin, end));
+            double stop = Math.min(faces.lengths[face], Math.max(origin, end));
+            if (stop - start <= EPSILON) {
+                return;
+            }
+            candidates.add(face, other, distance, start, stop, origin, dot);
+        }
+    }
+
+    private static final class Candidates {
+        int size;
+        int[] firsts = new int[64];
+        int[] seconds = new int[64];
+        double[] distances = new double[64];
+        double[] starts = new double[64];
+        double[] ends = new double[64];
+        double[] origins = new double[64];
+        double[] dots = new double[64];
+        int[] order;
+        double[] supports;
+
+        void add(int first, int second, double distance, double start, double end, double origin, double dot) {
+            if (size == firsts.length) {
+                grow(size * 2);
+            }
+            firsts[size] = first;
+            seconds[size] = second;
+            distances[size] = distance;
+            starts[size] = start;
+            ends[size] = end;
+            origins[size] = origin;
+            dots[size] = dot;
+            size++;
+        }
+
+        static Candidates concat(Candidates[] parts) {
+            Candidates all = new Candidates();
+            int total = 0;
+            for (Candidates part : parts) {
+                total += part.size;
+            }
+            all.grow(Math.max(total, 1));
+            for (Candidates part : parts) {
+                System.arraycopy(part.firsts, 0, all.firsts, all.size, part.size);
+                System.arraycopy(part.seconds, 0, all.seconds, all.size, part.size);
+                System.arraycopy(part.distances, 0, all.distances, all.size, part.size);
+                System.arraycopy(part.starts, 0, all.starts, all.size, part.size);
+                System.arraycopy(part.ends, 0, all.ends, all.size, part.size);
+                System.arraycopy(part.origins, 0, all.origins, all.size, part.size);
+                System.arraycopy(part.dots, 0, all.dots, all.size, part.size);
+                all.size += part.size;
+            }
+            return all;
+        }
+
+        void sortBySupport(double[] binSupport, double resolution) {
+            order = new int[size];
+            supports = new double[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+                supports[i] = binSupport[(int) Math.round(distances[i] / resolution)];
+            }
+            PrimitiveSort.sort(order, 0, size - 1, this::compare);
+        }
+
+        private int compare(int a, int b) {
+            if (supports[a] != supports[b]) {
+                return Double.compare(supports[b], supports[a]);
+            }
+            if (distances[a] != distances[b]) {
+                return Double.compare(distances[a], distances[b]);
+            }
+            if (firsts[a] != firsts[b]) {
+                return Integer.compare(firsts[a], firsts[b]);
+            }
+            return Integer.compare(seconds[a], seconds[b]);
+        }
+
+        private void grow(int capacity) {
+            firsts = Arrays.copyOf(firsts, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            origins = Arrays.copyOf(origins, capacity);
+            dots = Arrays.copyOf(dots, capacity);
+        }
+    }
+
+    private static final class Coverage {
+        private final double[][] intervals;
+        private final int[] sizes;
+        private double[] blocked = new double[16];
+
+        Coverage(int faceCount) {
+            this.intervals = new double[faceCount][];
+            this.sizes = new int[faceCount];
+        }
+
+        double claim(int first, int second, double start, double end, double origin, double dot) {
+            int blockedSize = 0;
+            for (int k = 0; k < sizes[first]; k += 2) {
+                blockedSize = block(blockedSize, intervals[first][k], intervals[first][k + 1], start, end);
+            }
+            for (int k = 0; k < sizes[second]; k += 2) {
+                double t1 = origin + intervals[second][k] * dot;
+                double t2 = origin + intervals[second][k + 1] * dot;
+                blockedSize = block(blockedSize, Math.min(t1, t2), Math.max(t1, t2), start, end);
+            }
+            sortBlocked(blockedSize);
+
+            double claimed = 0.0;
+            double cursor = start;
+            for (int k = 0; k <= blockedSize; k += 2) {
+                double freeEnd = k < blockedSize ? blocked[k] : end;
+                if (freeEnd - cursor > EPSILON) {
+                    claimed += freeEnd - cursor;
+                    add(first, cursor, freeEnd);
+                    double s1 = (cursor - origin) / dot;
+                    double s2 = (freeEnd - origin) / dot;
+                    add(second, Math.min(s1, s2), Math.max(s1, s2));
+                }
+                if (k < blockedSize) {
+                    cursor = Math.max(cursor, blocked[k + 1]);
+                }
+            }
+            return claimed;
+        }
+
+        double covered(int face) {
+            double total = 0.0;
+            for (int k = 0; k < sizes[face]; k += 2) {
+                total += intervals[face][k + 1] - intervals[face][k];
+            }
+            return total;
+        }
+
+        private int block(int blockedSize, double from, double to, double start, double end) {
+            from = Math.max(from, start);
+            to = Math.min(to, end);
+            if (to <= from) {
+                return blockedSize;
+            }
+            if (blockedSize == blocked.length) {
+                blocked = Arrays.copyOf(blocked, blockedSize * 2);
+            }
+            blocked[blockedSize] = from;
+            blocked[blockedSize + 1] = to;
+            return blockedSize + 2;
+        }
+
+        private void sortBlocked(int blockedSize) {
+            for (int i = 2; i < blockedSize; i += 2) {
+                double from = blocked[i];
+                double to = blocked[i + 1];
+                int j = i;
+                while (j > 0 && blocked[j - 2] > from) {
+                    blocked[j] = blocked[j - 2];
+                    blocked[j + 1] = blocked[j - 1];
+                    j -= 2;
+                }
+                blocked[j] = from;
+                blocked[j + 1] = to;
+            }
+        }
+
+        private void add(int face, double from, double to) {
+            double[] list = intervals[face];
+            int size = sizes[face];
+            if (list == null) {
+                list = new double[4];
+            } else if (size + 2 > list.length) {
+                list = Arrays.copyOf(list, list.length * 2);
+            }
+
+            int position = 0;
+            while (position < size && list[position] < from) {
+                position += 2;
+            }
+            System.arraycopy(list, position, list, position + 2, size - position);
+            list[position] = from;
+            list[position + 1] = to;
+            size += 2;
+
+            int write = 0;
+            for (int read = 2; read < size; read += 2) {
+                if (list[read] <= list[write + 1] + EPSILON) {
+                    list[write + 1] = Math.max(list[write + 1], list[read + 1]);
+                } else {
+                    write += 2;
+                    list[write] = list[read];
+                    list[write + 1] = list[read + 1];
+                }
+            }
+            intervals[face] = list;
+            sizes[face] = write + 2;
+        }
+    }
+
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Faces faces;
+        private final PackedRTree tree;
+        private final Candidates[] found;
+        private final int from;
+        private final int to;
+
+        SearchTask(Faces faces, PackedRTree tree, Candidates[] found, int from, int to) {
+            this.faces = faces;
+            this.tree = tree;
+            this.found = found;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int task = from; task < to; task++) {
+                    found[task] = search(faces, tree, task);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SearchTask(faces, tree, found, from, mid), new SearchTask(faces, tree, found, mid, to));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.constructiontakeoff.util.geometry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class WallCenterlines {
+    private final double[] centerlineLengths;
+    private final double[] unpairedLengths;
+    private final List<SortedMap<Double, Double>> thicknessDistributions;
+    private final SortedMap<Double, Double> thicknessDistribution;
+    private final int pairCount;
+
+    WallCenterlines(double[] centerlineLengths, double[] unpairedLengths,
+            List<SortedMap<Double, Double>> thicknessDistributions, int pairCount) {
+        this.centerlineLengths = centerlineLengths;
+        this.unpairedLengths = unpairedLengths;
+        this.thicknessDistributions = thicknessDistributions;
+        this.pairCount = pairCount;
+
+        SortedMap<Double, Double> total = new TreeMap<>();
+        for (SortedMap<Double, Double> distribution : thicknessDistributions) {
+            distribution.forEach((thickness, length) -> total.merge(thickness, length, Double::sum));
+        }
+        this.thicknessDistribution = Collections.unmodifiableSortedMap(total);
+    }
+
+    public int getLayerCount() {
+        return centerlineLengths.length;
+    }
+
+    public double getCenterlineLength(int layerId) {
+        return layerId < centerlineLengths.length ? centerlineLengths[layerId] : 0.0;
+    }
+
+    public double getUnpairedLength(int layerId) {
+        return layerId < unpairedLengths.length ? unpairedLengths[layerId] : 0.0;
+    }
+
+    public double getTotalCenterlineLength() {
+        double total = 0.0;
+        for (double length : centerlineLengths) {
+            total += length;
+        }
+        return total;
+    }
+
+    public SortedMap<Double, Double> getThicknessDistribution() {
+        return thicknessDistribution;
+    }
+
+    public SortedMap<Double, Double> getThicknessDistribution(int layerId) {
+        return layerId < thicknessDistributions.size()
+                ? Collections.unmodifiableSortedMap(thicknessDistributions.get(layerId))
+                : Collections.emptySortedMap();
+    }
+
+    public int getPairCount() {
+        return pairCount;
+    }
+}
@@ -0,0 +1,114 @@
+package com.constructiontakeoff.model;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LayerTotalsTest {
+
+    @Test
+    void compensatedSumsKeepSmallTermsNextToLargeOnes() {
+        LayerTotals totals = new LayerTotals();
+        totals.addLength(0, 1e16);
+        for (int i = 0; i < 1000; i++) {
+            totals.addLength(0, 1.0);
+        }
+        totals.addLength(0, -1e16);
+
+        assertEquals(1000.0, totals.getLength(0));
+    }
+
+    @Test
+    void mergingRangePartialsMatchesOneSequentialPass() {
+        LayerTotals sequential = new LayerTotals();
+        LayerTotals first = new LayerTotals();
+        LayerTotals second = new LayerTotals();
+        for (int i = 0; i < 2000; i++) {
+            double length = i % 2 == 0 ? 1e15 + i : 0.1 * i;
+            sequential.addLength(i % 3, length);
+            (i < 1000 ? first : second).addLength(i % 3, length);
+            sequential.addArea(1, 0.01);
+            (i < 1000 ? first : second).addArea(1, 0.01);
+        }
+
+        first.merge(second);
+        for (int layerId = 0; layerId < 3; layerId++) {
+            assertEquals(sequential.getLength(layerId), first.getLength(layerId), 1e-3, "layer " + layerId);
+        }
+        assertEquals(20.0, first.getArea(1), 1e-12);
+        assertEquals(0.0, first.getArea(0));
+    }
+
+    @Test
+    void mergeGrowsToTheOtherSidesLayersAndAddsCounts() {
+        LayerTotals totals = new LayerTotals();
+        totals.increment(1, EntityType.LINE.ordinal(), 2);
+        totals.addDuplicates(1, 1);
+
+        LayerTotals other = new LayerTotals();
+        other.increment(1, EntityType.LINE.ordinal(), 3);
+        other.increment(200, EntityType.HATCH.ordinal());
+        other.addDuplicates(1, 4);
+        other.addArea(200, 12.5);
+
+        totals.merge(other).merge(null).merge(totals);
+        assertEquals(5L, totals.getCount(1, EntityType.LINE.ordinal()));
+        assertEquals(5L, totals.getDuplicateCount(1));
+        assertEquals(1L, totals.getEntityCount(200));
+        assertEquals(12.5, totals.getArea(200));
+        assertEquals(0L, totals.getEntityCount(201));
+    }
+
+    @Test
+    void tableMergeRegistersMissingLayersAndPrefersIncomingMaterials() {
+        LayerInfoTable table = new LayerInfoTable();
+        table.register(0, "A-WALL", "Concrete");
+        table.addLength(0, 10.0);
+        table.increment(0, EntityType.LINE);
+
+        LayerInfoTable range = new LayerInfoTable();
+        range.register(0, "A-WALL", "Masonry");
+        range.register(3, "A-DOOR", null);
+        range.addLength(0, 5.0);
+        range.increment(0, EntityType.POLYLINE);
+        range.increment(3, EntityType.INSERT, 4);
+
+        table.merge(range);
+        List<LayerInfo> layers = table.layers();
+        assertEquals(2, table.size());
+        assertEquals(List.of("A-WALL", "A-DOOR"), List.of(layers.get(0).getLayerName(), layers.get(1).getLayerName()));
+        assertEquals("Masonry", table.get(0).getMaterial());
+        assertNull(table.get(3).getMaterial());
+        assertEquals(15.0, table.get(0).getTotalLength());
+        assertEquals(EntityType.LINE, table.get(0).getPrimaryEntityType());
+        assertEquals(4L, table.get(3).getEntityCount(EntityType.INSERT));
+        assertNull(table.get(7));
+    }
+
+    @Test
+    void drainAppliesMaterialScaleFactorsAndClears() {
+        LayerInfoTable table = new LayerInfoTable();
+        table.register(0, "A-WALL", "Concrete");
+        table.register(1, "A-DOOR", "Timber");
+
+        LayerTotals pending = new LayerTotals();
+        pending.addLength(0, 4.0);
+        pending.addArea(1, 2.0);
+        pending.increment(1, EntityType.HATCH.ordinal(), 2);
+        pending.addDuplicates(0, 3);
+        pending.addLength(5, 99.0);
+
+        pending.drainTo(table, Map.of("Concrete", 1.5));
+        assertEquals(6.0, table.get(0).getTotalLength());
+        assertEquals(2.0, table.get(1).getTotalArea());
+        assertEquals(2L, table.get(1).getEntityCount(EntityType.HATCH));
+        assertEquals(3L, table.get(0).getDuplicateCount());
+        assertEquals(0.0, pending.getLength(0));
+        assertEquals(0L, pending.getEntityCount(1));
+    }
+}
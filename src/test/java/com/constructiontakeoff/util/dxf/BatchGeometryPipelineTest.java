@@ -0,0 +1,148 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.EntityProcessor;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchGeometryPipelineTest {
+    private static final double EPSILON = 1e-9;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesTheLineAndPolylineProcessors() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "mixed.dxf", DxfFixtures.entities(shapes() + scattered()));
+        LayerInfoTable expected = takeoff(dxf, 0);
+
+        assertEquals(2000.0, find(expected, "A-EDGE").getTotalLength(), EPSILON);
+        assertEquals(Math.PI * 25, find(expected, "A-CIRC").getTotalArea(), EPSILON);
+        assertEquals(0.3, find(expected, "A-TINY").getTotalLength(), EPSILON);
+        assertEquals(0.0, find(expected, "A-TINY").getTotalArea());
+
+        for (int batchSize : new int[] { 1, 7, EntityBatch.DEFAULT_CAPACITY }) {
+            assertSameLayers(expected, takeoff(dxf, batchSize), "batch of " + batchSize);
+        }
+    }
+
+    // One of each case the two paths must agree on: zero-length and diagonal lines, polylines closed by flag and
+    // by repeated endpoints, bulged edges on both polyline kinds, a bulged two-vertex ring, and rings too small to
+    // count as areas, which fall back to their perimeter.
+    private static String shapes() {
+        return DxfFixtures.line("A-WALL", 0, 0, 0, 0)
+                + DxfFixtures.line("A-WALL", 0, 0, 300, 400)
+                + DxfFixtures.lwPolyline("A-EDGE", false, 0, 0, 1000, 0, 1000, 1000)
+                + DxfFixtures.lwPolyline("A-GLAZ", true, 0, 0, 900, 0, 900, 50, 0, 50)
+                + DxfFixtures.lwPolyline("A-GLAZ", false, 0, 0, 900, 0, 900, 50, 0, 50, 0, 0)
+                + lwPolyline("A-GLAZ", 1, 0, 0, 1.0, 10, 0, 0, 10, 10, 0, 0, 10, 0)
+                + lwPolyline("A-GLAZ", 0, 0, 0, 0.5, 10, 0, -0.25, 20, 0, 0)
+                + lwPolyline("A-CIRC", 1, 0, 0, 1.0, 10, 0, 1.0)
+                + lwPolyline("A-TINY", 1, 0, 0, 0, 0.1, 0, 0, 0.1, 0.05, 0, 0, 0.05, 0)
+                + polyline("S-SLAB", 1, 0, 0, 0.3, 20, 0, 0, 20, 20, -0.3, 0, 20, 0)
+                + polyline("S-SLAB", 0, 0, 0, 0, 5, 0, 0, 5, 5, 0, 0, 0, 0)
+                + polyline("S-SLAB", 0, 0, 0, 0.2, 8, 3, 0, 12, -1, 0)
+                + polyline("S-TINY", 1, 0, 0, 0, 0.09, 0, 0, 0.09, 0.09, 0, 0, 0.09, 0);
+    }
+
+    private static String scattered() {
+        Random random = new Random(17L);
+        StringBuilder body = new StringBuilder();
+        String[] layers = { "A-WALL", "A-GLAZ", "S-SLAB" };
+        for (int i = 0; i < 500; i++) {
+            String layer = layers[random.nextInt(layers.length)];
+            double x = random.nextDouble() * 1e4;
+            double y = random.nextDouble() * 1e4;
+            double w = random.nextDouble() * 500;
+            double h = random.nextDouble() * 500;
+            double bulge = random.nextDouble() - 0.5;
+            switch (i % 3) {
+                case 0:
+                    body.append(DxfFixtures.line(layer, x, y, x + w, y + h));
+                    break;
+                case 1:
+                    body.append(lwPolyline(layer, i & 1, x, y, bulge, x + w, y, 0, x + w, y + h, 0, x, y + h, 0));
+                    break;
+                default:
+                    body.append(polyline(layer, 0, x, y, 0, x + w, y, bulge, x + w, y + h, 0, x, y, 0));
+            }
+        }
+        return body.toString();
+    }
+
+    private static LayerInfoTable takeoff(File dxf, int batchSize) throws Exception {
+        LayerMaterialProvider materials = new LayerMaterialProvider();
+        Map<String, Double> scaleFactors = new HashMap<>();
+        scaleFactors.put(materials.getMaterial("S-SLAB"), 1.5);
+        EntityProcessor[] processors = new EntityProcessor[EntityType.values().length];
+        processors[EntityType.LINE.ordinal()] = new LineProcessor(materials, scaleFactors);
+        processors[EntityType.LWPOLYLINE.ordinal()] = new PolylineProcessor(EntityType.LWPOLYLINE, materials,
+                scaleFactors);
+        processors[EntityType.POLYLINE.ordinal()] = new PolylineProcessor(EntityType.POLYLINE, materials,
+                scaleFactors);
+
+        LayerInfoTable layerInfos = new LayerInfoTable();
+        DxfParser.EntityHandler handler = entity -> processors[entity.getEntityType().ordinal()]
+                .process(entity, layerInfos);
+        if (batchSize > 0) {
+            handler = new BatchGeometryPipeline(layerInfos, materials, scaleFactors, handler, batchSize);
+        }
+        new DxfParser().parse(dxf, handler);
+        return layerInfos;
+    }
+
+    private static void assertSameLayers(LayerInfoTable expected, LayerInfoTable actual, String message) {
+        Map<String, LayerInfo> actualLayers = actual.toMap();
+        assertEquals(new TreeMap<>(expected.toMap()).keySet(), new TreeMap<>(actualLayers).keySet(), message);
+        for (LayerInfo layer : expected.layers()) {
+            LayerInfo other = actualLayers.get(layer.getLayerName());
+            String context = message + ", " + layer.getLayerName();
+            assertEquals(layer.getTotalLength(), other.getTotalLength(),
+                    EPSILON * Math.max(1.0, layer.getTotalLength()), context);
+            assertEquals(layer.getTotalArea(), other.getTotalArea(), EPSILON * Math.max(1.0, layer.getTotalArea()),
+                    context);
+            for (EntityType entityType : EntityType.values()) {
+                assertEquals(layer.getEntityCount(entityType), other.getEntityCount(entityType),
+                        context + " " + entityType);
+            }
+        }
+    }
+
+    private static LayerInfo find(LayerInfoTable layerInfos, String layer) {
+        return layerInfos.toMap().get(layer);
+    }
+
+    // Vertices as (x, y, bulge) triples.
+    private static String lwPolyline(String layer, int flags, double... vertices) {
+        StringBuilder out = new StringBuilder("  0\nLWPOLYLINE\n  8\n").append(layer)
+                .append("\n 90\n").append(vertices.length / 3).append("\n 70\n").append(flags).append('\n');
+        for (int i = 0; i + 2 < vertices.length; i += 3) {
+            out.append(" 10\n").append(vertices[i]).append("\n 20\n").append(vertices[i + 1])
+                    .append("\n 42\n").append(vertices[i + 2]).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String polyline(String layer, int flags, double... vertices) {
+        StringBuilder out = new StringBuilder("  0\nPOLYLINE\n  8\n").append(layer)
+                .append("\n 66\n1\n 70\n").append(flags).append("\n 10\n0.0\n 20\n0.0\n 30\n0.0\n");
+        for (int i = 0; i + 2 < vertices.length; i += 3) {
+            out.append("  0\nVERTEX\n  8\n").append(layer).append("\n 10\n").append(vertices[i])
+                    .append("\n 20\n").append(vertices[i + 1]).append("\n 30\n0.0\n 42\n").append(vertices[i + 2])
+                    .append('\n');
+        }
+        return out.append("  0\nSEQEND\n  8\n").append(layer).append('\n').toString();
+    }
+}
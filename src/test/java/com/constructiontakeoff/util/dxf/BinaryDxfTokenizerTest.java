@@ -0,0 +1,88 @@
+package com.constructiontakeoff.util.dxf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryDxfTokenizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesMappedTokenizerRecordForRecord() throws Exception {
+        File ascii = DxfFixtures.copy(tempDir, "sample.dxf");
+        File binary = toBinary(ascii);
+
+        assertTrue(DxfParser.isBinaryDxf(binary));
+        assertTrue(binary.length() < ascii.length());
+        assertEquals(values(new MappedDxfTokenizer(ascii)),
+                values(new BinaryDxfTokenizer(MappedDxfTokenizer.map(binary))));
+    }
+
+    @Test
+    void parsesToTheSameEntitiesAsAscii() throws Exception {
+        File ascii = DxfFixtures.copy(tempDir, "sample.dxf", "\r\n");
+        File binary = toBinary(ascii);
+
+        List<String> expected = DxfFixtures.entitySignatures(ascii, new DxfParser());
+        assertEquals(expected, DxfFixtures.entitySignatures(binary, new DxfParser()));
+        assertEquals(expected, DxfFixtures.entitySignatures(binary, new DxfParser(DxfParser.TokenizerMode.STREAM)));
+    }
+
+    @Test
+    void splitsBinaryRangesOnRecordBoundaries() throws Exception {
+        File ascii = DxfFixtures.write(tempDir, "ranges.dxf", DxfFixtures.sequenceDrawing(16000));
+        File binary = toBinary(ascii);
+        List<String> sequential = DxfFixtures.entitySignatures(ascii, new DxfParser());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<List<String>> ranges = new ParallelDxfParser(pool, null, true).parseRanges(binary, ArrayList::new,
+                    signatures -> entity -> signatures.add(DxfFixtures.signature(entity)));
+            List<String> combined = new ArrayList<>();
+            ranges.forEach(combined::addAll);
+
+            assertTrue(ranges.size() > 3, "drawing should split into several ranges");
+            assertEquals(sequential, combined);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private File toBinary(File ascii) throws DxfParsingException {
+        File binary = tempDir.resolve(ascii.getName() + ".bin.dxf").toFile();
+        new BinaryDxfWriter().convert(ascii, binary);
+        return binary;
+    }
+
+    private static List<String> values(DxfTokenizer tokenizer) throws Exception {
+        List<String> values = new ArrayList<>();
+        try (tokenizer) {
+            while (tokenizer.next()) {
+                int code = tokenizer.groupCode();
+                switch (BinaryDxfTokenizer.valueType(code)) {
+                    case DOUBLE:
+                        values.add(code + "=" + tokenizer.doubleValue());
+                        break;
+                    case INT16:
+                    case INT32:
+                    case BOOLEAN:
+                        values.add(code + "=" + tokenizer.intValue());
+                        break;
+                    default:
+                        values.add(code + "=" + tokenizer.stringValue());
+                }
+            }
+        }
+        return values;
+    }
+}
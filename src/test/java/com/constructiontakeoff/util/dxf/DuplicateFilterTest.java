@@ -0,0 +1,178 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.ArcProcessor;
+import com.constructiontakeoff.util.geometry.CircleProcessor;
+import com.constructiontakeoff.util.geometry.EntityProcessor;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.geometry.UnitScaleManager;
+import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateFilterTest {
+    private static final String[] LAYERS = { "A-WALL", "A-GLAZ", "S-SLAB" };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void totalsAreBitIdenticalAtEveryPoolSize() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "stacked.dxf", stackedDrawing(""));
+        List<String> sequential = bits(takeoff(dxf, null));
+
+        for (int threads : new int[] { 1, 2, 3, 4, 8 }) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int run = 0; run < 3; run++) {
+                    assertEquals(sequential, bits(takeoff(dxf, pool)), threads + " threads, run " + run);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void keepsTheFirstCopyInFileOrder() throws Exception {
+        String late = DxfFixtures.line("A-FRST", 0, 0, 1000.000001, 0);
+        File dxf = DxfFixtures.write(tempDir, "first.dxf", stackedDrawing(late));
+        assertTrue(new ParallelDxfParser(null, null, true).parseRanges(dxf, Object::new, state -> entity -> {
+        }).size() > 3, "drawing should split into several ranges");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ForkJoinPool runner : new ForkJoinPool[] { null, pool }) {
+                LayerInfo first = find(takeoff(dxf, runner), "A-FRST");
+                assertEquals(2000.0, first.getTotalLength());
+                assertEquals(1L, first.getDuplicateCount());
+                assertEquals(1L, first.getEntityCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void keysSeparateElevationsAndIgnoreHowARingIsClosed() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "keys.dxf", DxfFixtures.entities(
+                DxfFixtures.line("A-WALL", 0, 0, 0, 1000, 0, 0)
+                        + DxfFixtures.line("A-WALL", 1000, 0, 0, 0, 0, 0)
+                        + DxfFixtures.line("A-WALL", 0, 0, 3000, 1000, 0, 3000)
+                        + DxfFixtures.lwPolyline("S-SLAB", true, 0, 0, 500, 0, 500, 500, 0, 500)
+                        + DxfFixtures.lwPolyline("S-SLAB", false, 500, 500, 0, 500, 0, 0, 500, 0, 500, 500)
+                        + DxfFixtures.lwPolyline("S-SLAB", true, 0, 0, 500, 0, 500, 500, 0, 500, 0, 0)));
+        LayerInfoTable layerInfos = takeoff(dxf, null);
+
+        assertEquals(1L, find(layerInfos, "A-WALL").getDuplicateCount());
+        assertEquals(2000.0, find(layerInfos, "A-WALL").getTotalLength(), 1e-9);
+        assertEquals(2L, find(layerInfos, "S-SLAB").getDuplicateCount());
+        assertEquals(250000.0, find(layerInfos, "S-SLAB").getTotalArea(), 1e-6);
+    }
+
+    @Test
+    void resolutionFollowsTheDrawingUnits() {
+        UnitScaleManager units = new UnitScaleManager();
+        assertEquals(0.01, DuplicateGeometryIndex.forUnits(units, 0).getResolution(), 1e-15);
+
+        units.setUnitType(UnitScaleManager.UnitType.METERS);
+        assertEquals(1e-5, DuplicateGeometryIndex.forUnits(units, 0).getResolution(), 1e-18);
+
+        units.setUnitType(UnitScaleManager.UnitType.INCHES);
+        assertEquals(1e-5 / 0.0254, DuplicateGeometryIndex.forUnits(units, 0).getResolution(), 1e-15);
+    }
+
+    private static String stackedDrawing(String tail) {
+        Random random = new Random(21L);
+        int shapes = 3000;
+        double[][] bases = new double[shapes][];
+        for (int i = 0; i < shapes; i++) {
+            bases[i] = new double[] { random.nextDouble() * 1e5, random.nextDouble() * 1e5,
+                    random.nextDouble() * 5000, random.nextDouble() * 5000 };
+        }
+
+        StringBuilder body = new StringBuilder(DxfFixtures.line("A-FRST", 0, 0, 1000, 0));
+        for (int i = 0; i < 36000; i++) {
+            double[] base = bases[random.nextInt(shapes)];
+            double jitter = random.nextDouble() * 1e-6;
+            double x = base[0] + jitter;
+            double y = base[1] - jitter;
+            String layer = LAYERS[(int) (base[2] % LAYERS.length)];
+            switch ((int) (base[3] % 3)) {
+                case 0:
+                    body.append(random.nextBoolean()
+                            ? DxfFixtures.line(layer, x, y, x + base[2], y + base[3])
+                            : DxfFixtures.line(layer, x + base[2], y + base[3], x, y));
+                    break;
+                case 1:
+                    body.append(DxfFixtures.lwPolyline(layer, true, x, y, x + base[2], y, x + base[2],
+                            y + base[3], x, y + base[3]));
+                    break;
+                default:
+                    body.append("  0\nCIRCLE\n  8\n").append(layer).append("\n 10\n").append(x).append("\n 20\n")
+                            .append(y).append("\n 30\n0.0\n 40\n").append(base[2] + jitter).append('\n');
+            }
+        }
+        body.append(tail);
+        return "  0\nSECTION\n  2\nHEADER\n  9\n$INSUNITS\n 70\n4\n  0\nENDSEC\n"
+                + DxfFixtures.entities(body.toString());
+    }
+
+    private static LayerInfoTable takeoff(File dxf, ForkJoinPool pool) throws DxfParsingException {
+        LayerMaterialProvider materials = new LayerMaterialProvider();
+        Map<String, Double> scaleFactors = new HashMap<>();
+        scaleFactors.put(materials.getMaterial("A-FRST"), 2.0);
+        EntityProcessor[] processors = new EntityProcessor[EntityType.values().length];
+        processors[EntityType.LINE.ordinal()] = new LineProcessor(materials, scaleFactors);
+        processors[EntityType.LWPOLYLINE.ordinal()] = new PolylineProcessor(EntityType.LWPOLYLINE, materials,
+                scaleFactors);
+        processors[EntityType.CIRCLE.ordinal()] = new CircleProcessor(materials, scaleFactors);
+        processors[EntityType.ARC.ordinal()] = new ArcProcessor(materials, scaleFactors);
+
+        UnitScaleManager units = new UnitScaleManager();
+        units.setUnitType(UnitScaleManager.UnitType.MILLIMETERS);
+        DuplicateGeometryIndex index = DuplicateGeometryIndex.forUnits(units, 0);
+        DxfParseSession session = new DxfParseSession(pool, true);
+        DxfParseSession.Result<DuplicateFilter> filtered = session.register("quantities", null, () -> {
+            LayerInfoTable layerInfos = new LayerInfoTable();
+            DxfParser.EntityHandler processor = entity -> {
+                EntityType entityType = entity.getEntityType();
+                if (entityType != null && processors[entityType.ordinal()] != null) {
+                    processors[entityType.ordinal()].process(entity, layerInfos);
+                }
+            };
+            return new DuplicateFilter(layerInfos, materials, scaleFactors, index,
+                    new BatchGeometryPipeline(layerInfos, materials, scaleFactors, processor));
+        }, filter -> filter, DuplicateFilter::append);
+        session.run(dxf);
+        return filtered.get().resolve();
+    }
+
+    private static List<String> bits(LayerInfoTable layerInfos) {
+        List<String> bits = new ArrayList<>();
+        for (LayerInfo info : new TreeMap<>(layerInfos.toMap()).values()) {
+            bits.add(info.getLayerName() + " length=" + Long.toHexString(Double.doubleToLongBits(info.getTotalLength()))
+                    + " area=" + Long.toHexString(Double.doubleToLongBits(info.getTotalArea()))
+                    + " entities=" + info.getEntityCount() + " duplicates=" + info.getDuplicateCount());
+        }
+        return bits;
+    }
+
+    private static LayerInfo find(LayerInfoTable layerInfos, String layer) {
+        return layerInfos.toMap().get(layer);
+    }
+}
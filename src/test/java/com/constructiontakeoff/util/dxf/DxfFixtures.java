@@ -0,0 +1,107 @@
+package com.constructiontakeoff.util.dxf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class DxfFixtures {
+
+    private DxfFixtures() {
+    }
+
+    public static String read(String name) {
+        try (InputStream in = DxfFixtures.class.getResourceAsStream("/dxf/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing DXF fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static File copy(Path directory, String name) throws IOException {
+        return copy(directory, name, "\n");
+    }
+
+    public static File copy(Path directory, String name, String lineEnding) throws IOException {
+        return write(directory, name, read(name).replace("\n", lineEnding));
+    }
+
+    public static File write(Path directory, String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file.toFile();
+    }
+
+    public static String entities(String body) {
+        return "  0\nSECTION\n  2\nENTITIES\n" + body + "  0\nENDSEC\n  0\nEOF\n";
+    }
+
+    public static String sequenceDrawing(int repeats) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < repeats; i++) {
+            double x = i * 10.0;
+            body.append(line("A-WALL", x, 0, x, 2500));
+            body.append(lwPolyline("A-GLAZ", i % 2 == 0, x, 0, x + 5, 0, x + 5, 5));
+            body.append("  0\nPOLYLINE\n  8\nS-SLAB\n 66\n1\n 70\n1\n 10\n0.0\n 20\n0.0\n 30\n0.0\n");
+            for (int k = 0; k < 4; k++) {
+                body.append("  0\nVERTEX\n  8\nS-SLAB\n 10\n").append(x + (k & 1)).append("\n 20\n")
+                        .append(k >> 1).append("\n 30\n0.0\n");
+            }
+            body.append("  0\nSEQEND\n  8\nS-SLAB\n");
+        }
+        return "  0\nSECTION\n  2\nHEADER\n  9\n$INSUNITS\n 70\n4\n  0\nENDSEC\n" + entities(body.toString());
+    }
+
+    public static String line(String layer, double x1, double y1, double x2, double y2) {
+        return line(layer, x1, y1, 0.0, x2, y2, 0.0);
+    }
+
+    public static String line(String layer, double x1, double y1, double z1, double x2, double y2, double z2) {
+        return "  0\nLINE\n  8\n" + layer + "\n 10\n" + x1 + "\n 20\n" + y1 + "\n 30\n" + z1
+                + "\n 11\n" + x2 + "\n 21\n" + y2 + "\n 31\n" + z2 + "\n";
+    }
+
+    public static String lwPolyline(String layer, boolean closed, double... xys) {
+        StringBuilder out = new StringBuilder("  0\nLWPOLYLINE\n  8\n").append(layer)
+                .append("\n 90\n").append(xys.length / 2).append("\n 70\n").append(closed ? 1 : 0).append('\n');
+        for (int i = 0; i + 1 < xys.length; i += 2) {
+            out.append(" 10\n").append(xys[i]).append("\n 20\n").append(xys[i + 1]).append('\n');
+        }
+        return out.toString();
+    }
+
+    public static String text(String layer, double x, double y, String value) {
+        return "  0\nTEXT\n  8\n" + layer + "\n 10\n" + x + "\n 20\n" + y + "\n 30\n0.0\n 40\n250.0\n  1\n" + value
+                + "\n";
+    }
+
+    public static List<String> entitySignatures(File dxfFile, DxfParser parser) throws DxfParsingException {
+        List<String> signatures = new ArrayList<>();
+        parser.parse(dxfFile, entity -> signatures.add(signature(entity)));
+        return signatures;
+    }
+
+    public static String signature(DxfEntity entity) {
+        StringBuilder out = new StringBuilder(entity.getType()).append(' ').append(entity.getLayer());
+        if (entity.getBlockName() != null && !entity.getBlockName().isEmpty()) {
+            out.append(" block=").append(entity.getBlockName());
+        }
+        if (entity.getText() != null) {
+            out.append(" text=").append(entity.getText());
+        }
+        out.append(" closed=").append(entity.isClosed()).append(" r=").append(entity.getRadius());
+        for (int i = 0; i < entity.getVertexCount(); i++) {
+            out.append(" (").append(entity.getX(i)).append(',').append(entity.getY(i)).append(',')
+                    .append(entity.getZ(i)).append(" b=").append(entity.getBulge(i)).append(')');
+        }
+        return out.toString();
+    }
+}
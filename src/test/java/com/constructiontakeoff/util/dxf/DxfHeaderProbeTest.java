@@ -0,0 +1,56 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.UnitScaleManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DxfHeaderProbeTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsHeaderVariablesWithoutTouchingEntities() throws Exception {
+        File dxf = DxfFixtures.copy(tempDir, "sample.dxf");
+        DxfHeader header = DxfHeaderProbe.probe(dxf);
+
+        assertEquals("AC1015", header.getAcadVersion());
+        assertEquals(4, header.getInsUnits());
+        assertEquals(1.0, header.getDimScale());
+        assertEquals(6000.0, header.getWidth());
+        assertEquals(4000.0, header.getHeight());
+        assertTrue(header.getBytesRead() < dxf.length() / 2);
+        assertEquals("1.0", header.toProperties().get("$DIMSCALE"));
+    }
+
+    @Test
+    void unitScaleComesFromInsUnitsOnly() throws Exception {
+        DxfHeader header = DxfHeaderProbe.probe(DxfFixtures.write(tempDir, "scaled.dxf",
+                "  0\nSECTION\n  2\nHEADER\n  9\n$INSUNITS\n 70\n4\n  9\n$DIMSCALE\n 40\n100.0\n  0\nENDSEC\n"));
+        UnitScaleManager units = new UnitScaleManager();
+        new DxfProcessingHelper(units).applyHeader(header);
+
+        assertEquals(100.0, header.getDimScale());
+        assertEquals(UnitScaleManager.UnitType.MILLIMETERS, units.getCurrentUnitType());
+        assertEquals(1.0, units.toMeters(1000.0), 1e-12);
+    }
+
+    @Test
+    void dimScaleAloneLeavesUnitsUndetected() throws Exception {
+        DxfHeader header = DxfHeaderProbe.probe(DxfFixtures.write(tempDir, "dimscale.dxf",
+                "  0\nSECTION\n  2\nHEADER\n  9\n$DIMSCALE\n 40\n48.0\n  0\nENDSEC\n"));
+        UnitScaleManager units = new UnitScaleManager();
+        new DxfProcessingHelper(units).applyHeader(header);
+
+        assertFalse(header.hasInsUnits());
+        assertEquals(UnitScaleManager.UnitType.UNKNOWN, units.getCurrentUnitType());
+        assertEquals(1.0, units.getScaleFactor());
+    }
+}
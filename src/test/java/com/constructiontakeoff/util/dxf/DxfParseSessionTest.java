@@ -0,0 +1,106 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.EntityProcessor;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DxfParseSessionTest {
+    private static final String[] LAYERS = { "A-WALL", "A-GLAZ", "S-SLAB" };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void deterministicTotalsAreBitIdenticalAtEveryPoolSize() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "scattered.dxf", scatteredDrawing());
+        assertTrue(dxf.length() > 2L << 20, "drawing should span several parse ranges");
+
+        List<String> sequential = bits(takeoff(dxf, null));
+        assertEquals(LAYERS.length, sequential.size());
+        for (int threads : new int[] { 1, 2, 4 }) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(sequential, bits(takeoff(dxf, pool)), threads + " threads");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Lines, polylines and POLYLINE sequences with random coordinates, so every total is a sum of values that
+    // are not exactly representable and would change in the last bits if the ranges were combined in another order.
+    private static String scatteredDrawing() {
+        Random random = new Random(20L);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 12000; i++) {
+            double x = random.nextDouble() * 1e5;
+            double y = random.nextDouble() * 1e5;
+            double w = random.nextDouble() * 3000;
+            double h = random.nextDouble() * 3000;
+            String layer = LAYERS[random.nextInt(LAYERS.length)];
+            body.append(DxfFixtures.line(layer, x, y, x + w, y + h));
+            body.append(DxfFixtures.lwPolyline(layer, random.nextBoolean(), x, y, x + w, y, x + w, y + h));
+            body.append("  0\nPOLYLINE\n  8\n").append(layer)
+                    .append("\n 66\n1\n 70\n1\n 10\n0.0\n 20\n0.0\n 30\n0.0\n");
+            for (int k = 0; k < 4; k++) {
+                body.append("  0\nVERTEX\n  8\n").append(layer).append("\n 10\n").append(x + (k & 1) * h)
+                        .append("\n 20\n").append(y + (k >> 1) * w).append("\n 30\n0.0\n");
+            }
+            body.append("  0\nSEQEND\n  8\n").append(layer).append('\n');
+        }
+        return "  0\nSECTION\n  2\nHEADER\n  9\n$INSUNITS\n 70\n4\n  0\nENDSEC\n"
+                + DxfFixtures.entities(body.toString());
+    }
+
+    private static LayerInfoTable takeoff(File dxf, ForkJoinPool pool) throws DxfParsingException {
+        LayerMaterialProvider materials = new LayerMaterialProvider();
+        Map<String, Double> scaleFactors = new HashMap<>();
+        EntityProcessor[] processors = new EntityProcessor[EntityType.values().length];
+        processors[EntityType.LINE.ordinal()] = new LineProcessor(materials, scaleFactors);
+        processors[EntityType.LWPOLYLINE.ordinal()] = new PolylineProcessor(EntityType.LWPOLYLINE, materials,
+                scaleFactors);
+        processors[EntityType.POLYLINE.ordinal()] = new PolylineProcessor(EntityType.POLYLINE, materials,
+                scaleFactors);
+
+        DxfParseSession session = new DxfParseSession(pool, true);
+        DxfParseSession.Result<LayerInfoTable> quantities = session.register("quantities", null,
+                LayerInfoTable::new, layerInfos -> new BatchGeometryPipeline(layerInfos, materials, scaleFactors,
+                        entity -> {
+                            EntityType entityType = entity.getEntityType();
+                            if (entityType != null && processors[entityType.ordinal()] != null) {
+                                processors[entityType.ordinal()].process(entity, layerInfos);
+                            }
+                        }),
+                LayerInfoTable::merge);
+        session.run(dxf);
+        return quantities.get();
+    }
+
+    private static List<String> bits(LayerInfoTable layerInfos) {
+        List<String> bits = new ArrayList<>();
+        for (LayerInfo info : new TreeMap<>(layerInfos.toMap()).values()) {
+            bits.add(info.getLayerName()
+                    + " length=" + Long.toHexString(Double.doubleToRawLongBits(info.getTotalLength()))
+                    + " area=" + Long.toHexString(Double.doubleToRawLongBits(info.getTotalArea()))
+                    + " entities=" + info.getEntityCount());
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,82 @@
+package com.constructiontakeoff.util.dxf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DxfParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void assemblesPolylineVertexSequences() throws Exception {
+        List<String> entities = DxfFixtures.entitySignatures(DxfFixtures.copy(tempDir, "sample.dxf"),
+                new DxfParser(DxfParser.TokenizerMode.MAPPED, Set.of("POLYLINE")));
+
+        assertEquals(List.of("POLYLINE A-WALL closed=true r=0.0 (0.0,-1000.0,0.0 b=0.0)"
+                + " (3000.0,-1000.0,0.0 b=0.0) (0.0,-3000.0,0.0 b=0.0)"), entities);
+    }
+
+    @Test
+    void keepsVertexBulgesAndElevationsButNotVertexLayers() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "bulged.dxf", DxfFixtures.entities(polyline("S-SLAB", 0,
+                vertex("0", 0, 0, 150, 0.5, 0),
+                vertex("0", 1000, 0, 150, 0, 0),
+                vertex("0", 1000, 1000, 150, -1, 0))));
+
+        assertEquals(List.of("POLYLINE S-SLAB closed=false r=0.0 (0.0,0.0,150.0 b=0.5)"
+                + " (1000.0,0.0,150.0 b=0.0) (1000.0,1000.0,150.0 b=-1.0)"), parse(dxf));
+    }
+
+    @Test
+    void dropsSplineFrameAndPolyfaceRecords() throws Exception {
+        String splineFit = polyline("A-WALL", 4,
+                vertex("A-WALL", 0, 0, 0, 0, 16),
+                vertex("A-WALL", 500, 0, 0, 0, 8),
+                vertex("A-WALL", 1000, 500, 0, 0, 16),
+                vertex("A-WALL", 1000, 1000, 0, 0, 8));
+        String polyface = polyline("A-WALL", 64,
+                vertex("A-WALL", 0, 0, 0, 0, 192),
+                vertex("A-WALL", 10, 0, 0, 0, 192),
+                vertex("A-WALL", 0, 0, 0, 0, 128));
+        File dxf = DxfFixtures.write(tempDir, "frames.dxf", DxfFixtures.entities(splineFit + polyface));
+
+        assertEquals(List.of(
+                "POLYLINE A-WALL closed=false r=0.0 (500.0,0.0,0.0 b=0.0) (1000.0,1000.0,0.0 b=0.0)",
+                "POLYLINE A-WALL closed=false r=0.0 (0.0,0.0,0.0 b=0.0) (10.0,0.0,0.0 b=0.0)"), parse(dxf));
+    }
+
+    @Test
+    void closesSequencesThatLackSeqend() throws Exception {
+        String unterminated = polyline("A-WALL", 0,
+                vertex("A-WALL", 0, 0, 0, 0, 0),
+                vertex("A-WALL", 10, 0, 0, 0, 0)).replace("  0\nSEQEND\n  8\nA-WALL\n", "");
+        File dxf = DxfFixtures.write(tempDir, "unterminated.dxf",
+                DxfFixtures.entities(unterminated + DxfFixtures.line("A-DOOR", 0, 0, 0, 900)));
+
+        assertEquals(List.of(
+                "POLYLINE A-WALL closed=false r=0.0 (0.0,0.0,0.0 b=0.0) (10.0,0.0,0.0 b=0.0)",
+                "LINE A-DOOR closed=false r=0.0 (0.0,0.0,0.0 b=0.0) (0.0,900.0,0.0 b=0.0)"), parse(dxf));
+    }
+
+    private static List<String> parse(File dxf) throws DxfParsingException {
+        return DxfFixtures.entitySignatures(dxf, new DxfParser());
+    }
+
+    private static String polyline(String layer, int flags, String... vertices) {
+        return "  0\nPOLYLINE\n  8\n" + layer + "\n 66\n1\n 70\n" + flags + "\n 10\n0.0\n 20\n0.0\n 30\n0.0\n"
+                + String.join("", vertices) + "  0\nSEQEND\n  8\n" + layer + "\n";
+    }
+
+    private static String vertex(String layer, double x, double y, double z, double bulge, int flags) {
+        return "  0\nVERTEX\n  8\n" + layer + "\n 10\n" + x + "\n 20\n" + y + "\n 30\n" + z + "\n 42\n" + bulge
+                + "\n 70\n" + flags + "\n";
+    }
+}
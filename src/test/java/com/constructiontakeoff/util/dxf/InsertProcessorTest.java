@@ -0,0 +1,208 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.model.LayerInfo;
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.geometry.ArcProcessor;
+import com.constructiontakeoff.util.geometry.EntityProcessor;
+import com.constructiontakeoff.util.geometry.EntityType;
+import com.constructiontakeoff.util.material.BlockMaterialProvider;
+import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InsertProcessorTest {
+    private static final double EPSILON = 1e-6;
+    private static final double[] IDENTITY = { 1, 0, 0, 1, 0, 0 };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nestedInsertMatchesExplodedGeometry() throws Exception {
+        double[] top = transform(45, 3, 1.5, 5000, 5000);
+        double[] first = transform(30, 2, 0.5, 100, 0);
+        double[] second = transform(-90, 1, 3, 0, 0);
+        String blocks = block("LEAF", leaf("0", IDENTITY))
+                + block("PAIR", insert("0", "LEAF", 30, 2, 0.5, 1, 1)
+                        + insert("A-INNR", "LEAF", -90, 1, 3, 2, 2));
+        String drawing = blocks(blocks) + DxfFixtures.entities(insert("A-FURN", "PAIR", 45, 3, 1.5, 1, 1));
+
+        StringBuilder exploded = new StringBuilder(leaf("A-FURN", compose(top, first)));
+        for (int column = 0; column < 2; column++) {
+            for (int row = 0; row < 2; row++) {
+                double[] copy = compose(transform(0, 1, 1, column * 2000, row * 2000), second);
+                exploded.append(leaf("A-INNR", compose(top, copy)));
+            }
+        }
+
+        LayerInfoTable inserted = takeoff(drawing);
+        assertSameLayers(takeoff(DxfFixtures.entities(exploded.toString())), inserted);
+        assertEquals(1L, find(inserted, "PAIR").getEntityCount(EntityType.INSERT));
+        assertEquals(5L, find(inserted, "LEAF").getEntityCount(EntityType.INSERT));
+    }
+
+    @Test
+    void arrayCountsMultiplyEveryQuantity() throws Exception {
+        String swing = DxfFixtures.line("0", 0, 0, 900, 0) + arc("A-DOOR", 0, 0, 900, 0, 90);
+        String drawing = blocks(block("SWING", swing))
+                + DxfFixtures.entities(insert("A-DOOR", "SWING", 15, 1.5, 1.5, 3, 2));
+
+        StringBuilder exploded = new StringBuilder();
+        for (int copy = 0; copy < 6; copy++) {
+            double x = copy * 3000;
+            exploded.append(DxfFixtures.line("A-DOOR", x, 0, x + 1350, 0)).append(arc("A-DOOR", x, 0, 1350, 0, 90));
+        }
+
+        LayerInfoTable inserted = takeoff(drawing);
+        assertSameLayers(takeoff(DxfFixtures.entities(exploded.toString())), inserted);
+        assertEquals(6L, find(inserted, "SWING").getEntityCount(EntityType.INSERT));
+        assertEquals(6L, find(inserted, "A-DOOR").getEntityCount(EntityType.ARC));
+    }
+
+    @Test
+    void layerZeroContentTakesTheInsertLayer() throws Exception {
+        String drawing = blocks(block("LEAF", leaf("0", IDENTITY)))
+                + DxfFixtures.entities(insert("A-CASE", "LEAF", 0, 1, 1, 1, 1));
+
+        LayerInfoTable inserted = takeoff(drawing);
+        assertSameLayers(takeoff(DxfFixtures.entities(leaf("A-CASE", IDENTITY))), inserted);
+        assertFalse(inserted.toMap().containsKey("0"));
+        assertEquals(800.0, find(inserted, "A-CASE").getTotalLength(), EPSILON);
+        assertEquals(2L, find(inserted, "A-CASE").getEntityCount());
+    }
+
+    @Test
+    void circularReferencesAreCountedOnce() throws Exception {
+        String drawing = blocks(block("LOOP-A", DxfFixtures.line("A-WALL", 0, 0, 100, 0)
+                + insert("0", "LOOP-B", 0, 1, 1, 1, 1))
+                + block("LOOP-B", DxfFixtures.line("A-WALL", 0, 0, 0, 50)
+                        + insert("0", "LOOP-A", 0, 1, 1, 1, 1)))
+                + DxfFixtures.entities(insert("A-FURN", "LOOP-A", 0, 2, 2, 1, 1));
+
+        LayerInfoTable inserted = takeoff(drawing);
+        assertEquals(300.0, find(inserted, "A-WALL").getTotalLength(), EPSILON);
+        assertEquals(2L, find(inserted, "A-WALL").getEntityCount(EntityType.LINE));
+        assertEquals(1L, find(inserted, "LOOP-A").getEntityCount(EntityType.INSERT));
+        assertEquals(1L, find(inserted, "LOOP-B").getEntityCount(EntityType.INSERT));
+    }
+
+    private LayerInfoTable takeoff(String drawing) throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "insert.dxf", drawing);
+        LayerMaterialProvider materials = new LayerMaterialProvider();
+        Map<String, Double> scaleFactors = new HashMap<>();
+        Map<EntityType, EntityProcessor> processors = new HashMap<>();
+        processors.put(EntityType.LINE, new LineProcessor(materials, scaleFactors));
+        processors.put(EntityType.LWPOLYLINE, new PolylineProcessor(EntityType.LWPOLYLINE, materials, scaleFactors));
+        processors.put(EntityType.ARC, new ArcProcessor(materials, scaleFactors));
+        processors.put(EntityType.INSERT, new InsertProcessor(materials, new BlockMaterialProvider(), scaleFactors));
+
+        LayerInfoTable layerInfos = new LayerInfoTable();
+        new DxfParser().parse(dxf, entity -> {
+            if (entity.getOwnerBlockId() == SymbolTable.EMPTY) {
+                processors.get(entity.getEntityType()).process(entity, layerInfos);
+            }
+        });
+        return layerInfos;
+    }
+
+    private static void assertSameLayers(LayerInfoTable expected, LayerInfoTable actual) {
+        Map<String, LayerInfo> actualLayers = actual.toMap();
+        for (LayerInfo layer : new TreeMap<>(expected.toMap()).values()) {
+            LayerInfo other = actualLayers.get(layer.getLayerName());
+            assertNotNull(other, layer.getLayerName());
+            double tolerance = EPSILON * Math.max(1.0, layer.getTotalLength() + layer.getTotalArea());
+            assertEquals(layer.getTotalLength(), other.getTotalLength(), tolerance, layer.getLayerName());
+            assertEquals(layer.getTotalArea(), other.getTotalArea(), tolerance, layer.getLayerName());
+            for (EntityType entityType : EntityType.values()) {
+                assertEquals(layer.getEntityCount(entityType), other.getEntityCount(entityType),
+                        layer.getLayerName() + " " + entityType);
+            }
+        }
+        for (String name : actualLayers.keySet()) {
+            assertTrue(expected.toMap().containsKey(name) || actualLayers.get(name).getTotalLength() == 0
+                    && actualLayers.get(name).getTotalArea() == 0, "unexpected quantities on " + name);
+        }
+    }
+
+    private static LayerInfo find(LayerInfoTable layerInfos, String name) {
+        LayerInfo layer = layerInfos.toMap().get(name);
+        assertNotNull(layer, name);
+        return layer;
+    }
+
+    // A door leaf: a frame line and a closed panel on A-DOOR, a diagonal swing line and an open stop on the
+    // given layer, all mapped through the affine transform { a, b, c, d, tx, ty }.
+    private static String leaf(String layer, double[] m) {
+        return line("A-DOOR", m, 0, 0, 900, 0)
+                + polyline("A-DOOR", true, m, 0, 0, 900, 0, 900, 50, 0, 50)
+                + line(layer, m, 0, 0, 300, 400)
+                + polyline(layer, false, m, 0, 0, 100, 0, 100, 200);
+    }
+
+    private static String line(String layer, double[] m, double x1, double y1, double x2, double y2) {
+        return DxfFixtures.line(layer, x(m, x1, y1), y(m, x1, y1), x(m, x2, y2), y(m, x2, y2));
+    }
+
+    private static String polyline(String layer, boolean closed, double[] m, double... xys) {
+        double[] mapped = new double[xys.length];
+        for (int i = 0; i + 1 < xys.length; i += 2) {
+            mapped[i] = x(m, xys[i], xys[i + 1]);
+            mapped[i + 1] = y(m, xys[i], xys[i + 1]);
+        }
+        return DxfFixtures.lwPolyline(layer, closed, mapped);
+    }
+
+    private static double x(double[] m, double x, double y) {
+        return m[0] * x + m[1] * y + m[4];
+    }
+
+    private static double y(double[] m, double x, double y) {
+        return m[2] * x + m[3] * y + m[5];
+    }
+
+    // Scale first, then rotate, then move: the order an INSERT applies its group codes in.
+    private static double[] transform(double degrees, double scaleX, double scaleY, double tx, double ty) {
+        double cos = Math.cos(Math.toRadians(degrees));
+        double sin = Math.sin(Math.toRadians(degrees));
+        return new double[] { cos * scaleX, -sin * scaleY, sin * scaleX, cos * scaleY, tx, ty };
+    }
+
+    private static double[] compose(double[] outer, double[] inner) {
+        return new double[] {
+                outer[0] * inner[0] + outer[1] * inner[2], outer[0] * inner[1] + outer[1] * inner[3],
+                outer[2] * inner[0] + outer[3] * inner[2], outer[2] * inner[1] + outer[3] * inner[3],
+                x(outer, inner[4], inner[5]), y(outer, inner[4], inner[5]) };
+    }
+
+    private static String blocks(String body) {
+        return "  0\nSECTION\n  2\nBLOCKS\n" + body + "  0\nENDSEC\n";
+    }
+
+    private static String block(String name, String body) {
+        return "  0\nBLOCK\n  8\n0\n  2\n" + name + "\n 70\n0\n 10\n0.0\n 20\n0.0\n 30\n0.0\n" + body
+                + "  0\nENDBLK\n  8\n0\n";
+    }
+
+    private static String insert(String layer, String block, double rotation, double scaleX, double scaleY,
+            int columns, int rows) {
+        return "  0\nINSERT\n  8\n" + layer + "\n  2\n" + block + "\n 10\n0.0\n 20\n0.0\n 30\n0.0\n 41\n" + scaleX
+                + "\n 42\n" + scaleY + "\n 43\n1.0\n 50\n" + rotation + "\n 70\n" + columns + "\n 71\n" + rows
+                + "\n 44\n2000.0\n 45\n2000.0\n";
+    }
+
+    private static String arc(String layer, double cx, double cy, double radius, double start, double end) {
+        return "  0\nARC\n  8\n" + layer + "\n 10\n" + cx + "\n 20\n" + cy + "\n 30\n0.0\n 40\n" + radius
+                + "\n 50\n" + start + "\n 51\n" + end + "\n";
+    }
+}
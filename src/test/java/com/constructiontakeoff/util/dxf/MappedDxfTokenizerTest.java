@@ -0,0 +1,92 @@
+package com.constructiontakeoff.util.dxf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedDxfTokenizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesStreamTokenizerForEveryLineEnding() throws Exception {
+        for (String ending : new String[] { "\n", "\r\n", "\r" }) {
+            File dxf = DxfFixtures.copy(tempDir, "sample.dxf", ending);
+            List<String> stream = tokens(new StreamDxfTokenizer(dxf));
+            List<String> mapped = tokens(new MappedDxfTokenizer(dxf));
+
+            assertTrue(stream.size() > 100, "fixture should tokenize with " + escape(ending));
+            assertEquals(stream, mapped, "token stream for " + escape(ending));
+        }
+    }
+
+    @Test
+    void parsesLoneCarriageReturnFilesLikeLineFeedFiles() throws Exception {
+        DxfParser parser = new DxfParser(DxfParser.TokenizerMode.MAPPED);
+        List<String> lineFeed = DxfFixtures.entitySignatures(DxfFixtures.copy(tempDir, "sample.dxf"), parser);
+        File carriageReturn = DxfFixtures.copy(tempDir, "sample.dxf", "\r");
+
+        assertEquals(lineFeed, DxfFixtures.entitySignatures(carriageReturn, parser));
+        assertEquals(lineFeed, DxfFixtures.entitySignatures(carriageReturn,
+                new DxfParser(DxfParser.TokenizerMode.STREAM)));
+    }
+
+    @Test
+    void parsesNumbersLikeTheJdk() throws Exception {
+        String[] values = { "0", "-0.0", "12.5", "+3", "0.1", "4000.000000", "1e-7", "-2.5E+3", "6.02214076e23",
+                "123456789012345678901.5", "0.30000000000000004", "1.7976931348623157E308", "4.9e-324", "  7.25  " };
+        StringBuilder body = new StringBuilder();
+        for (String value : values) {
+            body.append(" 10\n").append(value).append('\n');
+        }
+        File dxf = DxfFixtures.write(tempDir, "numbers.dxf", body.toString());
+
+        try (MappedDxfTokenizer tokenizer = new MappedDxfTokenizer(dxf)) {
+            for (String value : values) {
+                assertTrue(tokenizer.next());
+                assertEquals(10, tokenizer.groupCode());
+                assertEquals(Double.parseDouble(value.trim()), tokenizer.doubleValue(), value);
+            }
+        }
+    }
+
+    @Test
+    void rejectsNonNumericGroupCodes() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "broken.dxf", "  0\nSECTION\nLINE\n  8\n");
+
+        try (MappedDxfTokenizer tokenizer = new MappedDxfTokenizer(dxf)) {
+            assertTrue(tokenizer.next());
+            assertThrows(DxfParsingException.class, tokenizer::next);
+        }
+    }
+
+    static List<String> tokens(DxfTokenizer tokenizer) throws Exception {
+        List<String> tokens = new ArrayList<>();
+        try (tokenizer) {
+            while (tokenizer.next()) {
+                int code = tokenizer.groupCode();
+                String token = code + "=" + tokenizer.stringValue();
+                if (code >= 10 && code < 60) {
+                    token += " " + tokenizer.doubleValue();
+                } else if (code >= 60 && code < 100) {
+                    token += " " + tokenizer.intValue();
+                }
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String escape(String lineEnding) {
+        return lineEnding.replace("\r", "CR").replace("\n", "LF");
+    }
+}
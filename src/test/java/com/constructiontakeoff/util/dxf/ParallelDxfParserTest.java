@@ -0,0 +1,66 @@
+package com.constructiontakeoff.util.dxf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelDxfParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void entityBoundariesSkipValueLinesAndSequenceRecords() {
+        String body = DxfFixtures.read("sample.dxf");
+        ByteBuffer buffer = ByteBuffer.wrap(body.getBytes(StandardCharsets.US_ASCII));
+        int limit = buffer.limit();
+
+        for (int from = 0; from < limit; from++) {
+            int boundary = ParallelDxfParser.findEntityBoundary(buffer, from, limit, (byte) '\n');
+            if (boundary == limit) {
+                continue;
+            }
+            assertTrue(boundary > from, "boundary must lie past " + from);
+            assertTrue(body.charAt(boundary - 1) == '\n', "boundary must start a line at " + boundary);
+            String rest = body.substring(boundary);
+            assertTrue(rest.startsWith("  0\n"), "boundary must be a 0 group code at " + boundary);
+            String record = rest.substring(4, rest.indexOf('\n', 4));
+            assertTrue(!record.equals("VERTEX") && !record.equals("SEQEND"), "split inside a sequence at " + from);
+        }
+    }
+
+    @Test
+    void rangesCoverEveryEntityExactlyOnce() throws Exception {
+        for (String ending : new String[] { "\n", "\r\n", "\r" }) {
+            String drawing = DxfFixtures.sequenceDrawing(12000).replace("\n", ending);
+            File dxf = DxfFixtures.write(tempDir, "ranges.dxf", drawing);
+            List<String> sequential = DxfFixtures.entitySignatures(dxf, new DxfParser());
+
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                for (boolean deterministic : new boolean[] { false, true }) {
+                    ParallelDxfParser parser = new ParallelDxfParser(pool, null, deterministic);
+                    List<List<String>> ranges = parser.parseRanges(dxf, ArrayList::new,
+                            signatures -> entity -> signatures.add(DxfFixtures.signature(entity)));
+                    List<String> combined = new ArrayList<>();
+                    ranges.forEach(combined::addAll);
+
+                    assertTrue(ranges.size() > 3, "drawing should split into several ranges");
+                    assertEquals(sequential, combined);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
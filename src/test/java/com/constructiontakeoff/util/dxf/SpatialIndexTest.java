@@ -0,0 +1,44 @@
+package com.constructiontakeoff.util.dxf;
+
+import com.constructiontakeoff.util.geometry.EntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpatialIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsSampleEntitiesByWindowAndPoint() throws Exception {
+        EntityEnvelopes envelopes = new EntityEnvelopes();
+        new DxfParser().parse(DxfFixtures.copy(tempDir, "sample.dxf"), envelopes::add);
+        SpatialIndex index = envelopes.toIndex();
+
+        assertEquals(Set.of("CIRCLE"), types(index, index.searchPoint(2300, 1700, 1)));
+        assertEquals(Set.of("LINE"), types(index, index.searchPoint(4000, 0, 1)));
+        assertEquals(Set.of("LWPOLYLINE"), types(index, index.search(5200, 200, 5800, 800)));
+        assertEquals(Set.of("POLYLINE"), types(index, index.searchPoint(500, -2000, 1)));
+        assertEquals(Set.of(), types(index, index.searchPoint(-5000, -5000, 100)));
+
+        int circle = index.searchPoint(2300, 1700, 1)[0];
+        assertEquals(EntityType.CIRCLE, index.getEntityType(circle));
+        assertEquals(1500.0, index.getMinX(circle));
+        assertEquals(2500.0, index.getMaxY(circle));
+        assertEquals("A-WALL", index.getLayerName(circle));
+    }
+
+    private static Set<String> types(SpatialIndex index, int[] entries) {
+        Set<String> types = new TreeSet<>();
+        for (int entry : entries) {
+            types.add(index.getEntityType(entry).name());
+        }
+        return types;
+    }
+}
@@ -0,0 +1,75 @@
+package com.constructiontakeoff.util.dxf;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+class SymbolTableTest {
+
+    @Test
+    void internsAHundredThousandAnonymousBlocks() {
+        SymbolTable symbols = new SymbolTable();
+        int count = 100_000;
+
+        assertTimeout(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < count; i++) {
+                assertEquals(i + 1, symbols.id("*D" + i));
+            }
+        });
+
+        assertEquals(count + 1, symbols.size());
+        assertEquals(SymbolTable.EMPTY, symbols.id(""));
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1, symbols.id("*D" + i));
+            assertEquals("*D" + i, symbols.name(i + 1));
+        }
+    }
+
+    @Test
+    void concurrentInsertsAgreeOnEveryId() throws Exception {
+        int count = 20_000;
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add("*U" + i);
+        }
+        SymbolTable symbols = new SymbolTable();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<int[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                List<String> order = new ArrayList<>(names);
+                Collections.shuffle(order, new Random(t));
+                tasks.add(() -> {
+                    int[] ids = new int[count];
+                    for (String name : order) {
+                        ids[Integer.parseInt(name.substring(2))] = symbols.id(name);
+                    }
+                    return ids;
+                });
+            }
+            List<Future<int[]>> results = executor.invokeAll(tasks);
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expected, result.get(), "ids differ between threads");
+            }
+            assertEquals(count + 1, symbols.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals("*U" + i, symbols.name(expected[i]));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.constructiontakeoff.util.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CollinearSegmentMergerTest {
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void unionsOverlappingSegmentsPerLayer() {
+        Segments segments = new Segments()
+                .add(0, 0, 0, 100, 0)
+                .add(0, 150, 0, 50, 0)
+                .add(0, 200, 0, 300, 0)
+                .add(0, 0, 10, 100, 10)
+                .add(1, 0, 0, 100, 0)
+                .add(1, 0, 0, 0, 100)
+                .add(1, 0, 50, 0, 80);
+
+        assertArrayEquals(new double[] { 350, 200 }, segments.union(new CollinearSegmentMerger(), null), EPSILON);
+    }
+
+    @Test
+    void mergesOffsetsEitherSideOfABinBoundary() {
+        double resolution = 1e-3;
+        Segments segments = new Segments()
+                .add(0, 0, 0.5 * resolution - 1e-9, 100, 0.5 * resolution - 1e-9)
+                .add(0, 50, 0.5 * resolution + 1e-9, 150, 0.5 * resolution + 1e-9);
+
+        assertEquals(150.0, segments.union(new CollinearSegmentMerger(1e-4, resolution), null)[0], EPSILON);
+    }
+
+    @Test
+    void mergesAnglesEitherSideOfABinBoundaryAndAcrossTheHalfTurn() {
+        CollinearSegmentMerger merger = new CollinearSegmentMerger(1e-4, 1e-3);
+        double boundary = 0.5 * Math.PI / Math.round(Math.PI / 1e-4);
+        Segments straddling = new Segments()
+                .add(0, 0, 0, 1000 * Math.cos(boundary - 1e-7), 1000 * Math.sin(boundary - 1e-7))
+                .add(0, 0, 0, 1000 * Math.cos(boundary + 1e-7), 1000 * Math.sin(boundary + 1e-7));
+        assertEquals(1000.0, straddling.union(merger, null)[0], 1e-3);
+
+        Segments halfTurn = new Segments()
+                .add(0, 0, 0, 100, 1e-6)
+                .add(0, 50, 0, 150, -1e-6);
+        assertEquals(150.0, halfTurn.union(merger, null)[0], EPSILON);
+    }
+
+    @Test
+    void groupsSnapToTheirFirstMember() {
+        Segments segments = new Segments()
+                .add(0, 0, 0, 100, 0)
+                .add(0, 50, 0.0008, 150, 0.0008)
+                .add(0, 100, 0.0016, 200, 0.0016);
+
+        assertEquals(250.0, segments.union(new CollinearSegmentMerger(1e-4, 1e-3), null)[0], EPSILON);
+    }
+
+    @Test
+    void parallelBucketsMatchTheSequentialResult() {
+        Random random = new Random(3L);
+        Segments segments = new Segments();
+        for (int i = 0; i < 40000; i++) {
+            double y = random.nextInt(500) * 10.0;
+            double x = random.nextDouble() * 1e4;
+            if (i % 2 == 0) {
+                segments.add(i % 3, x, y, x + random.nextDouble() * 500, y);
+            } else {
+                segments.add(i % 3, y, x, y, x + random.nextDouble() * 500);
+            }
+        }
+
+        CollinearSegmentMerger merger = new CollinearSegmentMerger();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(segments.union(merger, null), segments.union(merger, pool), 1e-6);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class Segments {
+        private int[] layers = new int[16];
+        private double[] x1s = new double[16];
+        private double[] y1s = new double[16];
+        private double[] x2s = new double[16];
+        private double[] y2s = new double[16];
+        private int size;
+        private int layerCount;
+
+        Segments add(int layer, double x1, double y1, double x2, double y2) {
+            if (size == layers.length) {
+                layers = Arrays.copyOf(layers, size * 2);
+                x1s = Arrays.copyOf(x1s, size * 2);
+                y1s = Arrays.copyOf(y1s, size * 2);
+                x2s = Arrays.copyOf(x2s, size * 2);
+                y2s = Arrays.copyOf(y2s, size * 2);
+            }
+            layers[size] = layer;
+            x1s[size] = x1;
+            y1s[size] = y1;
+            x2s[size] = x2;
+            y2s[size] = y2;
+            size++;
+            layerCount = Math.max(layerCount, layer + 1);
+            return this;
+        }
+
+        double[] union(CollinearSegmentMerger merger, ForkJoinPool pool) {
+            return merger.unionLengths(layers, x1s, y1s, x2s, y2s, size, layerCount, pool);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.constructiontakeoff.util.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeometryCalculatorTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void bulgeArcLengthMatchesCircularArc() {
+        assertEquals(Math.PI * 1000, GeometryCalculator.calculateArcLength(2000, 1.0), EPSILON);
+        assertEquals(Math.PI * 1000, GeometryCalculator.calculateArcLength(2000, -1.0), EPSILON);
+
+        double quarterChord = Math.sqrt(2) * 500;
+        assertEquals(Math.PI * 250, GeometryCalculator.calculateArcLength(quarterChord, Math.tan(Math.PI / 8)),
+                EPSILON);
+        assertEquals(1234.5, GeometryCalculator.calculateArcLength(1234.5, 0.0));
+    }
+
+    @Test
+    void bulgeSegmentAreaIsSignedCircularSegment() {
+        double semicircle = GeometryCalculator.calculateSegmentArea(2000, 1.0);
+        assertEquals(Math.PI * 1000 * 1000 / 2, semicircle, 1e-6);
+        assertEquals(-semicircle, GeometryCalculator.calculateSegmentArea(2000, -1.0));
+    }
+
+    @Test
+    void smallArcSeriesAgreesWithClosedForm() {
+        for (double angle : new double[] { 9.9e-3, 1e-2, 1.01e-2, 5e-2 }) {
+            double bulge = Math.tan(angle / 4);
+            double radius = 1000.0;
+            double chord = 2 * radius * Math.sin(angle / 2);
+            double exact = radius * radius * (angle - Math.sin(angle)) / 2;
+
+            assertEquals(exact, GeometryCalculator.calculateSegmentArea(chord, bulge), Math.abs(exact) * 1e-6,
+                    "angle " + angle);
+        }
+    }
+
+    @Test
+    void twoHalfTurnBulgesCloseAFullCircle() {
+        double[] xs = { -500, 500 };
+        double[] ys = { 0, 0 };
+        double[] bulges = { 1.0, 1.0 };
+
+        assertEquals(Math.PI * 500 * 500, GeometryCalculator.calculatePolygonArea(xs, ys, bulges, 2), 1e-6);
+        assertEquals(Math.PI * 1000, GeometryCalculator.calculateLength(xs, ys, bulges, 2, true), EPSILON);
+        assertEquals(Math.PI * 500, GeometryCalculator.calculateLength(xs, ys, bulges, 2, false), EPSILON);
+    }
+
+    @Test
+    void bulgesAddOrCutSegmentsFromAPolygon() {
+        double[] xs = { 0, 1000, 1000, 0 };
+        double[] ys = { 0, 0, 1000, 1000 };
+        double halfDisc = Math.PI * 500 * 500 / 2;
+
+        double[] outward = { 1.0, 0, 0, 0 };
+        double[] inward = { -1.0, 0, 0, 0 };
+        assertEquals(1e6 + halfDisc, GeometryCalculator.calculatePolygonArea(xs, ys, outward, 4), 1e-6);
+        assertEquals(1e6 - halfDisc, GeometryCalculator.calculatePolygonArea(xs, ys, inward, 4), 1e-6);
+        assertEquals(3000 + Math.PI * 500, GeometryCalculator.calculateLength(xs, ys, outward, 4, true), EPSILON);
+    }
+}
@@ -0,0 +1,45 @@
+package com.constructiontakeoff.util.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeometryKernelsTest {
+
+    @Test
+    void scalarIsTheDefaultKernel() {
+        if (System.getProperty(GeometryKernels.KERNEL_PROPERTY) == null) {
+            assertTrue(GeometryKernels.get() instanceof ScalarGeometryKernel);
+        }
+        assertTrue(GeometryKernels.select(GeometryKernels.SCALAR) instanceof ScalarGeometryKernel);
+    }
+
+    @Test
+    void vectorKernelMatchesScalarKernel() {
+        GeometryKernel scalar = GeometryKernels.select(GeometryKernels.SCALAR);
+        GeometryKernel vector = GeometryKernels.select(GeometryKernels.VECTOR);
+        Random random = new Random(11L);
+
+        for (int count : new int[] { 0, 1, 2, 3, 7, 16, 33, 100, 1001, 10007 }) {
+            double[] xs = new double[count + 3];
+            double[] ys = new double[count + 3];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = random.nextDouble() * 1e5;
+                ys[i] = random.nextDouble() * 1e5;
+            }
+
+            for (int from : new int[] { 0, 3 }) {
+                int to = Math.min(from + count, xs.length);
+                double length = scalar.sumSegmentLengths(xs, ys, from, to);
+                double cross = scalar.sumCrossProducts(xs, ys, from, to);
+                assertEquals(length, vector.sumSegmentLengths(xs, ys, from, to), Math.abs(length) * 1e-12,
+                        "length of " + count);
+                assertEquals(cross, vector.sumCrossProducts(xs, ys, from, to), 1e-12 * count * 1e10,
+                        "cross products of " + count);
+            }
+        }
+    }
+}
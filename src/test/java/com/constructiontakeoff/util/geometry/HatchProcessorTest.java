@@ -0,0 +1,149 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.model.LayerInfoTable;
+import com.constructiontakeoff.util.dxf.DxfFixtures;
+import com.constructiontakeoff.util.dxf.DxfParser;
+import com.constructiontakeoff.util.dxf.HatchBoundary;
+import com.constructiontakeoff.util.material.LayerMaterialProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HatchProcessorTest {
+    private static final double EPSILON = 1e-9;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void islandsFollowTheHatchStyle() throws Exception {
+        String outer = polylineLoop(HatchBoundary.LOOP_EXTERNAL, 0, 0, 10, 0, 10, 10, 0, 10);
+        String island = polylineLoop(0, 4, 4, 6, 4, 6, 6, 4, 6);
+        String nested = polylineLoop(0, 4.5, 4.5, 5.5, 4.5, 5.5, 5.5, 4.5, 5.5);
+
+        assertEquals(100.0, area(hatch(HatchBoundary.STYLE_NORMAL, outer)), EPSILON);
+        assertEquals(96.0, area(hatch(HatchBoundary.STYLE_NORMAL, outer, island)), EPSILON);
+        assertEquals(97.0, area(hatch(HatchBoundary.STYLE_NORMAL, outer, island, nested)), EPSILON);
+        assertEquals(96.0, area(hatch(HatchBoundary.STYLE_OUTER, outer, island, nested)), EPSILON);
+        assertEquals(100.0, area(hatch(HatchBoundary.STYLE_IGNORE, outer, island, nested)), EPSILON);
+    }
+
+    @Test
+    void measuresArcEdgesInBothDirections() throws Exception {
+        String counterClockwise = edgeLoop(HatchBoundary.LOOP_EXTERNAL,
+                line(-5, 0, 5, 0), arc(0, 0, 5, 0, 180, true));
+        String clockwise = edgeLoop(HatchBoundary.LOOP_EXTERNAL,
+                line(-5, 0, 5, 0), arc(0, 0, 5, 0, 180, false));
+
+        assertEquals(Math.PI * 25 / 2, area(hatch(HatchBoundary.STYLE_NORMAL, counterClockwise)), EPSILON);
+        assertEquals(Math.PI * 25 / 2, area(hatch(HatchBoundary.STYLE_NORMAL, clockwise)), EPSILON);
+    }
+
+    @Test
+    void measuresEllipseEdges() throws Exception {
+        String full = edgeLoop(HatchBoundary.LOOP_EXTERNAL, ellipse(0, 0, 10, 0, 0.5, 0, 360, true));
+        String half = edgeLoop(HatchBoundary.LOOP_EXTERNAL,
+                ellipse(0, 0, 10, 0, 0.5, 0, 180, true), line(-10, 0, 10, 0));
+        String clockwise = edgeLoop(HatchBoundary.LOOP_EXTERNAL,
+                line(-10, 0, 10, 0), ellipse(0, 0, 10, 0, 0.5, 0, 180, false));
+
+        assertEquals(Math.PI * 50, area(hatch(HatchBoundary.STYLE_NORMAL, full)), 1e-6);
+        assertEquals(Math.PI * 25, area(hatch(HatchBoundary.STYLE_NORMAL, half)), 1e-6);
+        assertEquals(Math.PI * 25, area(hatch(HatchBoundary.STYLE_NORMAL, clockwise)), 1e-6);
+    }
+
+    @Test
+    void measuresBulgedPolylineLoops() throws Exception {
+        String bulged = " 92\n" + (HatchBoundary.LOOP_EXTERNAL | HatchBoundary.LOOP_POLYLINE)
+                + "\n 72\n1\n 73\n1\n 93\n4\n"
+                + " 10\n0.0\n 20\n0.0\n 42\n1.0\n"
+                + " 10\n10.0\n 20\n0.0\n 42\n0.0\n"
+                + " 10\n10.0\n 20\n10.0\n 42\n0.0\n"
+                + " 10\n0.0\n 20\n10.0\n 42\n0.0\n"
+                + " 97\n0\n";
+
+        assertEquals(100 + Math.PI * 25 / 2, area(hatch(HatchBoundary.STYLE_NORMAL, bulged)), EPSILON);
+    }
+
+    @Test
+    void parallelLoopsMatchTheSequentialResult() throws Exception {
+        List<String> loops = new ArrayList<>();
+        loops.add(polylineLoop(HatchBoundary.LOOP_EXTERNAL, 0, 0, 400, 0, 400, 400, 0, 400));
+        for (int row = 0; row < 18; row++) {
+            for (int column = 0; column < 18; column++) {
+                double x = 10 + column * 20;
+                double y = 10 + row * 20;
+                loops.add(polylineLoop(0, x, y, x + 10, y, x + 10, y + 10, x, y + 10));
+            }
+        }
+        File dxf = DxfFixtures.write(tempDir, "islands.dxf",
+                DxfFixtures.entities(hatch(HatchBoundary.STYLE_NORMAL, loops.toArray(new String[0]))));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            double[] areas = new double[2];
+            new DxfParser().parse(dxf, entity -> {
+                HatchBoundary boundary = entity.getHatchBoundary();
+                assertEquals(325, boundary.getLoopCount());
+                areas[0] = HatchProcessor.calculateNetArea(boundary, null);
+                areas[1] = HatchProcessor.calculateNetArea(boundary, pool);
+            });
+            assertEquals(400 * 400 - 324 * 100.0, areas[0], EPSILON);
+            assertEquals(areas[0], areas[1]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double area(String hatch) throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "hatch.dxf", DxfFixtures.entities(hatch));
+        LayerInfoTable layerInfos = new LayerInfoTable();
+        HatchProcessor processor = new HatchProcessor(new LayerMaterialProvider(), new HashMap<>(), null);
+        new DxfParser().parse(dxf, entity -> processor.process(entity, layerInfos));
+        assertEquals(1L, layerInfos.layers().get(0).getEntityCount());
+        return layerInfos.layers().get(0).getTotalArea();
+    }
+
+    private static String hatch(int style, String... loops) {
+        return "  0\nHATCH\n  8\nA-HATCH\n 10\n0.0\n 20\n0.0\n 30\n0.0\n210\n0.0\n220\n0.0\n230\n1.0\n"
+                + "  2\nSOLID\n 70\n1\n 71\n0\n 91\n" + loops.length + "\n" + String.join("", loops)
+                + " 75\n" + style + "\n 76\n1\n 98\n0\n";
+    }
+
+    private static String polylineLoop(int flags, double... xys) {
+        StringBuilder out = new StringBuilder(" 92\n").append(flags | HatchBoundary.LOOP_POLYLINE)
+                .append("\n 72\n0\n 73\n1\n 93\n").append(xys.length / 2).append('\n');
+        for (int i = 0; i + 1 < xys.length; i += 2) {
+            out.append(" 10\n").append(xys[i]).append("\n 20\n").append(xys[i + 1]).append('\n');
+        }
+        return out.append(" 97\n0\n").toString();
+    }
+
+    private static String edgeLoop(int flags, String... edges) {
+        return " 92\n" + flags + "\n 93\n" + edges.length + "\n" + String.join("", edges) + " 97\n0\n";
+    }
+
+    private static String line(double x1, double y1, double x2, double y2) {
+        return " 72\n1\n 10\n" + x1 + "\n 20\n" + y1 + "\n 11\n" + x2 + "\n 21\n" + y2 + "\n";
+    }
+
+    private static String arc(double cx, double cy, double radius, double start, double end,
+            boolean counterClockwise) {
+        return " 72\n2\n 10\n" + cx + "\n 20\n" + cy + "\n 40\n" + radius + "\n 50\n" + start + "\n 51\n" + end
+                + "\n 73\n" + (counterClockwise ? 1 : 0) + "\n";
+    }
+
+    private static String ellipse(double cx, double cy, double mx, double my, double ratio, double start,
+            double end, boolean counterClockwise) {
+        return " 72\n3\n 10\n" + cx + "\n 20\n" + cy + "\n 11\n" + mx + "\n 21\n" + my + "\n 40\n" + ratio
+                + "\n 50\n" + start + "\n 51\n" + end + "\n 73\n" + (counterClockwise ? 1 : 0) + "\n";
+    }
+}
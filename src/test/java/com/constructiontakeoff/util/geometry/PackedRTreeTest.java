@@ -0,0 +1,79 @@
+package com.constructiontakeoff.util.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedRTreeTest {
+
+    @Test
+    void windowQueriesMatchABruteForceScan() {
+        Random random = new Random(5L);
+        for (int count : new int[] { 0, 1, 15, 16, 17, 256, 3000 }) {
+            double[][] boxes = randomBoxes(random, count);
+            for (int nodeSize : new int[] { 2, 4, PackedRTree.DEFAULT_NODE_SIZE }) {
+                PackedRTree tree = PackedRTree.build(boxes[0], boxes[1], boxes[2], boxes[3], count, nodeSize);
+                assertEquals(count, tree.size());
+
+                for (int query = 0; query < 200; query++) {
+                    double x = random.nextDouble() * 1e4;
+                    double y = random.nextDouble() * 1e4;
+                    double w = random.nextDouble() * 2000;
+                    double h = random.nextDouble() * 2000;
+                    assertArrayEquals(scan(boxes, count, x, y, x + w, y + h), sorted(tree.search(x, y, x + w, y + h)),
+                            count + " boxes, node size " + nodeSize + ", query " + query);
+                }
+            }
+        }
+    }
+
+    @Test
+    void pointQueriesIncludeBoxEdgesAndDegenerateBoxes() {
+        double[] minX = { 0, 100, 50, 300 };
+        double[] minY = { 0, 0, 50, 300 };
+        double[] maxX = { 100, 200, 50, 400 };
+        double[] maxY = { 100, 100, 50, 300 };
+        PackedRTree tree = PackedRTree.build(minX, minY, maxX, maxY, 4, 2);
+
+        assertArrayEquals(new int[] { 0, 1 }, sorted(tree.searchPoint(100, 50, 0)));
+        assertArrayEquals(new int[] { 0, 2 }, sorted(tree.searchPoint(50, 50, 0)));
+        assertArrayEquals(new int[] { 3 }, sorted(tree.searchPoint(350, 300.5, 1)));
+        assertArrayEquals(new int[0], tree.searchPoint(250, 250, 10));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, sorted(tree.search(-1, -1, 1000, 1000)));
+    }
+
+    @Test
+    void rejectsNodesThatCannotBranch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedRTree.build(new double[1], new double[1], new double[1], new double[1], 1, 1));
+    }
+
+    private static double[][] randomBoxes(Random random, int count) {
+        double[][] boxes = new double[4][count];
+        for (int i = 0; i < count; i++) {
+            boxes[0][i] = random.nextDouble() * 1e4;
+            boxes[1][i] = random.nextDouble() * 1e4;
+            boxes[2][i] = boxes[0][i] + (i % 10 == 0 ? 0 : random.nextDouble() * 500);
+            boxes[3][i] = boxes[1][i] + (i % 10 == 0 ? 0 : random.nextDouble() * 500);
+        }
+        return boxes;
+    }
+
+    private static int[] scan(double[][] boxes, int count, double minX, double minY, double maxX, double maxY) {
+        return IntStream.range(0, count)
+                .filter(i -> boxes[0][i] <= maxX && boxes[1][i] <= maxY && boxes[2][i] >= minX && boxes[3][i] >= minY)
+                .toArray();
+    }
+
+    private static int[] sorted(int[] items) {
+        int[] copy = items.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,116 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.util.dxf.DxfFixtures;
+import com.constructiontakeoff.util.dxf.DxfParser;
+import com.constructiontakeoff.util.dxf.LineSegmentSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlanarRoomDetectorTest {
+    private static final double EPSILON = 1e-3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsRoomsInASimplePlan() throws Exception {
+        RoomFaces rooms = detect(plan(new Random(25L)));
+
+        assertEquals(12, rooms.size());
+        assertEquals(16e6 - 600 * 600, area(rooms, 3000, 3000), EPSILON);
+        assertEquals(16e6, area(rooms, 10000, 10000), EPSILON);
+        assertEquals(-1, rooms.locate(1700, 1700));
+
+        int west = rooms.locate(21000, 2500);
+        int east = rooms.locate(25000, 2500);
+        assertNotEquals(west, east);
+        assertEquals(15e6, rooms.getArea(west), 50.0);
+        assertEquals(15e6, rooms.getArea(east), 50.0);
+
+        assertEquals(4600.0 * 4600.0, area(rooms, 2500, 22500), EPSILON);
+        assertEquals(-1, rooms.locate(100, 22500));
+    }
+
+    @Test
+    void resultDoesNotDependOnDrawingOrder() throws Exception {
+        RoomFaces first = detect(plan(new Random(1L)));
+        RoomFaces second = detect(plan(new Random(2L)));
+
+        assertEquals(first.size(), second.size());
+        for (double[] point : new double[][] { { 3000, 3000 }, { 6000, 10000 }, { 21000, 2500 }, { 2500, 22500 } }) {
+            assertEquals(area(first, point[0], point[1]), area(second, point[0], point[1]), EPSILON);
+        }
+    }
+
+    @Test
+    void keepsTheFirstTagAndSkipsColumns() throws Exception {
+        RoomFaces rooms = detect(plan(new Random(25L)));
+
+        assertEquals(-1, rooms.assignTag(1700, 1700, "COLUMN"));
+        int kitchen = rooms.assignTag(3000, 3000, "KITCHEN");
+        assertEquals(kitchen, rooms.assignTag(3500, 3500, "DINING"));
+        assertEquals("KITCHEN", rooms.getTag(kitchen));
+        assertEquals("HALL", rooms.getTag(rooms.assignTag(2500, 22500, "HALL")));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new PlanarRoomDetector(0, 1e6, 600));
+        assertThrows(IllegalArgumentException.class, () -> new PlanarRoomDetector(5, -1, 600));
+        assertEquals(0, new PlanarRoomDetector(5, 1e6, 600).detect(new int[0], new double[0], new double[0],
+                new double[0], new double[0], 0).size());
+    }
+
+    // A 3x3 grid of 4 m rooms drawn as long crossing lines with a column in one room, a building whose corners
+    // miss by a few millimetres and whose partition stops short of the wall, and a double-line room whose wall
+    // ring is too thin to count.
+    private static List<String> plan(Random random) {
+        List<String> lines = new ArrayList<>();
+        for (int k = 0; k < 4; k++) {
+            lines.add(DxfFixtures.line("A-WALL", 0, k * 4000, 12000, k * 4000));
+            lines.add(DxfFixtures.line("A-WALL", k * 4000, 0, k * 4000, 12000));
+        }
+        rectangle(lines, 1500, 1500, 2100, 2100);
+
+        double x = 20000;
+        lines.add(DxfFixtures.line("A-WALL", x, 0, x + 6000, 0.002));
+        lines.add(DxfFixtures.line("A-WALL", x + 6000.003, 0, x + 6000, 5000));
+        lines.add(DxfFixtures.line("A-WALL", x + 6000, 5000.001, x, 5000));
+        lines.add(DxfFixtures.line("A-WALL", x, 5000, x + 0.002, 0.001));
+        lines.add(DxfFixtures.line("A-WALL", x + 3000, 0, x + 3000, 4999.997));
+
+        rectangle(lines, 0, 20000, 5000, 25000);
+        rectangle(lines, 200, 20200, 4800, 24800);
+        Collections.shuffle(lines, random);
+        return lines;
+    }
+
+    private RoomFaces detect(List<String> lines) throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "plan.dxf", DxfFixtures.entities(String.join("", lines)));
+        LineSegmentSet segments = new LineSegmentSet();
+        new DxfParser().parse(dxf, segments.collector(layer -> true));
+        return segments.detectRooms(new PlanarRoomDetector(5, 1e6, 600));
+    }
+
+    private static double area(RoomFaces rooms, double x, double y) {
+        return rooms.getArea(rooms.locate(x, y));
+    }
+
+    private static void rectangle(List<String> lines, double x1, double y1, double x2, double y2) {
+        lines.add(DxfFixtures.line("A-WALL", x1, y1, x2, y1));
+        lines.add(DxfFixtures.line("A-WALL", x2, y1, x2, y2));
+        lines.add(DxfFixtures.line("A-WALL", x2, y2, x1, y2));
+        lines.add(DxfFixtures.line("A-WALL", x1, y2, x1, y1));
+    }
+}
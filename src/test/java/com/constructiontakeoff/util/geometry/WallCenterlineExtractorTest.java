@@ -0,0 +1,173 @@
+package com.constructiontakeoff.util.geometry;
+
+import com.constructiontakeoff.util.dxf.DxfFixtures;
+import com.constructiontakeoff.util.dxf.DxfParser;
+import com.constructiontakeoff.util.dxf.LineSegmentSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WallCenterlineExtractorTest {
+    private static final double EPSILON = 1e-6;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void pairsTheFacesOfADoubleLineRoom() throws Exception {
+        File dxf = DxfFixtures.write(tempDir, "room.dxf", DxfFixtures.entities(
+                rectangle("A-WALL", -200, -200, 4200, 3200)
+                        + rectangle("A-WALL", 0, 0, 4000, 3000)
+                        + DxfFixtures.line("A-DOOR", 1000, 100, 1900, 100)));
+        LineSegmentSet lines = new LineSegmentSet();
+        new DxfParser().parse(dxf, lines.collector(layer -> true));
+
+        WallCenterlines walls = lines.extractWalls(millimetres(), null);
+
+        assertEquals(4, walls.getPairCount());
+        assertEquals(14000.0, walls.getTotalCenterlineLength(), EPSILON);
+        assertEquals(Map.of(200.0, 14000.0), walls.getThicknessDistribution());
+        double unpaired = 0.0;
+        for (int layer = 0; layer < walls.getLayerCount(); layer++) {
+            unpaired += walls.getUnpairedLength(layer);
+        }
+        assertEquals(1600.0 + 900.0, unpaired, EPSILON);
+    }
+
+    @Test
+    void claimsEachFaceOnceStartingWithTheMostCommonThickness() {
+        Segments segments = new Segments()
+                .add(0, 0, 0, 5000, 0)
+                .add(0, 0, 200, 5000, 200)
+                .add(0, 0, 400, 5000, 400);
+
+        WallCenterlines walls = segments.extract(millimetres(), null);
+
+        assertEquals(1, walls.getPairCount());
+        assertEquals(5000.0, walls.getCenterlineLength(0), EPSILON);
+        assertEquals(5000.0, walls.getUnpairedLength(0), EPSILON);
+        assertEquals(Map.of(200.0, 5000.0), walls.getThicknessDistribution());
+    }
+
+    @Test
+    void pairsOnlyTheOverlapOfOpposedFaces() {
+        Segments segments = new Segments()
+                .add(0, 0, 0, 5000, 0)
+                .add(0, 6000, 200, 1000, 200);
+
+        WallCenterlines walls = segments.extract(millimetres(), null);
+
+        assertEquals(4000.0, walls.getCenterlineLength(0), EPSILON);
+        assertEquals(2000.0, walls.getUnpairedLength(0), EPSILON);
+    }
+
+    @Test
+    void ignoresFacesOutsideTheBandOnOtherLayersOrOffAngle() {
+        double skew = 5000 * Math.tan(Math.toRadians(2.0));
+        Segments segments = new Segments()
+                .add(0, 0, 0, 5000, 0)
+                .add(0, 0, 30, 5000, 30)
+                .add(0, 10000, 0, 15000, 0)
+                .add(0, 10000, 600, 15000, 600)
+                .add(0, 20000, 0, 25000, 0)
+                .add(1, 20000, 200, 25000, 200)
+                .add(0, 30000, 0, 35000, 0)
+                .add(0, 30000, 200, 35000, 200 + skew);
+
+        WallCenterlines walls = segments.extract(millimetres(), null);
+
+        assertEquals(0, walls.getPairCount());
+        assertEquals(0.0, walls.getTotalCenterlineLength());
+        assertEquals(Map.of(), walls.getThicknessDistribution());
+    }
+
+    @Test
+    void parallelSearchMatchesTheSequentialResult() {
+        Random random = new Random(24L);
+        double[] thicknesses = { 100, 150, 200, 250 };
+        Segments segments = new Segments();
+        for (int i = 0; i < 6000; i++) {
+            double along = random.nextInt(200) * 500.0;
+            double across = random.nextInt(200) * 500.0;
+            double length = 500 + random.nextInt(8) * 250.0;
+            double thickness = thicknesses[random.nextInt(thicknesses.length)];
+            if (i % 2 == 0) {
+                segments.add(i % 3, along, across, along + length, across)
+                        .add(i % 3, along + length, across + thickness, along, across + thickness);
+            } else {
+                segments.add(i % 3, across, along, across, along + length)
+                        .add(i % 3, across + thickness, along, across + thickness, along + length);
+            }
+        }
+
+        WallCenterlineExtractor extractor = millimetres();
+        WallCenterlines sequential = segments.extract(extractor, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WallCenterlines parallel = segments.extract(extractor, pool);
+            assertEquals(sequential.getPairCount(), parallel.getPairCount());
+            assertEquals(sequential.getThicknessDistribution(), parallel.getThicknessDistribution());
+            for (int layer = 0; layer < sequential.getLayerCount(); layer++) {
+                assertEquals(sequential.getCenterlineLength(layer), parallel.getCenterlineLength(layer));
+                assertEquals(sequential.getUnpairedLength(layer), parallel.getUnpairedLength(layer));
+                assertEquals(sequential.getThicknessDistribution(layer), parallel.getThicknessDistribution(layer));
+                double binned = 0.0;
+                for (double length : sequential.getThicknessDistribution(layer).values()) {
+                    binned += length;
+                }
+                assertEquals(sequential.getCenterlineLength(layer), binned, EPSILON);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static WallCenterlineExtractor millimetres() {
+        return new WallCenterlineExtractor(50, 500, 5);
+    }
+
+    private static String rectangle(String layer, double x1, double y1, double x2, double y2) {
+        return DxfFixtures.line(layer, x1, y1, x2, y1) + DxfFixtures.line(layer, x2, y1, x2, y2)
+                + DxfFixtures.line(layer, x2, y2, x1, y2) + DxfFixtures.line(layer, x1, y2, x1, y1);
+    }
+
+    private static final class Segments {
+        private int[] layers = new int[16];
+        private double[] x1s = new double[16];
+        private double[] y1s = new double[16];
+        private double[] x2s = new double[16];
+        private double[] y2s = new double[16];
+        private int size;
+        private int layerCount;
+
+        Segments add(int layer, double x1, double y1, double x2, double y2) {
+            if (size == layers.length) {
+                layers = Arrays.copyOf(layers, size * 2);
+                x1s = Arrays.copyOf(x1s, size * 2);
+                y1s = Arrays.copyOf(y1s, size * 2);
+                x2s = Arrays.copyOf(x2s, size * 2);
+                y2s = Arrays.copyOf(y2s, size * 2);
+            }
+            layers[size] = layer;
+            x1s[size] = x1;
+            y1s[size] = y1;
+            x2s[size] = x2;
+            y2s[size] = y2;
+            size++;
+            layerCount = Math.max(layerCount, layer + 1);
+            return this;
+        }
+
+        WallCenterlines extract(WallCenterlineExtractor extractor, ForkJoinPool pool) {
+            return extractor.extract(layers, x1s, y1s, x2s, y2s, size, layerCount, pool);
+        }
+    }
+}